@@ -3,6 +3,7 @@ package drawing;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.*;
+import java.util.Arrays;
 
 import javax.swing.*;
 
@@ -54,6 +55,12 @@ public class Graphics3DView extends JPanel {
 		if (model == null) return;
 		if (cameraIndex < 0 || cameraIndex >= model.getNumberOfCameras()) return;
 		
+		if (model.isSinglePrecision()) {
+			paintSinglePrecision(g2d);
+			
+			return;
+		}
+		
 		Camera3D camera = model.getCameraAtIndex(cameraIndex);
 		Triangle3D[] triangles = model.getPreparedTrianglesForCamera(cameraIndex);
 		
@@ -66,7 +73,7 @@ public class Graphics3DView extends JPanel {
 			
 			path.moveTo(a.getX(), a.getY());
 			path.lineTo(b.getX(), b.getY());
-			path.lineTo(b.getX(), c.getY());
+			path.lineTo(c.getX(), c.getY());
 			path.closePath();
 			
 			g2d.setColor(new Color(triangle.getColor().r(), 
@@ -76,4 +83,40 @@ public class Graphics3DView extends JPanel {
 		}
 	}
 	
+	private void paintSinglePrecision(Graphics2D g2d) {
+		FloatMeshBuffer mesh = model.getFloatMeshBuffer();
+		int[] order = model.getPreparedOrderForCamera(cameraIndex);
+		float[] p = model.getProjectedPointsForCamera(cameraIndex);
+		int[] ts = mesh.triangleIndices();
+		int[] cs = mesh.triangleColorIndices();
+		
+		Color[] colors = new Color[0];
+		GeneralPath path = new GeneralPath(Path2D.WIND_NON_ZERO);
+		
+		for (int t : order) {
+			int a = 2 * ts[3 * t];
+			int b = 2 * ts[3 * t + 1];
+			int c = 2 * ts[3 * t + 2];
+			int ci = cs[t];
+			
+			path.reset();
+			path.moveTo(p[a], p[a + 1]);
+			path.lineTo(p[b], p[b + 1]);
+			path.lineTo(p[c], p[c + 1]);
+			path.closePath();
+			
+			if (ci >= colors.length) {
+				colors = Arrays.copyOf(colors, ci + 1);
+			}
+			if (colors[ci] == null) {
+				model.basis.Color color = mesh.getColorAtIndex(ci);
+				
+				colors[ci] = new Color(color.r(), color.g(), color.b());
+			}
+			
+			g2d.setColor(colors[ci]);
+			g2d.fill(path);
+		}
+	}
+	
 }
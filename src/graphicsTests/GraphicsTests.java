@@ -1,6 +1,7 @@
 package graphicsTests;
 
 import java.awt.*;
+import java.awt.event.*;
 
 import javax.swing.*;
 
@@ -33,6 +34,7 @@ public class GraphicsTests {
 		                             new Color(255, 0, 0));
 		Polygon3D s6 = new Polygon3D(new Vector3D[] {b, c, g, f}, 
 		                             new Color(255, 0, 255));
+		*/
 		
 		Polygon3D base = new Polygon3D(new Vector3D[] {new Vector3D(0.0, 0.0, 0.0), 
 		                               				   new Vector3D(1.0, 0.0, 0.0), 
@@ -56,7 +58,7 @@ public class GraphicsTests {
 		                               1.0, 
 		                               1200.0);
 		
-		Model3D model = new Model3D();
+		final Model3D model = new Model3D();
 		/*
 		model.addPolygon(s1);
 		model.addPolygon(s2);
@@ -64,18 +66,18 @@ public class GraphicsTests {
 		model.addPolygon(s4);
 		model.addPolygon(s5);
 		model.addPolygon(s6);
-		*//*
+		*/
 		model.addPolygons(prism);
 		
-		model.addCamera(camera);*/
+		model.addCamera(camera);
 		
 		JFrame window = new JFrame();
-		TestView view = new TestView();
-		//Graphics3DView view = new Graphics3DView();
+		//TestView view = new TestView();
+		final Graphics3DView view = new Graphics3DView();
 		
 		window.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 		
-		//view.setModel(model);
+		view.setModel(model);
 		view.setPreferredSize(new Dimension(720, 405));
 		
 		window.setLayout(new BorderLayout());
@@ -86,23 +88,33 @@ public class GraphicsTests {
 		window.setVisible(true);
 		
 		view.requestFocusInWindow();
-		/*
-		for (int alpha = 0; true; alpha = (alpha + 1) % 720) {
-			Camera3D nc = Camera3D.offset(camera, 
-			                              new Vector3D(0, 0, 1.5 * Math.sin(Math.toRadians(alpha * 1.5))));
-			
-			nc = Camera3D.rotateAboutPoint(nc, model.getCenter(), alpha);
-			
-			model.clearCameras();
-			model.addCamera(nc);
-			
-			//view.paintImmediately(view.getBounds());
+		
+		//Camera path of the orbit, computed once instead of every frame:
+		final int frames = 720;
+		final Quaternion[] rotations = Quaternion.rotationTable(Vector3D.k, 1.0, frames);
+		final Transform3D[] offsets = new Transform3D[frames];
+		
+		for (int alpha = 0; alpha < frames; alpha++) {
+			offsets[alpha] = Transform3D.translation(new Vector3D(0, 0, 1.5 * Math.sin(Math.toRadians(alpha * 1.5))));
+		}
+		
+		final Vector3D center = model.getCenter();
+		
+		//On the event dispatch thread, so the model isn't changed while the view paints it:
+		Timer timer = new Timer(16, new ActionListener() {
+			private int alpha = 0;
 			
-			try {
-				Thread.sleep(16);
-			} catch (Exception e1) {
+			public void actionPerformed(ActionEvent e) {
+				model.setCameraTransform(0, offsets[alpha]);
+				model.orbitCamera(0, center, rotations[alpha]);
+				
+				alpha = (alpha + 1) % frames;
+				
+				view.repaint();
 			}
-		}*/
+		});
+		
+		timer.start();
 	}
-
+	
 }
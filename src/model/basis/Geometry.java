@@ -1,13 +1,34 @@
 package model.basis;
 
 public class Geometry {
+	private static volatile Tolerance tolerance = Tolerance.snapping;
+	
+	public static Tolerance getTolerance() {
+		return tolerance;
+	}
+	
+	public static void setTolerance(Tolerance t) {
+		if (t == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		tolerance = t;
+	}
 	
 	public static double round(double d) {
-		return Math.round(d * 1000000000.0) / 1000000000.0;
+		return tolerance.round(d);
 	}
 	
 	public static double round(double d, int r) {
 		return Math.round(d * Math.pow(10.0, r)) / Math.pow(10.0, r);
 	}
 	
+	public static boolean isZero(double d) {
+		return tolerance.isZero(d);
+	}
+	
+	public static boolean equal(double a, double b) {
+		return tolerance.equal(a, b);
+	}
+	
 }
@@ -0,0 +1,238 @@
+package model.basis;
+
+public class LUDecomposition {
+	private int n;
+	private double[] lu;
+	private int[] pivots;
+	private int sign;
+	private boolean singular;
+	
+	public LUDecomposition(Matrix a) {
+		if (a == null || !a.isSquare()) {
+			throw new IllegalArgumentException();
+		}
+		
+		n = a.n();
+		lu = a.entries();
+		pivots = new int[n];
+		sign = 1;
+		
+		//Maximum absolute row sum, pivots are compared to it so the test doesn't depend on scale:
+		double norm = 0.0;
+		
+		for (int i = 0; i < n; i++) {
+			double r = 0.0;
+			
+			for (int j = 0; j < n; j++) {
+				r += Math.abs(lu[i * n + j]);
+			}
+			
+			norm = Math.max(norm, r);
+		}
+		
+		singular = n > 0 && !(norm > 0.0);
+		
+		//Doolittle elimination with partial pivoting, L and U share lu:
+		for (int k = 0; k < n; k++) {
+			int p = k;
+			double max = Math.abs(lu[k * n + k]);
+			
+			for (int i = k + 1; i < n; i++) {
+				double v = Math.abs(lu[i * n + k]);
+				
+				if (v > max) {
+					max = v;
+					p = i;
+				}
+			}
+			
+			pivots[k] = p;
+			
+			if (p != k) {
+				int rk = k * n;
+				int rp = p * n;
+				
+				for (int j = 0; j < n; j++) {
+					double t = lu[rk + j];
+					lu[rk + j] = lu[rp + j];
+					lu[rp + j] = t;
+				}
+				
+				sign = -sign;
+			}
+			
+			double e = lu[k * n + k];
+			
+			if (!singular && Geometry.isZero(Math.abs(e) / norm)) {
+				singular = true;
+			}
+			
+			if (e == 0.0) {
+				continue;
+			}
+			
+			for (int i = k + 1; i < n; i++) {
+				int ri = i * n;
+				double f = lu[ri + k] / e;
+				
+				lu[ri + k] = f;
+				
+				if (f == 0.0) continue;
+				
+				int rk = k * n;
+				
+				for (int j = k + 1; j < n; j++) {
+					lu[ri + j] -= f * lu[rk + j];
+				}
+			}
+		}
+	}
+	
+	public int n() {
+		return n;
+	}
+	
+	//Singular if a pivot is negligible relative to the norm of the matrix, found during elimination:
+	public boolean isSingular() {
+		return singular;
+	}
+	
+	public double determinant() {
+		double d = sign;
+		
+		for (int i = 0; i < n; i++) {
+			d *= lu[i * n + i];
+		}
+		
+		return Geometry.round(d);
+	}
+	
+	public Matrix l() {
+		double[] v = new double[n * n];
+		
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < i; j++) {
+				v[i * n + j] = lu[i * n + j];
+			}
+			
+			v[i * n + i] = 1.0;
+		}
+		
+		return new Matrix(n, n, v);
+	}
+	
+	public Matrix u() {
+		double[] v = new double[n * n];
+		
+		for (int i = 0; i < n; i++) {
+			for (int j = i; j < n; j++) {
+				v[i * n + j] = lu[i * n + j];
+			}
+		}
+		
+		return new Matrix(n, n, v);
+	}
+	
+	public double[] solve(double[] b) {
+		if (b == null || b.length != n) {
+			throw new IllegalArgumentException();
+		}
+		
+		double[] x = b.clone();
+		
+		if (!solveInPlace(x)) {
+			return null;
+		}
+		
+		return x;
+	}
+	
+	public boolean solveInPlace(double[] b) {
+		return solveInPlace(b, 0, 1);
+	}
+	
+	//Solves for the vector stored in b at offset, offset + stride, ...:
+	public boolean solveInPlace(double[] b, int offset, int stride) {
+		if (b == null || offset < 0 || stride < 1 || 
+			offset + (n - 1) * stride >= b.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (singular) {
+			return false;
+		}
+		
+		//Applying the row interchanges in the order they were made:
+		for (int k = 0; k < n; k++) {
+			int p = pivots[k];
+			
+			if (p != k) {
+				double t = b[offset + k * stride];
+				b[offset + k * stride] = b[offset + p * stride];
+				b[offset + p * stride] = t;
+			}
+		}
+		
+		//Forward substitution with unit lower triangle:
+		for (int i = 1; i < n; i++) {
+			int ri = i * n;
+			double s = b[offset + i * stride];
+			
+			for (int j = 0; j < i; j++) {
+				s -= lu[ri + j] * b[offset + j * stride];
+			}
+			
+			b[offset + i * stride] = s;
+		}
+		
+		//Back substitution with upper triangle:
+		for (int i = n - 1; i >= 0; i--) {
+			int ri = i * n;
+			double s = b[offset + i * stride];
+			
+			for (int j = i + 1; j < n; j++) {
+				s -= lu[ri + j] * b[offset + j * stride];
+			}
+			
+			b[offset + i * stride] = s / lu[ri + i];
+		}
+		
+		return true;
+	}
+	
+	public Matrix solve(Matrix b) {
+		if (b == null || b.m() != n) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (singular) {
+			return null;
+		}
+		
+		int r = b.n();
+		double[] v = b.entries();
+		
+		for (int j = 0; j < r; j++) {
+			solveInPlace(v, j, r);
+		}
+		
+		return new Matrix(n, r, v);
+	}
+	
+	public Matrix inverse() {
+		if (singular) {
+			return null;
+		}
+		
+		double[] v = new double[n * n];
+		
+		for (int j = 0; j < n; j++) {
+			v[j * n + j] = 1.0;
+			
+			solveInPlace(v, j, n);
+		}
+		
+		return new Matrix(n, n, v);
+	}
+	
+}
@@ -1,25 +1,23 @@
 package model.basis;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 public class Matrix {
-	private double[][] entries;
+	private int m, n;
+	private double[] entries;
 	
 	public Matrix(int n) {
 		if (n < 1) {
 			throw new IllegalArgumentException();
 		}
 		
-		entries = new double[n][n];
+		this.m = n;
+		this.n = n;
+		this.entries = new double[n * n];
 		
 		for (int i = 0; i < n; i++) {
-			for (int j = 0; j < n; j++) {
-				if (i == j) {
-					entries[i][j] = 1.0;
-				}else{
-					entries[i][j] = 0.0;
-				}
-			}
+			entries[i * n + i] = 1.0;
 		}
 	}
 	
@@ -34,22 +32,18 @@ public class Matrix {
 			throw new IllegalArgumentException();
 		}
 		
-		this.entries = new double[n][n];
+		this.m = n;
+		this.n = n;
+		this.entries = new double[n * n];
 		
 		for (int i = 0; i < n; i++) {
-			for (int j = 0; j < n; j++) {
-				if (i == j) {
-					double entry = entries[i];
-					
-					if (Double.isNaN(entry)) {
-						throw new IllegalArgumentException();
-					}
-					
-					this.entries[i][j] = Geometry.round(entry);
-				}else{
-					this.entries[i][j] = 0.0;
-				}
+			double entry = entries[i];
+			
+			if (Double.isNaN(entry)) {
+				throw new IllegalArgumentException();
 			}
+			
+			this.entries[i * n + i] = Geometry.round(entry);
 		}
 	}
 	
@@ -70,7 +64,9 @@ public class Matrix {
 			throw new IllegalArgumentException();
 		}
 		
-		this.entries = new double[m][n];
+		this.m = m;
+		this.n = n;
+		this.entries = new double[m * n];
 		
 		for (int i = 0; i < m; i++) {
 			double[] row = entries[i];
@@ -86,61 +82,90 @@ public class Matrix {
 					throw new IllegalArgumentException();
 				}
 				
-				this.entries[i][j] = Geometry.round(entry);
+				this.entries[i * n + j] = Geometry.round(entry);
+			}
+		}
+	}
+	
+	public Matrix(int m, int n, double[] entries) {
+		this(m, n, entries, true);
+	}
+	
+	//With copy == false the row-major array is adopted and rounded in place:
+	private Matrix(int m, int n, double[] entries, boolean copy) {
+		if (m < 1 || n < 1 || 
+			entries == null || 
+			entries.length != m * n) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.m = m;
+		this.n = n;
+		this.entries = copy ? new double[m * n] : entries;
+		
+		for (int i = 0; i < m * n; i++) {
+			double entry = entries[i];
+			
+			if (Double.isNaN(entry)) {
+				throw new IllegalArgumentException();
 			}
+			
+			this.entries[i] = Geometry.round(entry);
 		}
 	}
 	
 	public int m() {
-		return entries.length;
+		return m;
 	}
 	
 	public int n() {
-		return entries[0].length;
+		return n;
 	}
 	
 	public boolean isSquare() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		return m == n;
 	}
 	
 	public double entry(int i, int j) {
-		if (i < 0 || i >= entries.length || 
-			j < 0 || j >= entries[0].length) {
+		if (i < 0 || i >= m || 
+			j < 0 || j >= n) {
 			throw new IllegalArgumentException();
 		}
 		
-		return entries[i][j];
+		return entries[i * n + j];
+	}
+	
+	public double[] entries() {
+		return entries.clone();
 	}
 	
 	public double[] rowVector(int i) {
-		if (i < 0 || i >= entries.length) {
+		if (i < 0 || i >= m) {
 			throw  new IllegalArgumentException();
 		}
 		
-		return entries[i];
+		double[] v = new double[n];
+		
+		System.arraycopy(entries, i * n, v, 0, n);
+		
+		return v;
 	}
 	
 	public double[] columnVector(int j) {
-		if (j < 0 || j >= entries[0].length) {
+		if (j < 0 || j >= n) {
 			throw new IllegalArgumentException();
 		}
 		
-		double[] v = new double[entries.length];
+		double[] v = new double[m];
 		
-		for (int i = 0; i < entries.length; i++) {
-			v[i] = entries[i][j];
+		for (int i = 0; i < m; i++) {
+			v[i] = entries[i * n + j];
 		}
 		
 		return v;
 	}
 	
 	public Matrix submatrix(int i, int j) {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		if (i < 0 || i >= m || 
 			j < 0 || j >= n) {
 			throw new IllegalArgumentException();
@@ -148,53 +173,42 @@ public class Matrix {
 			return null;
 		}
 		
-		double[][] v = new double[m - 1][n - 1];
+		double[] v = new double[(m - 1) * (n - 1)];
+		int o = 0;
 		
-		for (int k = 0; k < m - 1; k++) {
-			for (int l = 0; l < n - 1; l++) {
-				if (k < i) {
-					if (l < j) {
-						v[k][l] = entries[k][l];
-					}else{
-						v[k][l] = entries[k][l + 1];
-					}
-				}else{
-					if (l < j) {
-						v[k][l] = entries[k + 1][l];
-					}else{
-						v[k][l] = entries[k + 1][l + 1];
-					}
-				}
+		for (int k = 0; k < m; k++) {
+			if (k == i) continue;
+			
+			int r = k * n;
+			
+			for (int l = 0; l < n; l++) {
+				if (l == j) continue;
+				
+				v[o++] = entries[r + l];
 			}
 		}
 		
-		return new Matrix(v);
+		return new Matrix(m - 1, n - 1, v, false);
 	}
 	
 	public Matrix transpose() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
-		double[][] v = new double[n][m];
+		double[] v = new double[n * m];
 		
 		for (int i = 0; i < m; i++) {
 			for (int j = 0; j < n; j++) {
-				v[j][i] = entries[i][j];
+				v[j * m + i] = entries[i * n + j];
 			}
 		}
 		
-		return new Matrix(v);
+		return new Matrix(n, m, v, false);
 	}
 	
 	public int numberOfLeadingOnes() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		int num = 0;
 		
 		for (int i = 0; i < m; i++) {
 			for (int j = 0; j < n; j++) {
-				if (entries[i][j] == 1.0) {
+				if (entries[i * n + j] == 1.0) {
 					num++;
 					break;
 				}
@@ -205,20 +219,17 @@ public class Matrix {
 	}
 	
 	public int[] rowIndicesOfLeadingOnes() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		int[] indices = new int[0];
 		
 		for (int i = 0; i < m; i++) {
 			for (int j = 0; j < n; j++) {
-				if (entries[i][j] == 1.0) {
+				if (entries[i * n + j] == 1.0) {
 					int t = indices.length;
 					
 					indices = Arrays.copyOf(indices, t + 1);
 					indices[t] = i;
 					
-					continue;
+					break;
 				}
 			}
 		}
@@ -227,20 +238,17 @@ public class Matrix {
 	}
 	
 	public int[] columnIndicesOfLeadingOnes() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		int[] indices = new int[0];
 		
 		for (int i = 0; i < m; i++) {
 			for (int j = 0; j < n; j++) {
-				if (entries[i][j] == 1.0) {
+				if (entries[i * n + j] == 1.0) {
 					int t = indices.length;
 					
 					indices = Arrays.copyOf(indices, t + 1);
 					indices[t] = j;
 					
-					continue;
+					break;
 				}
 			}
 		}
@@ -249,62 +257,29 @@ public class Matrix {
 	}
 	
 	public double determinant() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		if (m != n) {
 			return Double.NaN;
 		}
 		
+		double[] e = entries;
+		
 		if (m == 1) {
-			return entries[0][0];
-			
+			return e[0];
+		
 		}else if (m == 2) {
-			double a = entries[0][0];
-			double b = entries[0][1];
-			double c = entries[1][0];
-			double d = entries[1][1];
-			
-			return Geometry.round(a*d - b*c);
-			
+			return Geometry.round(e[0] * e[3] - e[1] * e[2]);
+		
 		}else if (m == 3) {
-			double a = entries[0][0];
-			double b = entries[0][1];
-			double c = entries[0][2];
-			double d = entries[1][0];
-			double e = entries[1][1];
-			double f = entries[1][2];
-			double g = entries[2][0];
-			double h = entries[2][1];
-			double i = entries[2][2];
-			
-			return Geometry.round(a*e*i + b*f*g + c*d*h - a*f*g - b*d*i - c*e*g);
-			
+			return Geometry.round(e[0] * (e[4] * e[8] - e[5] * e[7]) - 
+			                      e[1] * (e[3] * e[8] - e[5] * e[6]) + 
+			                      e[2] * (e[3] * e[7] - e[4] * e[6]));
+		
 		}else{
-			double d = 0.0;
-			
-			for (int i = 0; i < n; i++) {
-				double v = entries[i][0];
-				
-				if (v == 0.0) continue;
-				
-				double ds = submatrix(i, 0).determinant();
-				
-				if (i % 2 == 0) {
-					d += v * ds;
-				}else{
-					d -= v * ds;
-				}
-			}
-			
-			return Geometry.round(d);
+			return lu().determinant();
 		}
 	}
 	
 	public double trace() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		if (m != n) {
 			return Double.NaN;
 		}
@@ -312,26 +287,21 @@ public class Matrix {
 		double t = 0.0;
 		
 		for (int i = 0; i < m; i++) {
-			t += entries[i][i];
+			t += entries[i * n + i];
 		}
 		
 		return Geometry.round(t);
 	}
 	
 	public int rank() {
-		return ref().numberOfLeadingOnes();
+		return ref(entries.clone(), m, n, null);
 	}
 	
 	public int nullity() {
-		int n = entries[0].length;
-		
-		return n - ref().numberOfLeadingOnes();
+		return n - rank();
 	}
 	
 	public double minor(int i, int j) {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		if (i < 0 || i >= m || 
 			j < 0 || j >= n) {
 			throw new IllegalArgumentException();
@@ -343,9 +313,6 @@ public class Matrix {
 	}
 	
 	public double cofactor(int i, int j) {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		if (i < 0 || i >= m || 
 			j < 0 || j >= n) {
 			throw new IllegalArgumentException();
@@ -365,179 +332,148 @@ public class Matrix {
 	}
 	
 	public double[][] basisForColumnSpace() {
-		int[] indices = ref().columnIndicesOfLeadingOnes();
+		int[] pivots = new int[Math.min(m, n)];
+		int r = ref(entries.clone(), m, n, pivots);
 		
-		double[][] basis = new double[indices.length][];
+		double[][] basis = new double[r][];
 		
-		for (int i = 0; i < indices.length; i++) {
-			basis[i] = columnVector(indices[i]);
+		for (int i = 0; i < r; i++) {
+			basis[i] = columnVector(pivots[i]);
 		}
 		
 		return basis;
 	}
 	
 	public Matrix adjoint() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
-		double v[][] = new double[n][m];
+		double[] v = new double[n * m];
 		
 		for (int i = 0; i < m; i++) {
 			for (int j = 0; j < n; j++) {
-				v[j][i] = cofactor(i, j);
+				v[j * m + i] = cofactor(i, j);
 			}
 		}
 		
-		return new Matrix(v);
+		return new Matrix(n, m, v, false);
 	}
 	
 	public Matrix inverse() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
 		if (m != n) {
 			return null;
 		}
 		
-		double d = determinant();
-		
-		if (d == 0.0) {
-			return null;
+		return lu().inverse();
+	}
+	
+	public LUDecomposition lu() {
+		if (m != n) {
+			throw new IllegalArgumentException();
 		}
 		
-		return Matrix.multiply(1.0 / d, adjoint());
+		return new LUDecomposition(this);
 	}
 	
 	public Matrix ref() {
-		int m = entries.length;
-		int n = entries[0].length;
+		double[] v = entries.clone();
 		
-		double[][] v = new double [m][n];
+		ref(v, m, n, null);
 		
-		for (int i = 0; i < m; i++) {
-			for (int j = 0; j < n; j++) {
-				v[i][j] = entries[i][j];
-			}
+		return new Matrix(m, n, v, false);
+	}
+	
+	public Matrix rref() {
+		double[] v = entries.clone();
+		
+		rref(v, m, n, null);
+		
+		return new Matrix(m, n, v, false);
+	}
+	
+	//Row reduces the row-major m x n buffer v in place. Returns the rank and 
+	//stores the column of the leading one of row i in pivots[i] if given:
+	public static int ref(double[] v, int m, int n, int[] pivots) {
+		return reduce(v, m, n, pivots, false);
+	}
+	
+	public static int rref(double[] v, int m, int n, int[] pivots) {
+		return reduce(v, m, n, pivots, true);
+	}
+	
+	private static int reduce(double[] v, int m, int n, int[] pivots, boolean reduced) {
+		if (v == null || m < 1 || n < 1 || 
+			v.length < m * n || 
+			(pivots != null && pivots.length < Math.min(m, n))) {
+			throw new IllegalArgumentException();
 		}
 		
 		int i = 0;
-		int j = 0;
 		
-		while (i < m && j < n) {
-			//Sorting:
-			int nzeros = 0;
+		for (int j = 0; j < n && i < m; j++) {
+			//Pivoting:
+			int p = i;
+			double max = Math.abs(v[i * n + j]);
 			
-			for (int k = i; k < m - nzeros; k++) {
-				if (v[k][j] == 0.0) {
-					nzeros++;
-					
-					double[] r1 = v[k];
-					double[] r2 = v[m - nzeros];
-					
-					v[k] = r2;
-					v[m - nzeros] = r1;
+			for (int k = i + 1; k < m; k++) {
+				double e = Math.abs(v[k * n + j]);
+				
+				if (e > max) {
+					max = e;
+					p = k;
 				}
 			}
 			
-			
-			double e = v[i][j];
-			
-			if (e == 0.0) {
-				j++;
+			if (Geometry.isZero(max)) {
+				for (int k = i; k < m; k++) {
+					v[k * n + j] = 0.0;
+				}
+				
 				continue;
 			}
 			
-			//Reducing rows below [i][j]:
-			for (int k = i + 1; k < m; k++) {
-				double f = v[k][j];
-				
-				v[k][j] = 0.0;
+			if (p != i) {
+				int ri = i * n;
+				int rp = p * n;
 				
-				for (int l = j + 1; l < n; l++) {
-					v[k][l] = v[k][l] - f / e * v[i][l];
+				for (int l = j; l < n; l++) {
+					double t = v[ri + l];
+					v[ri + l] = v[rp + l];
+					v[rp + l] = t;
 				}
 			}
 			
 			//Reducing row i:
-			v[i][j] = 1.0;
-			
-			for (int l = j + 1; l < n; l++) {
-				v[i][l] = 1.0 / e * v[i][l];
-			}
-			
-			
-			i++;
-			j++;
-		}
-		
-		return new Matrix(v);
-	}
-	
-	public Matrix rref() {
-		int m = entries.length;
-		int n = entries[0].length;
-		
-		double[][] v = new double [m][n];
-		
-		for (int i = 0; i < m; i++) {
-			for (int j = 0; j < n; j++) {
-				v[i][j] = entries[i][j];
-			}
-		}
-		
-		int i = 0;
-		int j = 0;
-		
-		while (i < m && j < n) {
-			//Sorting:
-			int nzeros = 0;
+			int ri = i * n;
+			double e = v[ri + j];
 			
-			for (int k = i; k < m - nzeros; k++) {
-				if (v[k][j] == 0.0) {
-					nzeros++;
-					
-					double[] r1 = v[k];
-					double[] r2 = v[m - nzeros];
-					
-					v[k] = r2;
-					v[m - nzeros] = r1;
-				}
-			}
+			v[ri + j] = 1.0;
 			
-			
-			double e = v[i][j];
-			
-			if (e == 0.0) {
-				j++;
-				continue;
+			for (int l = j + 1; l < n; l++) {
+				v[ri + l] /= e;
 			}
 			
-			//Reducing rows above and below [i][j]:
-			for (int k = 0; k < m; k++) {
+			//Reducing rows below (and above) [i][j]:
+			for (int k = reduced ? 0 : i + 1; k < m; k++) {
 				if (k == i) continue;
 				
-				double f = v[k][j];
+				int rk = k * n;
+				double f = v[rk + j];
+				
+				if (f == 0.0) continue;
 				
-				v[k][j] = 0.0;
+				v[rk + j] = 0.0;
 				
 				for (int l = j + 1; l < n; l++) {
-					v[k][l] = v[k][l] - f / e * v[i][l];
+					v[rk + l] -= f * v[ri + l];
 				}
 			}
 			
-			//Reducing row i:
-			v[i][j] = 1.0;
-			
-			for (int l = j + 1; l < n; l++) {
-				v[i][l] = 1.0 / e * v[i][l];
+			if (pivots != null) {
+				pivots[i] = j;
 			}
 			
-			
 			i++;
-			j++;
 		}
 		
-		return new Matrix(v);
+		return i;
 	}
 	
 	public static Matrix add(Matrix a, Matrix b) {
@@ -547,18 +483,13 @@ public class Matrix {
 			throw new IllegalArgumentException();
 		}
 		
-		int m = a.m();
-		int n = a.n();
+		double[] v = new double[a.entries.length];
 		
-		double v[][] = new double[m][n];
-		
-		for (int i = 0; i < m; i++) {
-			for (int j = 0; j < n; j++) {
-				v[i][j] = a.entry(i, j) + b.entry(i, j);
-			}
+		for (int i = 0; i < v.length; i++) {
+			v[i] = a.entries[i] + b.entries[i];
 		}
 		
-		return new Matrix(v);
+		return new Matrix(a.m, a.n, v, false);
 	}
 	
 	public static Matrix subtract(Matrix a, Matrix b) {
@@ -568,36 +499,27 @@ public class Matrix {
 			throw new IllegalArgumentException();
 		}
 		
-		int m = a.m();
-		int n = a.n();
+		double[] v = new double[a.entries.length];
 		
-		double v[][] = new double[m][n];
-		
-		for (int i = 0; i < m; i++) {
-			for (int j = 0; j < n; j++) {
-				v[i][j] = a.entry(i, j) - b.entry(i, j);
-			}
+		for (int i = 0; i < v.length; i++) {
+			v[i] = a.entries[i] - b.entries[i];
 		}
 		
-		return new Matrix(v);
+		return new Matrix(a.m, a.n, v, false);
 	}
-
+	
 	public static Matrix multiply(double k, Matrix a) {
 		if (Double.isNaN(k) || a == null) {
 			throw new IllegalArgumentException();
 		}
-		int m = a.m();
-		int n = a.n();
 		
-		double v[][] = new double[m][n];
+		double[] v = new double[a.entries.length];
 		
-		for (int i = 0; i < m; i++) {
-			for (int j = 0; j < n; j++) {
-				v[i][j] = k * a.entry(i, j);
-			}
+		for (int i = 0; i < v.length; i++) {
+			v[i] = k * a.entries[i];
 		}
 		
-		return new Matrix(v);
+		return new Matrix(a.m, a.n, v, false);
 	}
 	
 	public static Matrix multiply(Matrix a, Matrix b) {
@@ -606,84 +528,106 @@ public class Matrix {
 			throw new IllegalArgumentException();
 		}
 		
-		int m = a.m();
-		int r = a.n();
-		int n = b.n();
+		int m = a.m;
+		int r = a.n;
+		int n = b.n;
 		
-		double v[][] = new double[m][n];
+		double[] x = a.entries;
+		double[] y = b.entries;
+		double[] v = new double[m * n];
 		
-		for (int i = 0; i < m; i++) {
-			for (int j = 0; j < n; j++) {
-				double e = 0.0;
+		if ((long) m * r * n >= parallelThreshold && m > 1 && 
+			ForkJoinPool.getCommonPoolParallelism() > 1) {
+			ForkJoinPool.commonPool().invoke(new MultiplyTask(x, y, v, r, n, 0, m));
+		}else{
+			multiplyRows(x, y, v, r, n, 0, m);
+		}
+		
+		return new Matrix(m, n, v, false);
+	}
+	
+	//Above this many multiply-adds a product is split into row ranges computed in parallel:
+	private static final long parallelThreshold = 1L << 20;
+	private static final int blockSize = 64;
+	
+	//Rows i0 to i1 of v = x * y, blocked over k and j. Each block of y is packed into a 
+	//contiguous buffer that stays in cache while it is used for all rows. Each entry still 
+	//sums over k in ascending order, so blocking doesn't change results:
+	private static void multiplyRows(double[] x, double[] y, double[] v, int r, int n, int i0, int i1) {
+		double[] block = new double[blockSize * blockSize];
+		
+		for (int kb = 0; kb < r; kb += blockSize) {
+			int k1 = Math.min(kb + blockSize, r);
+			
+			for (int jb = 0; jb < n; jb += blockSize) {
+				int j1 = Math.min(jb + blockSize, n);
+				int w = j1 - jb;
 				
-				for (int k = 0; k < r; k++) {
-					e += a.entry(i, k) * b.entry(k, j);
+				for (int k = kb; k < k1; k++) {
+					System.arraycopy(y, k * n + jb, 
+					                 block, (k - kb) * w, 
+					                 w);
 				}
 				
-				v[i][j] = e;
+				for (int i = i0; i < i1; i++) {
+					int vi = i * n + jb;
+					int xi = i * r;
+					
+					for (int k = kb; k < k1; k++) {
+						double e = x[xi + k];
+						int bk = (k - kb) * w;
+						
+						for (int j = 0; j < w; j++) {
+							v[vi + j] += e * block[bk + j];
+						}
+					}
+				}
 			}
 		}
-		
-		return new Matrix(v);
 	}
 	
-	public static Matrix rotation2D(double angle) {
-		if (Double.isNaN(angle)) {
-			throw new IllegalArgumentException();
-		}
-		
-		double c = Math.cos(Math.toRadians(angle));
-		double s = Math.sin(Math.toRadians(angle));
+	@SuppressWarnings("serial")
+	private static class MultiplyTask extends RecursiveAction {
+		private double[] x, y, v;
+		private int r, n, i0, i1;
 		
-		double[][] e = new double[][] {new double[] {+c, -s}, 
-									   new double[] {+s, +c}};
+		MultiplyTask(double[] x, double[] y, double[] v, int r, int n, int i0, int i1) {
+			this.x = x;
+			this.y = y;
+			this.v = v;
+			this.r = r;
+			this.n = n;
+			this.i0 = i0;
+			this.i1 = i1;
+		}
 		
-		return new Matrix(e);
+		protected void compute() {
+			if (i1 - i0 < 2 || (long) (i1 - i0) * r * n < parallelThreshold / 4) {
+				multiplyRows(x, y, v, r, n, i0, i1);
+			}else{
+				int im = (i0 + i1) >>> 1;
+				
+				invokeAll(new MultiplyTask(x, y, v, r, n, i0, im), 
+				          new MultiplyTask(x, y, v, r, n, im, i1));
+			}
+		}
+	
+	}
+	
+	public static Matrix rotation2D(double angle) {
+		return Matrix2.rotation(angle).toMatrix();
 	}
 	
 	public static Matrix rotation3D_x_axis(double angle) {
-		if (Double.isNaN(angle)) {
-			throw new IllegalArgumentException();
-		}
-		
-		double c = Math.cos(Math.toRadians(angle));
-		double s = Math.sin(Math.toRadians(angle));
-		
-		double[][] e = new double[][] {new double[] {1.0, 0.0, 0.0}, 
-									   new double[] {0.0, +c,  -s }, 
-									   new double[] {0.0, +s,  -c }};
-		
-		return new Matrix(e);
+		return Matrix3.rotation_x_axis(angle).toMatrix();
 	}
 	
 	public static Matrix rotation3D_y_axis(double angle) {
-		if (Double.isNaN(angle)) {
-			throw new IllegalArgumentException();
-		}
-		
-		double c = Math.cos(Math.toRadians(angle));
-		double s = Math.sin(Math.toRadians(angle));
-		
-		double[][] e = new double[][] {new double[] {+c,  0.0, -s }, 
-									   new double[] {0.0, 1.0, 0.0}, 
-									   new double[] {+s,  0.0, -c }};
-		
-		return new Matrix(e);
+		return Matrix3.rotation_y_axis(angle).toMatrix();
 	}
 	
 	public static Matrix rotation3D_z_axis(double angle) {
-		if (Double.isNaN(angle)) {
-			throw new IllegalArgumentException();
-		}
-		
-		double c = Math.cos(Math.toRadians(angle));
-		double s = Math.sin(Math.toRadians(angle));
-		
-		double[][] e = new double[][] {new double[] {+c,  -s,  0.0}, 
-									   new double[] {+s,  +c,  0.0}, 
-									   new double[] {0.0, 0.0, 1.0}};
-		
-		return new Matrix(e);
+		return Matrix3.rotation_z_axis(angle).toMatrix();
 	}
 	
 }
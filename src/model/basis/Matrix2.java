@@ -0,0 +1,170 @@
+package model.basis;
+
+public final class Matrix2 {
+	private final double a11, a12;
+	private final double a21, a22;
+	
+	public static final Matrix2 identity = new Matrix2(1.0, 0.0,
+	                                                   0.0, 1.0);
+	
+	public Matrix2(double a11, double a12,
+	               double a21, double a22) {
+		if (Double.isNaN(a11) || Double.isNaN(a12) || 
+			Double.isNaN(a21) || Double.isNaN(a22)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.a11 = Geometry.round(a11);
+		this.a12 = Geometry.round(a12);
+		this.a21 = Geometry.round(a21);
+		this.a22 = Geometry.round(a22);
+	}
+	
+	public static Matrix2 fromMatrix(Matrix m) {
+		if (m == null || 
+			m.m() != 2 || 
+			m.n() != 2) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix2(m.entry(0, 0), m.entry(0, 1),
+		                   m.entry(1, 0), m.entry(1, 1));
+	}
+	
+	public static Matrix2 matrixWithRows(double[] a, double[] b) {
+		if (a == null || b == null || 
+			a.length != 2 || b.length != 2) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix2(a[0], a[1],
+		                   b[0], b[1]);
+	}
+	
+	public static Matrix2 matrixWithColumns(double[] a, double[] b) {
+		if (a == null || b == null || 
+			a.length != 2 || b.length != 2) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix2(a[0], b[0],
+		                   a[1], b[1]);
+	}
+	
+	public double entry(int i, int j) {
+		if (i < 0 || i >= 2 || 
+			j < 0 || j >= 2) {
+			throw new IllegalArgumentException();
+		}
+		
+		switch (i * 2 + j) {
+			case 0: return a11;
+			case 1: return a12;
+			case 2: return a21;
+			case 3: return a22;
+			default: throw new IllegalArgumentException();
+		}
+	}
+	
+	public Matrix toMatrix() {
+		return new Matrix(2, 2, new double[] {a11, a12,
+		                                      a21, a22});
+	}
+	
+	public double determinant() {
+		return Geometry.round(a11 * a22 - a12 * a21);
+	}
+	
+	public double trace() {
+		return Geometry.round(a11 + a22);
+	}
+	
+	public Matrix2 transpose() {
+		return new Matrix2(a11, a21,
+		                   a12, a22);
+	}
+	
+	public Matrix2 inverse() {
+		double d = a11 * a22 - a12 * a21;
+		
+		if (Geometry.isZero(d)) {
+			return null;
+		}
+		
+		double f = 1.0 / d;
+		
+		return new Matrix2(+f * a22, -f * a12,
+		                   -f * a21, +f * a11);
+	}
+	
+	public static Matrix2 add(Matrix2 a, Matrix2 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix2(a.a11 + b.a11, a.a12 + b.a12,
+		                   a.a21 + b.a21, a.a22 + b.a22);
+	}
+	
+	public static Matrix2 subtract(Matrix2 a, Matrix2 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix2(a.a11 - b.a11, a.a12 - b.a12,
+		                   a.a21 - b.a21, a.a22 - b.a22);
+	}
+	
+	public static Matrix2 multiply(double k, Matrix2 a) {
+		if (Double.isNaN(k) || a == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix2(k * a.a11, k * a.a12,
+		                   k * a.a21, k * a.a22);
+	}
+	
+	public static Matrix2 multiply(Matrix2 a, Matrix2 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix2(a.a11 * b.a11 + a.a12 * b.a21,
+		                   a.a11 * b.a12 + a.a12 * b.a22,
+		                   a.a21 * b.a11 + a.a22 * b.a21,
+		                   a.a21 * b.a12 + a.a22 * b.a22);
+	}
+	
+	public static double[] multiply(Matrix2 a, double[] x) {
+		return multiply(a, x, new double[2]);
+	}
+	
+	public static double[] multiply(Matrix2 a, double[] x, double[] result) {
+		if (a == null || 
+			x == null || x.length != 2 || 
+			result == null || result.length != 2) {
+			throw new IllegalArgumentException();
+		}
+		
+		double x1 = x[0];
+		double x2 = x[1];
+		
+		result[0] = a.a11 * x1 + a.a12 * x2;
+		result[1] = a.a21 * x1 + a.a22 * x2;
+		
+		return result;
+	}
+	
+	public static Matrix2 rotation(double angle) {
+		if (Double.isNaN(angle)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double c = Math.cos(Math.toRadians(angle));
+		double s = Math.sin(Math.toRadians(angle));
+		
+		return new Matrix2(+c, -s, 
+		                   +s, +c);
+	}
+	
+}
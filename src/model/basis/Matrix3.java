@@ -0,0 +1,233 @@
+package model.basis;
+
+public final class Matrix3 {
+	private final double a11, a12, a13;
+	private final double a21, a22, a23;
+	private final double a31, a32, a33;
+	
+	public static final Matrix3 identity = new Matrix3(1.0, 0.0, 0.0,
+	                                                   0.0, 1.0, 0.0,
+	                                                   0.0, 0.0, 1.0);
+	
+	public Matrix3(double a11, double a12, double a13,
+	               double a21, double a22, double a23,
+	               double a31, double a32, double a33) {
+		if (Double.isNaN(a11) || Double.isNaN(a12) || Double.isNaN(a13) || 
+			Double.isNaN(a21) || Double.isNaN(a22) || Double.isNaN(a23) || 
+			Double.isNaN(a31) || Double.isNaN(a32) || Double.isNaN(a33)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.a11 = Geometry.round(a11);
+		this.a12 = Geometry.round(a12);
+		this.a13 = Geometry.round(a13);
+		this.a21 = Geometry.round(a21);
+		this.a22 = Geometry.round(a22);
+		this.a23 = Geometry.round(a23);
+		this.a31 = Geometry.round(a31);
+		this.a32 = Geometry.round(a32);
+		this.a33 = Geometry.round(a33);
+	}
+	
+	public static Matrix3 fromMatrix(Matrix m) {
+		if (m == null || 
+			m.m() != 3 || 
+			m.n() != 3) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix3(m.entry(0, 0), m.entry(0, 1), m.entry(0, 2),
+		                   m.entry(1, 0), m.entry(1, 1), m.entry(1, 2),
+		                   m.entry(2, 0), m.entry(2, 1), m.entry(2, 2));
+	}
+	
+	public static Matrix3 matrixWithRows(double[] a, double[] b, double[] c) {
+		if (a == null || b == null || c == null || 
+			a.length != 3 || b.length != 3 || c.length != 3) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix3(a[0], a[1], a[2],
+		                   b[0], b[1], b[2],
+		                   c[0], c[1], c[2]);
+	}
+	
+	public static Matrix3 matrixWithColumns(double[] a, double[] b, double[] c) {
+		if (a == null || b == null || c == null || 
+			a.length != 3 || b.length != 3 || c.length != 3) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix3(a[0], b[0], c[0],
+		                   a[1], b[1], c[1],
+		                   a[2], b[2], c[2]);
+	}
+	
+	public double entry(int i, int j) {
+		if (i < 0 || i >= 3 || 
+			j < 0 || j >= 3) {
+			throw new IllegalArgumentException();
+		}
+		
+		switch (i * 3 + j) {
+			case 0: return a11;
+			case 1: return a12;
+			case 2: return a13;
+			case 3: return a21;
+			case 4: return a22;
+			case 5: return a23;
+			case 6: return a31;
+			case 7: return a32;
+			case 8: return a33;
+			default: throw new IllegalArgumentException();
+		}
+	}
+	
+	public Matrix toMatrix() {
+		return new Matrix(3, 3, new double[] {a11, a12, a13,
+		                                      a21, a22, a23,
+		                                      a31, a32, a33});
+	}
+	
+	public double determinant() {
+		return Geometry.round(a11 * (a22 * a33 - a23 * a32) - 
+		                      a12 * (a21 * a33 - a23 * a31) + 
+		                      a13 * (a21 * a32 - a22 * a31));
+	}
+	
+	public double trace() {
+		return Geometry.round(a11 + a22 + a33);
+	}
+	
+	public Matrix3 transpose() {
+		return new Matrix3(a11, a21, a31,
+		                   a12, a22, a32,
+		                   a13, a23, a33);
+	}
+	
+	public Matrix3 inverse() {
+		double c11 = a22 * a33 - a23 * a32;
+		double c12 = a23 * a31 - a21 * a33;
+		double c13 = a21 * a32 - a22 * a31;
+		
+		double d = a11 * c11 + a12 * c12 + a13 * c13;
+		
+		if (Geometry.isZero(d)) {
+			return null;
+		}
+		
+		double f = 1.0 / d;
+		
+		return new Matrix3(f * c11, f * (a13 * a32 - a12 * a33), f * (a12 * a23 - a13 * a22),
+		                   f * c12, f * (a11 * a33 - a13 * a31), f * (a13 * a21 - a11 * a23),
+		                   f * c13, f * (a12 * a31 - a11 * a32), f * (a11 * a22 - a12 * a21));
+	}
+	
+	public static Matrix3 add(Matrix3 a, Matrix3 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix3(a.a11 + b.a11, a.a12 + b.a12, a.a13 + b.a13,
+		                   a.a21 + b.a21, a.a22 + b.a22, a.a23 + b.a23,
+		                   a.a31 + b.a31, a.a32 + b.a32, a.a33 + b.a33);
+	}
+	
+	public static Matrix3 subtract(Matrix3 a, Matrix3 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix3(a.a11 - b.a11, a.a12 - b.a12, a.a13 - b.a13,
+		                   a.a21 - b.a21, a.a22 - b.a22, a.a23 - b.a23,
+		                   a.a31 - b.a31, a.a32 - b.a32, a.a33 - b.a33);
+	}
+	
+	public static Matrix3 multiply(double k, Matrix3 a) {
+		if (Double.isNaN(k) || a == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix3(k * a.a11, k * a.a12, k * a.a13,
+		                   k * a.a21, k * a.a22, k * a.a23,
+		                   k * a.a31, k * a.a32, k * a.a33);
+	}
+	
+	public static Matrix3 multiply(Matrix3 a, Matrix3 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix3(a.a11 * b.a11 + a.a12 * b.a21 + a.a13 * b.a31,
+		                   a.a11 * b.a12 + a.a12 * b.a22 + a.a13 * b.a32,
+		                   a.a11 * b.a13 + a.a12 * b.a23 + a.a13 * b.a33,
+		                   a.a21 * b.a11 + a.a22 * b.a21 + a.a23 * b.a31,
+		                   a.a21 * b.a12 + a.a22 * b.a22 + a.a23 * b.a32,
+		                   a.a21 * b.a13 + a.a22 * b.a23 + a.a23 * b.a33,
+		                   a.a31 * b.a11 + a.a32 * b.a21 + a.a33 * b.a31,
+		                   a.a31 * b.a12 + a.a32 * b.a22 + a.a33 * b.a32,
+		                   a.a31 * b.a13 + a.a32 * b.a23 + a.a33 * b.a33);
+	}
+	
+	public static double[] multiply(Matrix3 a, double[] x) {
+		return multiply(a, x, new double[3]);
+	}
+	
+	public static double[] multiply(Matrix3 a, double[] x, double[] result) {
+		if (a == null || 
+			x == null || x.length != 3 || 
+			result == null || result.length != 3) {
+			throw new IllegalArgumentException();
+		}
+		
+		double x1 = x[0];
+		double x2 = x[1];
+		double x3 = x[2];
+		
+		result[0] = a.a11 * x1 + a.a12 * x2 + a.a13 * x3;
+		result[1] = a.a21 * x1 + a.a22 * x2 + a.a23 * x3;
+		result[2] = a.a31 * x1 + a.a32 * x2 + a.a33 * x3;
+		
+		return result;
+	}
+	
+	public static Matrix3 rotation_x_axis(double angle) {
+		if (Double.isNaN(angle)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double c = Math.cos(Math.toRadians(angle));
+		double s = Math.sin(Math.toRadians(angle));
+		
+		return new Matrix3(1.0, 0.0, 0.0, 
+		                   0.0, +c,  -s , 
+		                   0.0, +s,  +c );
+	}
+	
+	public static Matrix3 rotation_y_axis(double angle) {
+		if (Double.isNaN(angle)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double c = Math.cos(Math.toRadians(angle));
+		double s = Math.sin(Math.toRadians(angle));
+		
+		return new Matrix3(+c,  0.0, +s , 
+		                   0.0, 1.0, 0.0, 
+		                   -s,  0.0, +c );
+	}
+	
+	public static Matrix3 rotation_z_axis(double angle) {
+		if (Double.isNaN(angle)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double c = Math.cos(Math.toRadians(angle));
+		double s = Math.sin(Math.toRadians(angle));
+		
+		return new Matrix3(+c,  -s,  0.0, 
+		                   +s,  +c,  0.0, 
+		                   0.0, 0.0, 1.0);
+	}
+	
+}
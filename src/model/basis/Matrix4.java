@@ -0,0 +1,252 @@
+package model.basis;
+
+public final class Matrix4 {
+	private final double a11, a12, a13, a14;
+	private final double a21, a22, a23, a24;
+	private final double a31, a32, a33, a34;
+	private final double a41, a42, a43, a44;
+	
+	public static final Matrix4 identity = new Matrix4(1.0, 0.0, 0.0, 0.0,
+	                                                   0.0, 1.0, 0.0, 0.0,
+	                                                   0.0, 0.0, 1.0, 0.0,
+	                                                   0.0, 0.0, 0.0, 1.0);
+	
+	public Matrix4(double a11, double a12, double a13, double a14,
+	               double a21, double a22, double a23, double a24,
+	               double a31, double a32, double a33, double a34,
+	               double a41, double a42, double a43, double a44) {
+		if (Double.isNaN(a11) || Double.isNaN(a12) || Double.isNaN(a13) || Double.isNaN(a14) || 
+			Double.isNaN(a21) || Double.isNaN(a22) || Double.isNaN(a23) || Double.isNaN(a24) || 
+			Double.isNaN(a31) || Double.isNaN(a32) || Double.isNaN(a33) || Double.isNaN(a34) || 
+			Double.isNaN(a41) || Double.isNaN(a42) || Double.isNaN(a43) || Double.isNaN(a44)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.a11 = Geometry.round(a11);
+		this.a12 = Geometry.round(a12);
+		this.a13 = Geometry.round(a13);
+		this.a14 = Geometry.round(a14);
+		this.a21 = Geometry.round(a21);
+		this.a22 = Geometry.round(a22);
+		this.a23 = Geometry.round(a23);
+		this.a24 = Geometry.round(a24);
+		this.a31 = Geometry.round(a31);
+		this.a32 = Geometry.round(a32);
+		this.a33 = Geometry.round(a33);
+		this.a34 = Geometry.round(a34);
+		this.a41 = Geometry.round(a41);
+		this.a42 = Geometry.round(a42);
+		this.a43 = Geometry.round(a43);
+		this.a44 = Geometry.round(a44);
+	}
+	
+	public static Matrix4 fromMatrix(Matrix m) {
+		if (m == null || 
+			m.m() != 4 || 
+			m.n() != 4) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix4(m.entry(0, 0), m.entry(0, 1), m.entry(0, 2), m.entry(0, 3),
+		                   m.entry(1, 0), m.entry(1, 1), m.entry(1, 2), m.entry(1, 3),
+		                   m.entry(2, 0), m.entry(2, 1), m.entry(2, 2), m.entry(2, 3),
+		                   m.entry(3, 0), m.entry(3, 1), m.entry(3, 2), m.entry(3, 3));
+	}
+	
+	public static Matrix4 matrixWithRows(double[] a, double[] b, double[] c, double[] d) {
+		if (a == null || b == null || c == null || d == null || 
+			a.length != 4 || b.length != 4 || c.length != 4 || d.length != 4) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix4(a[0], a[1], a[2], a[3],
+		                   b[0], b[1], b[2], b[3],
+		                   c[0], c[1], c[2], c[3],
+		                   d[0], d[1], d[2], d[3]);
+	}
+	
+	public static Matrix4 matrixWithColumns(double[] a, double[] b, double[] c, double[] d) {
+		if (a == null || b == null || c == null || d == null || 
+			a.length != 4 || b.length != 4 || c.length != 4 || d.length != 4) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix4(a[0], b[0], c[0], d[0],
+		                   a[1], b[1], c[1], d[1],
+		                   a[2], b[2], c[2], d[2],
+		                   a[3], b[3], c[3], d[3]);
+	}
+	
+	public double entry(int i, int j) {
+		if (i < 0 || i >= 4 || 
+			j < 0 || j >= 4) {
+			throw new IllegalArgumentException();
+		}
+		
+		switch (i * 4 + j) {
+			case 0: return a11;
+			case 1: return a12;
+			case 2: return a13;
+			case 3: return a14;
+			case 4: return a21;
+			case 5: return a22;
+			case 6: return a23;
+			case 7: return a24;
+			case 8: return a31;
+			case 9: return a32;
+			case 10: return a33;
+			case 11: return a34;
+			case 12: return a41;
+			case 13: return a42;
+			case 14: return a43;
+			case 15: return a44;
+			default: throw new IllegalArgumentException();
+		}
+	}
+	
+	public Matrix toMatrix() {
+		return new Matrix(4, 4, new double[] {a11, a12, a13, a14,
+		                                      a21, a22, a23, a24,
+		                                      a31, a32, a33, a34,
+		                                      a41, a42, a43, a44});
+	}
+	
+	public double determinant() {
+		double s0 = a11 * a22 - a21 * a12;
+		double s1 = a11 * a23 - a21 * a13;
+		double s2 = a11 * a24 - a21 * a14;
+		double s3 = a12 * a23 - a22 * a13;
+		double s4 = a12 * a24 - a22 * a14;
+		double s5 = a13 * a24 - a23 * a14;
+		
+		double c5 = a33 * a44 - a43 * a34;
+		double c4 = a32 * a44 - a42 * a34;
+		double c3 = a32 * a43 - a42 * a33;
+		double c2 = a31 * a44 - a41 * a34;
+		double c1 = a31 * a43 - a41 * a33;
+		double c0 = a31 * a42 - a41 * a32;
+		
+		return Geometry.round(s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0);
+	}
+	
+	public double trace() {
+		return Geometry.round(a11 + a22 + a33 + a44);
+	}
+	
+	public Matrix4 transpose() {
+		return new Matrix4(a11, a21, a31, a41,
+		                   a12, a22, a32, a42,
+		                   a13, a23, a33, a43,
+		                   a14, a24, a34, a44);
+	}
+	
+	public Matrix4 inverse() {
+		double s0 = a11 * a22 - a21 * a12;
+		double s1 = a11 * a23 - a21 * a13;
+		double s2 = a11 * a24 - a21 * a14;
+		double s3 = a12 * a23 - a22 * a13;
+		double s4 = a12 * a24 - a22 * a14;
+		double s5 = a13 * a24 - a23 * a14;
+		
+		double c5 = a33 * a44 - a43 * a34;
+		double c4 = a32 * a44 - a42 * a34;
+		double c3 = a32 * a43 - a42 * a33;
+		double c2 = a31 * a44 - a41 * a34;
+		double c1 = a31 * a43 - a41 * a33;
+		double c0 = a31 * a42 - a41 * a32;
+		
+		double d = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+		
+		if (Geometry.isZero(d)) {
+			return null;
+		}
+		
+		double f = 1.0 / d;
+		
+		return new Matrix4(f * (+a22 * c5 - a23 * c4 + a24 * c3), f * (-a12 * c5 + a13 * c4 - a14 * c3), f * (+a42 * s5 - a43 * s4 + a44 * s3), f * (-a32 * s5 + a33 * s4 - a34 * s3),
+		                   f * (-a21 * c5 + a23 * c2 - a24 * c1), f * (+a11 * c5 - a13 * c2 + a14 * c1), f * (-a41 * s5 + a43 * s2 - a44 * s1), f * (+a31 * s5 - a33 * s2 + a34 * s1),
+		                   f * (+a21 * c4 - a22 * c2 + a24 * c0), f * (-a11 * c4 + a12 * c2 - a14 * c0), f * (+a41 * s4 - a42 * s2 + a44 * s0), f * (-a31 * s4 + a32 * s2 - a34 * s0),
+		                   f * (-a21 * c3 + a22 * c1 - a23 * c0), f * (+a11 * c3 - a12 * c1 + a13 * c0), f * (-a41 * s3 + a42 * s1 - a43 * s0), f * (+a31 * s3 - a32 * s1 + a33 * s0));
+	}
+	
+	public static Matrix4 add(Matrix4 a, Matrix4 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix4(a.a11 + b.a11, a.a12 + b.a12, a.a13 + b.a13, a.a14 + b.a14,
+		                   a.a21 + b.a21, a.a22 + b.a22, a.a23 + b.a23, a.a24 + b.a24,
+		                   a.a31 + b.a31, a.a32 + b.a32, a.a33 + b.a33, a.a34 + b.a34,
+		                   a.a41 + b.a41, a.a42 + b.a42, a.a43 + b.a43, a.a44 + b.a44);
+	}
+	
+	public static Matrix4 subtract(Matrix4 a, Matrix4 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix4(a.a11 - b.a11, a.a12 - b.a12, a.a13 - b.a13, a.a14 - b.a14,
+		                   a.a21 - b.a21, a.a22 - b.a22, a.a23 - b.a23, a.a24 - b.a24,
+		                   a.a31 - b.a31, a.a32 - b.a32, a.a33 - b.a33, a.a34 - b.a34,
+		                   a.a41 - b.a41, a.a42 - b.a42, a.a43 - b.a43, a.a44 - b.a44);
+	}
+	
+	public static Matrix4 multiply(double k, Matrix4 a) {
+		if (Double.isNaN(k) || a == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix4(k * a.a11, k * a.a12, k * a.a13, k * a.a14,
+		                   k * a.a21, k * a.a22, k * a.a23, k * a.a24,
+		                   k * a.a31, k * a.a32, k * a.a33, k * a.a34,
+		                   k * a.a41, k * a.a42, k * a.a43, k * a.a44);
+	}
+	
+	public static Matrix4 multiply(Matrix4 a, Matrix4 b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Matrix4(a.a11 * b.a11 + a.a12 * b.a21 + a.a13 * b.a31 + a.a14 * b.a41,
+		                   a.a11 * b.a12 + a.a12 * b.a22 + a.a13 * b.a32 + a.a14 * b.a42,
+		                   a.a11 * b.a13 + a.a12 * b.a23 + a.a13 * b.a33 + a.a14 * b.a43,
+		                   a.a11 * b.a14 + a.a12 * b.a24 + a.a13 * b.a34 + a.a14 * b.a44,
+		                   a.a21 * b.a11 + a.a22 * b.a21 + a.a23 * b.a31 + a.a24 * b.a41,
+		                   a.a21 * b.a12 + a.a22 * b.a22 + a.a23 * b.a32 + a.a24 * b.a42,
+		                   a.a21 * b.a13 + a.a22 * b.a23 + a.a23 * b.a33 + a.a24 * b.a43,
+		                   a.a21 * b.a14 + a.a22 * b.a24 + a.a23 * b.a34 + a.a24 * b.a44,
+		                   a.a31 * b.a11 + a.a32 * b.a21 + a.a33 * b.a31 + a.a34 * b.a41,
+		                   a.a31 * b.a12 + a.a32 * b.a22 + a.a33 * b.a32 + a.a34 * b.a42,
+		                   a.a31 * b.a13 + a.a32 * b.a23 + a.a33 * b.a33 + a.a34 * b.a43,
+		                   a.a31 * b.a14 + a.a32 * b.a24 + a.a33 * b.a34 + a.a34 * b.a44,
+		                   a.a41 * b.a11 + a.a42 * b.a21 + a.a43 * b.a31 + a.a44 * b.a41,
+		                   a.a41 * b.a12 + a.a42 * b.a22 + a.a43 * b.a32 + a.a44 * b.a42,
+		                   a.a41 * b.a13 + a.a42 * b.a23 + a.a43 * b.a33 + a.a44 * b.a43,
+		                   a.a41 * b.a14 + a.a42 * b.a24 + a.a43 * b.a34 + a.a44 * b.a44);
+	}
+	
+	public static double[] multiply(Matrix4 a, double[] x) {
+		return multiply(a, x, new double[4]);
+	}
+	
+	public static double[] multiply(Matrix4 a, double[] x, double[] result) {
+		if (a == null || 
+			x == null || x.length != 4 || 
+			result == null || result.length != 4) {
+			throw new IllegalArgumentException();
+		}
+		
+		double x1 = x[0];
+		double x2 = x[1];
+		double x3 = x[2];
+		double x4 = x[3];
+		
+		result[0] = a.a11 * x1 + a.a12 * x2 + a.a13 * x3 + a.a14 * x4;
+		result[1] = a.a21 * x1 + a.a22 * x2 + a.a23 * x3 + a.a24 * x4;
+		result[2] = a.a31 * x1 + a.a32 * x2 + a.a33 * x3 + a.a34 * x4;
+		result[3] = a.a41 * x1 + a.a42 * x2 + a.a43 * x3 + a.a44 * x4;
+		
+		return result;
+	}
+	
+}
@@ -0,0 +1,309 @@
+package model.basis;
+
+import java.math.BigDecimal;
+
+//Orientation predicates with exact signs. The double result is used when it is larger than
+//its error bound (Shewchuk's filters). Otherwise, if the coordinate differences are exact, the 
+//determinant is evaluated exactly with floating point expansions, else with BigDecimal:
+public class Predicates {
+	private static final double epsilon = Math.ulp(1.0) / 2.0;
+	private static final double ccwErrorBound = (3.0 + 16.0 * epsilon) * epsilon;
+	private static final double o3dErrorBound = (7.0 + 56.0 * epsilon) * epsilon;
+	
+	//2^27 + 1, splits a double into two halves whose products are exact:
+	private static final double splitter = 134217729.0;
+	
+	//Positive if a, b, c are counterclockwise, negative if clockwise, zero if collinear.
+	//The value is twice the signed area of the triangle:
+	public static double orient2d(double ax, double ay,
+	                              double bx, double by,
+	                              double cx, double cy) {
+		double detLeft = (ax - cx) * (by - cy);
+		double detRight = (ay - cy) * (bx - cx);
+		double det = detLeft - detRight;
+		double detSum;
+		
+		if (detLeft > 0.0) {
+			if (detRight <= 0.0) {
+				return det;
+			}
+			
+			detSum = detLeft + detRight;
+		}else if (detLeft < 0.0) {
+			if (detRight >= 0.0) {
+				return det;
+			}
+			
+			detSum = -detLeft - detRight;
+		}else{
+			return det;
+		}
+		
+		double bound = ccwErrorBound * detSum;
+		
+		if (det >= bound || -det >= bound) {
+			return det;
+		}
+		
+		double acx = ax - cx, acy = ay - cy;
+		double bcx = bx - cx, bcy = by - cy;
+		
+		if (twoDiffTail(ax, cx, acx) == 0.0 && twoDiffTail(ay, cy, acy) == 0.0 && 
+			twoDiffTail(bx, cx, bcx) == 0.0 && twoDiffTail(by, cy, bcy) == 0.0) {
+			double[] d = new double[4];
+			int n = twoProductDiff(acx, bcy, acy, bcx, d);
+			double v = estimate(d, n);
+			
+			if (!Double.isNaN(v) && !Double.isInfinite(v)) {
+				return v;
+			}
+		}
+		
+		return exactOrient2d(ax, ay, bx, by, cx, cy);
+	}
+	
+	private static double exactOrient2d(double ax, double ay,
+	                                    double bx, double by,
+	                                    double cx, double cy) {
+		BigDecimal acx = exact(ax).subtract(exact(cx));
+		BigDecimal acy = exact(ay).subtract(exact(cy));
+		BigDecimal bcx = exact(bx).subtract(exact(cx));
+		BigDecimal bcy = exact(by).subtract(exact(cy));
+		
+		return value(acx.multiply(bcy).subtract(acy.multiply(bcx)));
+	}
+	
+	//Positive if d lies below the plane through a, b, c, where a, b, c appear counterclockwise
+	//seen from above, negative if above, zero if coplanar. The value is six times the signed volume:
+	public static double orient3d(double ax, double ay, double az,
+	                              double bx, double by, double bz,
+	                              double cx, double cy, double cz,
+	                              double dx, double dy, double dz) {
+		double adx = ax - dx, ady = ay - dy, adz = az - dz;
+		double bdx = bx - dx, bdy = by - dy, bdz = bz - dz;
+		double cdx = cx - dx, cdy = cy - dy, cdz = cz - dz;
+		
+		double bdxcdy = bdx * cdy, cdxbdy = cdx * bdy;
+		double cdxady = cdx * ady, adxcdy = adx * cdy;
+		double adxbdy = adx * bdy, bdxady = bdx * ady;
+		
+		double det = adz * (bdxcdy - cdxbdy) +
+		             bdz * (cdxady - adxcdy) +
+		             cdz * (adxbdy - bdxady);
+		
+		double permanent = (Math.abs(bdxcdy) + Math.abs(cdxbdy)) * Math.abs(adz) +
+		                   (Math.abs(cdxady) + Math.abs(adxcdy)) * Math.abs(bdz) +
+		                   (Math.abs(adxbdy) + Math.abs(bdxady)) * Math.abs(cdz);
+		double bound = o3dErrorBound * permanent;
+		
+		if (det > bound || -det > bound) {
+			return det;
+		}
+		
+		if (twoDiffTail(ax, dx, adx) == 0.0 && twoDiffTail(ay, dy, ady) == 0.0 && twoDiffTail(az, dz, adz) == 0.0 && 
+			twoDiffTail(bx, dx, bdx) == 0.0 && twoDiffTail(by, dy, bdy) == 0.0 && twoDiffTail(bz, dz, bdz) == 0.0 && 
+			twoDiffTail(cx, dx, cdx) == 0.0 && twoDiffTail(cy, dy, cdy) == 0.0 && twoDiffTail(cz, dz, cdz) == 0.0) {
+			double[] bc = new double[4], ca = new double[4], ab = new double[4];
+			int bcn = twoProductDiff(bdx, cdy, cdx, bdy, bc);
+			int can = twoProductDiff(cdx, ady, adx, cdy, ca);
+			int abn = twoProductDiff(adx, bdy, bdx, ady, ab);
+			
+			double[] a = new double[8], b = new double[8], c = new double[8];
+			int an = scaleExpansion(bc, bcn, adz, a);
+			int bn = scaleExpansion(ca, can, bdz, b);
+			int cn = scaleExpansion(ab, abn, cdz, c);
+			
+			double[] d = new double[24];
+			int n = expansionSum(a, an, b, bn, d);
+			n = expansionSum(d, n, c, cn, d);
+			
+			double v = estimate(d, n);
+			
+			if (!Double.isNaN(v) && !Double.isInfinite(v)) {
+				return v;
+			}
+		}
+		
+		return exactOrient3d(ax, ay, az, bx, by, bz, cx, cy, cz, dx, dy, dz);
+	}
+	
+	private static double exactOrient3d(double ax, double ay, double az,
+	                                    double bx, double by, double bz,
+	                                    double cx, double cy, double cz,
+	                                    double dx, double dy, double dz) {
+		BigDecimal eadx = exact(ax).subtract(exact(dx));
+		BigDecimal eady = exact(ay).subtract(exact(dy));
+		BigDecimal eadz = exact(az).subtract(exact(dz));
+		BigDecimal ebdx = exact(bx).subtract(exact(dx));
+		BigDecimal ebdy = exact(by).subtract(exact(dy));
+		BigDecimal ebdz = exact(bz).subtract(exact(dz));
+		BigDecimal ecdx = exact(cx).subtract(exact(dx));
+		BigDecimal ecdy = exact(cy).subtract(exact(dy));
+		BigDecimal ecdz = exact(cz).subtract(exact(dz));
+		
+		BigDecimal d = eadz.multiply(ebdx.multiply(ecdy).subtract(ecdx.multiply(ebdy)))
+		              .add(ebdz.multiply(ecdx.multiply(eady).subtract(eadx.multiply(ecdy))))
+		              .add(ecdz.multiply(eadx.multiply(ebdy).subtract(ebdx.multiply(eady))));
+		
+		return value(d);
+	}
+	
+	public static int sign(double d) {
+		if (d > 0.0) {
+			return +1;
+		}else if (d < 0.0) {
+			return -1;
+		}else{
+			return 0;
+		}
+	}
+	
+	//Error-free transformations, the rounding error of each operation is returned exactly:
+	private static double twoSumTail(double a, double b, double x) {
+		double bv = x - a;
+		double av = x - bv;
+		
+		return (a - av) + (b - bv);
+	}
+	
+	private static double twoDiffTail(double a, double b, double x) {
+		double bv = a - x;
+		double av = x + bv;
+		
+		return (a - av) + (bv - b);
+	}
+	
+	private static double twoProductTail(double a, double b, double x) {
+		double c = splitter * a;
+		double ahi = c - (c - a);
+		double alo = a - ahi;
+		
+		c = splitter * b;
+		
+		double bhi = c - (c - b);
+		double blo = b - bhi;
+		
+		double err1 = x - ahi * bhi;
+		double err2 = err1 - alo * bhi;
+		double err3 = err2 - ahi * blo;
+		
+		return alo * blo - err3;
+	}
+	
+	//Expansions are sums of nonoverlapping doubles stored in order of increasing magnitude, 
+	//zero components are left out. Writes a * b - c * d to h, which needs a length of 4:
+	private static int twoProductDiff(double a, double b, double c, double d, double[] h) {
+		double x = a * b;
+		double y = c * d;
+		
+		double[] e = new double[]{twoProductTail(a, b, x), x};
+		double[] f = new double[]{-twoProductTail(c, d, y), -y};
+		
+		return expansionSum(e, 2, f, 2, h);
+	}
+	
+	//Adds b to the expansion e, h may be e and needs a length of elen + 1:
+	private static int growExpansion(double[] e, int elen, double b, double[] h) {
+		double q = b;
+		int n = 0;
+		
+		for (int i = 0; i < elen; i++) {
+			double x = q + e[i];
+			double t = twoSumTail(q, e[i], x);
+			
+			q = x;
+			
+			if (t != 0.0) {
+				h[n++] = t;
+			}
+		}
+		
+		if (q != 0.0 || n == 0) {
+			h[n++] = q;
+		}
+		
+		return n;
+	}
+	
+	//h may be e and needs a length of elen + flen:
+	private static int expansionSum(double[] e, int elen, double[] f, int flen, double[] h) {
+		if (h != e) {
+			System.arraycopy(e, 0, h, 0, elen);
+		}
+		
+		int n = elen;
+		
+		for (int j = 0; j < flen; j++) {
+			n = growExpansion(h, n, f[j], h);
+		}
+		
+		return n;
+	}
+	
+	//h needs a length of 2 * elen:
+	private static int scaleExpansion(double[] e, int elen, double b, double[] h) {
+		double q = e[0] * b;
+		double t = twoProductTail(e[0], b, q);
+		int n = 0;
+		
+		if (t != 0.0) {
+			h[n++] = t;
+		}
+		
+		for (int i = 1; i < elen; i++) {
+			double p1 = e[i] * b;
+			double p0 = twoProductTail(e[i], b, p1);
+			double sum = q + p0;
+			
+			t = twoSumTail(q, p0, sum);
+			
+			if (t != 0.0) {
+				h[n++] = t;
+			}
+			
+			q = p1 + sum;
+			t = twoSumTail(p1, sum, q);
+			
+			if (t != 0.0) {
+				h[n++] = t;
+			}
+		}
+		
+		if (q != 0.0 || n == 0) {
+			h[n++] = q;
+		}
+		
+		return n;
+	}
+	
+	//Rounded value of the expansion, it has the sign of the largest component:
+	private static double estimate(double[] e, int n) {
+		double v = 0.0;
+		
+		for (int i = 0; i < n; i++) {
+			v += e[i];
+		}
+		
+		return v;
+	}
+	
+	private static BigDecimal exact(double d) {
+		if (Double.isNaN(d) || Double.isInfinite(d)) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new BigDecimal(d);
+	}
+	
+	//Rounds the exact value to a double that keeps its sign:
+	private static double value(BigDecimal d) {
+		double v = d.doubleValue();
+		
+		if (v == 0.0 && d.signum() != 0) {
+			return d.signum() * Double.MIN_VALUE;
+		}
+		
+		return v;
+	}
+	
+}
@@ -0,0 +1,53 @@
+package model.basis;
+
+public class Tolerance {
+	private int digits;
+	private boolean snaps;
+	private double scale;
+	private double epsilon;
+	
+	//Snaps every coordinate to 9 decimal places on construction:
+	public static final Tolerance snapping 	 = new Tolerance(9, true);
+	//Keeps coordinates as computed and only compares with the epsilon:
+	public static final Tolerance noSnapping = new Tolerance(9, false);
+	
+	public Tolerance(int digits, boolean snaps) {
+		if (digits < 0 || digits > 15) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.digits = digits;
+		this.snaps = snaps;
+		this.scale = Math.pow(10.0, digits);
+		this.epsilon = 0.5 / scale;
+	}
+	
+	public int digits() {
+		return digits;
+	}
+	
+	public boolean snaps() {
+		return snaps;
+	}
+	
+	public double epsilon() {
+		return epsilon;
+	}
+	
+	public double round(double d) {
+		if (snaps) {
+			return Math.round(d * scale) / scale;
+		}else{
+			return d;
+		}
+	}
+	
+	public boolean isZero(double d) {
+		return Math.abs(d) < epsilon;
+	}
+	
+	public boolean equal(double a, double b) {
+		return Math.abs(a - b) < epsilon;
+	}
+	
+}
@@ -1,13 +1,13 @@
 package model.geometry2D;
 
-import model.basis.Matrix;
+import model.basis.*;
 
 public class Line2D {
 	private Vector2D a, r;
 	
 	public Line2D(Vector2D a, Vector2D r) {
 		if (a == null || r == null || 
-			r.norm() == 0.0) {
+			Geometry.isZero(r.norm())) {
 			throw new IllegalArgumentException();
 		}
 		
@@ -31,6 +31,14 @@ public class Line2D {
 		return Vector2D.add(a, Vector2D.multiply(t, r));
 	}
 	
+	public MutableVector2D p(double t, MutableVector2D result) {
+		if (Double.isNaN(t) || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.setFrom(a).addInPlace(t, r);
+	}
+	
 	public double t(Vector2D p) {
 		if (p == null) {
 			throw new IllegalArgumentException();
@@ -90,11 +98,11 @@ public class Line2D {
 			throw new IllegalArgumentException();
 		}
 		
-		Matrix m1 = Vector2D.matrixWithColumnVectors(a.r(), b.r().neg()).inverse();
-		Matrix m2 = Vector2D.matrixWithColumnVector(Vector2D.add(a.a().neg(), b.a()));
-		Matrix m3 = Matrix.multiply(m1, m2);
+		Matrix2 m1 = Matrix2.matrixWithColumns(a.r().x(), b.r().neg().x()).inverse();
+		double[] m2 = Vector2D.subtract(b.a(), a.a()).x();
+		double[] m3 = Matrix2.multiply(m1, m2);
 		
-		double t = m3.entry(0, 0);
+		double t = Geometry.round(m3[0]);
 		
 		return a.p(t);
 	}
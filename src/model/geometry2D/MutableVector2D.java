@@ -0,0 +1,204 @@
+package model.geometry2D;
+
+import model.basis.*;
+
+public class MutableVector2D {
+	private double x1, x2;
+	
+	public MutableVector2D() {
+		this.x1 = 0.0;
+		this.x2 = 0.0;
+	}
+	
+	public MutableVector2D(double x1, double x2) {
+		set(x1, x2);
+	}
+	
+	public MutableVector2D(Vector2D v) {
+		setFrom(v);
+	}
+	
+	public double x1() {
+		return x1;
+	}
+	
+	public double x2() {
+		return x2;
+	}
+	
+	public MutableVector2D set(double x1, double x2) {
+		if (Double.isNaN(x1) || 
+			Double.isNaN(x2)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.x1 = x1;
+		this.x2 = x2;
+		
+		return this;
+	}
+	
+	public MutableVector2D setFrom(Vector2D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 = v.x1();
+		x2 = v.x2();
+		
+		return this;
+	}
+	
+	public MutableVector2D setFrom(MutableVector2D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 = v.x1;
+		x2 = v.x2;
+		
+		return this;
+	}
+	
+	public Vector2D toVector2D() {
+		return new Vector2D(x1, x2);
+	}
+	
+	public double norm() {
+		return Math.sqrt(x1 * x1 + x2 * x2);
+	}
+	
+	public MutableVector2D negInPlace() {
+		x1 = -x1;
+		x2 = -x2;
+		
+		return this;
+	}
+	
+	public MutableVector2D unitInPlace() {
+		double n = norm();
+		
+		if (Geometry.isZero(n)) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 /= n;
+		x2 /= n;
+		
+		return this;
+	}
+	
+	public MutableVector2D addInPlace(Vector2D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 += v.x1();
+		x2 += v.x2();
+		
+		return this;
+	}
+	
+	public MutableVector2D addInPlace(MutableVector2D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 += v.x1;
+		x2 += v.x2;
+		
+		return this;
+	}
+	
+	public MutableVector2D addInPlace(double k, Vector2D v) {
+		if (Double.isNaN(k) || v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 += k * v.x1();
+		x2 += k * v.x2();
+		
+		return this;
+	}
+	
+	public MutableVector2D addInPlace(double k, MutableVector2D v) {
+		if (Double.isNaN(k) || v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 += k * v.x1;
+		x2 += k * v.x2;
+		
+		return this;
+	}
+	
+	public MutableVector2D subtractInPlace(Vector2D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 -= v.x1();
+		x2 -= v.x2();
+		
+		return this;
+	}
+	
+	public MutableVector2D subtractInPlace(MutableVector2D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 -= v.x1;
+		x2 -= v.x2;
+		
+		return this;
+	}
+	
+	public MutableVector2D multiplyInPlace(double k) {
+		if (Double.isNaN(k)) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 *= k;
+		x2 *= k;
+		
+		return this;
+	}
+	
+	public static double dotProduct(MutableVector2D a, MutableVector2D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return a.x1 * b.x1 + a.x2 * b.x2;
+	}
+	
+	public static double dotProduct(MutableVector2D a, Vector2D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return a.x1 * b.x1() + a.x2 * b.x2();
+	}
+	
+	//The z component of the cross product of a and b extended to 3D:
+	public static double crossProduct(MutableVector2D a, MutableVector2D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return a.x1 * b.x2 - a.x2 * b.x1;
+	}
+	
+	public static double distance(MutableVector2D a, Vector2D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double d1 = a.x1 - b.x1();
+		double d2 = a.x2 - b.x2();
+		
+		return Math.sqrt(d1 * d1 + d2 * d2);
+	}
+	
+}
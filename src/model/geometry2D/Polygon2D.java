@@ -8,6 +8,10 @@ public class Polygon2D {
 	private Vector2D[] points;
 	private Triangle2D[] triangles;
 	
+	//Cache, volatile for safe publication of the lazily built indices:
+	private volatile PolygonSlabs2D slabs;
+	private volatile SegmentBVH2D segments;
+	
 	public Polygon2D(Vector2D[] points) {
 		if (points == null || points.length < 3) {
 			throw new IllegalArgumentException();
@@ -81,7 +85,7 @@ public class Polygon2D {
 		
 		return points[i];
 	}
-
+	
 	public Vector2D[] points() {
 		return points;
 	}
@@ -176,12 +180,12 @@ public class Polygon2D {
 		
 		double signedArea = Geometry.round(s / 2.0);
 		
-		if (signedArea < 0.0) {
+		if (Geometry.isZero(signedArea)) {
+			return 0;
+		}else if (signedArea < 0.0) {
 			return -1;
-		}else if (signedArea > 0.0) {
-			return +1;
 		}else{
-			return 0;
+			return +1;
 		}
 	}
 	
@@ -190,49 +194,137 @@ public class Polygon2D {
 			throw new IllegalArgumentException();
 		}
 		
-		prepareTriangles();
+		return contains(r.x1(), r.x2());
+	}
+	
+	//Winding number of the edges around the point, in O(n) without triangulating. Points on the
+	//boundary within the tolerance are contained:
+	public boolean contains(double x, double y) {
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double e = Geometry.getTolerance().epsilon();
+		int w = 0;
 		
-		for (Triangle2D t : triangles) {
-			if (t.contains(r)) {
+		for (int i = 0; i < points.length; i++) {
+			Vector2D a = points[i];
+			Vector2D b = points[(i + 1) % points.length];
+			
+			double ax = a.x1(), ay = a.x2();
+			double bx = b.x1(), by = b.x2();
+			
+			if (x >= Math.min(ax, bx) - e && x <= Math.max(ax, bx) + e && 
+				y >= Math.min(ay, by) - e && y <= Math.max(ay, by) + e && 
+				segmentDistance(ax, ay, bx, by, x, y) <= e) {
 				return true;
 			}
+			
+			if (ay <= y) {
+				if (by > y && Predicates.orient2d(ax, ay, bx, by, x, y) > 0.0) {
+					w++;
+				}
+			}else if (by <= y && Predicates.orient2d(ax, ay, bx, by, x, y) < 0.0) {
+				w--;
+			}
 		}
 		
-		return false;
+		return w != 0;
 	}
 	
+	private static double segmentDistance(double ax, double ay, double bx, double by, double x, double y) {
+		double dx = bx - ax, dy = by - ay;
+		double t = ((x - ax) * dx + (y - ay) * dy) / (dx * dx + dy * dy);
+		
+		t = Math.max(0.0, Math.min(1.0, t));
+		
+		return Math.hypot(ax + t * dx - x, ay + t * dy - y);
+	}
+	
+	//Index for repeated point location in O(log n), built on first use:
+	public PolygonSlabs2D slabs() {
+		PolygonSlabs2D s = slabs;
+		
+		if (s == null) {
+			s = new PolygonSlabs2D(this);
+			slabs = s;
+		}
+		
+		return s;
+	}
+	
+	//Distance to the polygon, 0 inside. Uses the cached segment index, and the slab index only 
+	//if it was already built since a single winding number is cheaper than building it:
 	public double distance(Vector2D r) {
 		if (r == null) {
 			throw new IllegalArgumentException();
 		}
 		
-		prepareTriangles();
+		if (inside(r.x1(), r.x2())) {
+			return 0.0;
+		}
 		
-		for (Triangle2D t : triangles) {
-			if (t.contains(r)) return 0.0;
+		return segments().distance(r.x1(), r.x2());
+	}
+	
+	//Index of the edge from point i to point i + 1 nearest to r:
+	public int nearestEdge(Vector2D r) {
+		if (r == null) {
+			throw new IllegalArgumentException();
 		}
 		
-		double d = Double.NaN;
+		return segments().nearestEdge(r.x1(), r.x2());
+	}
+	
+	public boolean withinDistance(Vector2D r, double d) {
+		if (r == null || Double.isNaN(d)) {
+			throw new IllegalArgumentException();
+		}
 		
-		for (int i = 0; i < points.length; i++) {
-			int j = (i + 1) % points.length;
-			
-			Line2D l = new Line2D(points[i], points[j]);
-			
-			double t = l.t(r);
-			
-			if (t < 0.0) t = 0.0;
-			if (t > 1.0) t = 1.0;
-			
-			double e = Vector2D.distance(l.p(t), r);
+		if (d < 0.0) {
+			return false;
+		}
+		
+		return inside(r.x1(), r.x2()) || 
+		       segments().withinDistance(r.x1(), r.x2(), d);
+	}
+	
+	private boolean inside(double x, double y) {
+		PolygonSlabs2D s = slabs;
+		
+		return (s != null) ? s.contains(x, y) : contains(x, y);
+	}
+	
+	//Distances of count packed points (x, y per point), offsets count points. Builds the slab 
+	//index, which pays off over many points:
+	public void distances(double[] xy, int offset, int count, double[] result, int resultOffset) {
+		if (xy == null || result == null || count < 0 || 
+			offset < 0 || 2 * (offset + count) > xy.length || 
+			resultOffset < 0 || resultOffset + count > result.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		SegmentBVH2D b = segments();
+		PolygonSlabs2D s = slabs();
+		
+		for (int i = 0; i < count; i++) {
+			double x = xy[2 * (offset + i)];
+			double y = xy[2 * (offset + i) + 1];
 			
-			if (Double.isNaN(d) || 
-				d > e) {
-				d = e;
-			}
+			result[resultOffset + i] = s.contains(x, y) ? 0.0 : b.distance(x, y);
+		}
+	}
+	
+	//Index for distance queries, built on first use:
+	public SegmentBVH2D segments() {
+		SegmentBVH2D s = segments;
+		
+		if (s == null) {
+			s = new SegmentBVH2D(this);
+			segments = s;
 		}
 		
-		return d;
+		return s;
 	}
 	
 	public Triangle2D[] triangles() {
@@ -246,59 +338,93 @@ public class Polygon2D {
 			return;
 		}
 		
-		triangles = new Triangle2D[0];
+		Triangle2D[] ts = new Triangle2D[0];
 		
 		int n = points.length;
+		int o = orientation();
 		Vector2D[] pts = Arrays.copyOf(points, n);
 		
+		//Ear clipping, a corner is an ear if it turns like the polygon and no other point lies in it.
+		//Corners that became flat are dropped without a triangle:
 		while (n > 3) {
+			int ear = -1;
+			int convex = -1;
+			boolean flat = false;
+			
 			for (int i = 0; i < n; i++) {
-				int j = (i + 1) % n;
-				int k = (i + 2) % n;
-				
 				Vector2D a = pts[i];
-				Vector2D b = pts[j];
-				Vector2D c = pts[k];
+				Vector2D b = pts[(i + 1) % n];
+				Vector2D c = pts[(i + 2) % n];
 				
-				Triangle2D t = new Triangle2D(a, b, c);
+				double ax = a.x1(), ay = a.x2();
+				double bx = b.x1(), by = b.x2();
+				double cx = c.x1(), cy = c.x2();
 				
-				if (t.orientation() != orientation()) {
+				int s = Predicates.sign(Predicates.orient2d(ax, ay, bx, by, cx, cy));
+				
+				if (s == 0) {
+					ear = i;
+					flat = true;
+					break;
+				}else if (s != o) {
 					continue;
 				}
 				
-				for (int l = 0; l < n; l++) {
-					if (l == i || l == j || l == k) continue;
-					
-					Vector2D d = pts[l];
-					
-					if (t.contains(d)) {
-						t = null;
-						break;
-					}
+				if (convex < 0) {
+					convex = i;
 				}
 				
-				if (t == null) {
-					continue;
-				}
+				boolean empty = true;
 				
-				if (k > 0) {
-					System.arraycopy(pts, k, 
-					                 pts, j, 
-					                 n - k);
+				for (int l = 0; l < n && empty; l++) {
+					Vector2D d = pts[l];
+					
+					if (d == a || d == b || d == c) continue;
+					
+					double dx = d.x1(), dy = d.x2();
+					
+					empty = Predicates.sign(Predicates.orient2d(ax, ay, bx, by, dx, dy)) == -o || 
+					        Predicates.sign(Predicates.orient2d(bx, by, cx, cy, dx, dy)) == -o || 
+					        Predicates.sign(Predicates.orient2d(cx, cy, ax, ay, dx, dy)) == -o;
 				}
-				points = Arrays.copyOf(pts, n - 1);
-				n--;
-				i--;
 				
-				triangles = Arrays.copyOf(triangles, triangles.length + 1);
-				triangles[triangles.length - 1] = t;
-				
-				break;
+				if (empty) {
+					ear = i;
+					break;
+				}
 			}
+			
+			//Only for degenerate input, clipping anyway guarantees termination:
+			if (ear < 0) {
+				ear = Math.max(convex, 0);
+			}
+			
+			int j = (ear + 1) % n;
+			
+			if (!flat && !flat(pts[ear], pts[j], pts[(ear + 2) % n])) {
+				ts = Arrays.copyOf(ts, ts.length + 1);
+				ts[ts.length - 1] = new Triangle2D(pts[ear], pts[j], pts[(ear + 2) % n]);
+			}
+			
+			System.arraycopy(pts, j + 1, 
+			                 pts, j, 
+			                 n - j - 1);
+			n--;
 		}
 		
-		triangles = Arrays.copyOf(triangles, triangles.length + 1);
-		triangles[triangles.length - 1] = new Triangle2D(pts);
+		if (!flat(pts[0], pts[1], pts[2])) {
+			ts = Arrays.copyOf(ts, ts.length + 1);
+			ts[ts.length - 1] = new Triangle2D(pts[0], pts[1], pts[2]);
+		}
+		
+		triangles = ts;
+	}
+	
+	//Corners too flat for a triangle within the tolerance, as left by intersection points:
+	private static boolean flat(Vector2D a, Vector2D b, Vector2D c) {
+		return Predicates.orient2d(a.x1(), a.x2(), b.x1(), b.x2(), c.x1(), c.x2()) == 0.0 || 
+		       Vector2D.collinear(Vector2D.subtract(b, a), 
+		                          Vector2D.subtract(c, a));
 	}
 	
 	public static boolean equal(Polygon2D a, Polygon2D b) {
@@ -348,6 +474,32 @@ public class Polygon2D {
 		return Triangle2D.intersection(a.triangles(), b.triangles());
 	}
 	
+	//Boolean operations as regions, the result of a difference or xor may have holes:
+	public static Region2D[] intersectionRegions(Polygon2D a, Polygon2D b) {
+		return operation(a, b, PolygonBoolean2D.Operation.INTERSECTION);
+	}
+	
+	public static Region2D[] union(Polygon2D a, Polygon2D b) {
+		return operation(a, b, PolygonBoolean2D.Operation.UNION);
+	}
+	
+	public static Region2D[] difference(Polygon2D a, Polygon2D b) {
+		return operation(a, b, PolygonBoolean2D.Operation.DIFFERENCE);
+	}
+	
+	public static Region2D[] xor(Polygon2D a, Polygon2D b) {
+		return operation(a, b, PolygonBoolean2D.Operation.XOR);
+	}
+	
+	private static Region2D[] operation(Polygon2D a, Polygon2D b, PolygonBoolean2D.Operation o) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return PolygonBoolean2D.compute(new Region2D[] {new Region2D(a)}, 
+		                                new Region2D[] {new Region2D(b)}, o);
+	}
+	
 	public static Polygon2D polygonFromTriangle(Triangle2D t) {
 		if (t == null) {
 			throw new IllegalArgumentException();
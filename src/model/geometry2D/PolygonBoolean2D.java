@@ -0,0 +1,899 @@
+package model.geometry2D;
+
+import java.util.*;
+
+import model.basis.*;
+
+//Boolean operations on sets of regions with the sweep line algorithm of Martinez, Rueda and Feito.
+//The sweep splits the edges at their intersections and classifies every piece by the piece below it,
+//the pieces in the result are then joined into contours. O((n + k) log n) for n edges and k crossings:
+public class PolygonBoolean2D {
+	
+	public enum Operation {
+		INTERSECTION, UNION, DIFFERENCE, XOR
+	}
+	
+	//Edge types, overlapping edges of both sets are kept once:
+	private static final int normal = 0;
+	private static final int nonContributing = 1;
+	private static final int sameTransition = 2;
+	private static final int differentTransition = 3;
+	
+	//An end point of an edge, the edge is the segment to other.x, other.y:
+	private static class SweepEvent {
+		double x, y;
+		boolean left;
+		boolean subject;
+		SweepEvent other;
+		int contour;
+		int id;
+		
+		int type;
+		boolean inOut;
+		boolean otherInOut;
+		SweepEvent prevInResult;
+		int resultTransition;
+		
+		int position;
+		int outputContour;
+		
+		SweepEvent(double x, double y, boolean left, SweepEvent other, boolean subject, int contour, int id) {
+			this.x = x;
+			this.y = y;
+			this.left = left;
+			this.other = other;
+			this.subject = subject;
+			this.contour = contour;
+			this.id = id;
+			
+			this.type = normal;
+			this.outputContour = -1;
+		}
+		
+		boolean below(double px, double py) {
+			if (left) {
+				return Predicates.orient2d(x, y, other.x, other.y, px, py) > 0.0;
+			}else{
+				return Predicates.orient2d(other.x, other.y, x, y, px, py) > 0.0;
+			}
+		}
+		
+		boolean vertical() {
+			return x == other.x;
+		}
+		
+		boolean inResult() {
+			return resultTransition != 0;
+		}
+	}
+	
+	//Contours of the result, counterclockwise around the result. Clockwise contours are holes
+	//of the contour holeOf:
+	private static class Contour {
+		double[] xy = new double[16];
+		int n = 0;
+		double area;
+		SweepEvent lowest;
+		int holeOf = -1;
+		int[] holes = new int[0];
+		
+		void add(double x, double y) {
+			if (2 * n + 2 > xy.length) {
+				xy = Arrays.copyOf(xy, 2 * xy.length);
+			}
+			
+			xy[2 * n] = x;
+			xy[2 * n + 1] = y;
+			n++;
+		}
+		
+		void addHole(int c) {
+			holes = Arrays.copyOf(holes, holes.length + 1);
+			holes[holes.length - 1] = c;
+		}
+	}
+	
+	private static final Comparator<SweepEvent> eventOrder = new Comparator<SweepEvent>() {
+		public int compare(SweepEvent a, SweepEvent b) {
+			return compareEvents(a, b);
+		}
+	};
+	
+	private static final Comparator<SweepEvent> segmentOrder = new Comparator<SweepEvent>() {
+		public int compare(SweepEvent a, SweepEvent b) {
+			return compareSegments(a, b);
+		}
+	};
+	
+	private Operation operation;
+	private PriorityQueue<SweepEvent> queue;
+	private TreeSet<SweepEvent> sweepLine;
+	private SweepEvent[] sortedEvents;
+	private int sortedCount;
+	private int nextId;
+	
+	private PolygonBoolean2D(Operation operation) {
+		this.operation = operation;
+		this.queue = new PriorityQueue<SweepEvent>(64, eventOrder);
+		this.sweepLine = new TreeSet<SweepEvent>(segmentOrder);
+		this.sortedEvents = new SweepEvent[64];
+		this.sortedCount = 0;
+		this.nextId = 0;
+	}
+	
+	public static Region2D[] intersection(Region2D[] subject, Region2D[] clipping) {
+		return compute(subject, clipping, Operation.INTERSECTION);
+	}
+	
+	public static Region2D[] union(Region2D[] subject, Region2D[] clipping) {
+		return compute(subject, clipping, Operation.UNION);
+	}
+	
+	public static Region2D[] difference(Region2D[] subject, Region2D[] clipping) {
+		return compute(subject, clipping, Operation.DIFFERENCE);
+	}
+	
+	public static Region2D[] xor(Region2D[] subject, Region2D[] clipping) {
+		return compute(subject, clipping, Operation.XOR);
+	}
+	
+	public static Region2D[] compute(Region2D[] subject, Region2D[] clipping, Operation operation) {
+		if (subject == null || clipping == null || operation == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double[] sb = bounds(subject);
+		double[] cb = bounds(clipping);
+		
+		//Sets without area or with disjoint bounding boxes:
+		if (subject.length == 0 || clipping.length == 0 || 
+			sb[0] > cb[2] || cb[0] > sb[2] || sb[1] > cb[3] || cb[1] > sb[3]) {
+			switch (operation) {
+				case INTERSECTION:
+					return new Region2D[0];
+				case DIFFERENCE:
+					return subject.clone();
+				default:
+					Region2D[] rs = Arrays.copyOf(subject, subject.length + clipping.length);
+					
+					System.arraycopy(clipping, 0, 
+					                 rs, subject.length, 
+					                 clipping.length);
+					
+					return rs;
+			}
+		}
+		
+		PolygonBoolean2D engine = new PolygonBoolean2D(operation);
+		int contour = 0;
+		
+		for (Region2D r : subject) {
+			engine.addContour(r.outer(), true, contour++);
+			
+			for (Polygon2D h : r.holes()) {
+				engine.addContour(h, true, contour++);
+			}
+		}
+		for (Region2D r : clipping) {
+			engine.addContour(r.outer(), false, contour++);
+			
+			for (Polygon2D h : r.holes()) {
+				engine.addContour(h, false, contour++);
+			}
+		}
+		
+		//Nothing right of these can be part of the result:
+		double bound = Double.POSITIVE_INFINITY;
+		
+		if (operation == Operation.INTERSECTION) {
+			bound = Math.min(sb[2], cb[2]);
+		}else if (operation == Operation.DIFFERENCE) {
+			bound = sb[2];
+		}
+		
+		engine.subdivide(bound);
+		
+		return engine.connectEdges();
+	}
+	
+	//Min x, min y, max x, max y of the outer polygons:
+	private static double[] bounds(Region2D[] rs) {
+		double[] b = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 
+		              Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+		
+		for (Region2D r : rs) {
+			if (r == null) {
+				throw new IllegalArgumentException();
+			}
+			
+			for (Vector2D p : r.outer().points()) {
+				b[0] = Math.min(b[0], p.x1());
+				b[1] = Math.min(b[1], p.x2());
+				b[2] = Math.max(b[2], p.x1());
+				b[3] = Math.max(b[3], p.x2());
+			}
+		}
+		
+		return b;
+	}
+	
+	private void addContour(Polygon2D p, boolean subject, int contour) {
+		Vector2D[] points = p.points();
+		int n = points.length;
+		
+		for (int i = 0; i < n; i++) {
+			Vector2D a = points[i];
+			Vector2D b = points[(i + 1) % n];
+			
+			if (a.x1() == b.x1() && a.x2() == b.x2()) {
+				continue;
+			}
+			
+			SweepEvent e1 = new SweepEvent(a.x1(), a.x2(), false, null, subject, contour, nextId++);
+			SweepEvent e2 = new SweepEvent(b.x1(), b.x2(), false, e1, subject, contour, nextId++);
+			
+			e1.other = e2;
+			
+			if (compareEvents(e1, e2) > 0) {
+				e2.left = true;
+			}else{
+				e1.left = true;
+			}
+			
+			queue.add(e1);
+			queue.add(e2);
+		}
+	}
+	
+	//Positive if a is processed after b: left to right, bottom to top, right end points before
+	//left end points, lower edges first:
+	private static int compareEvents(SweepEvent a, SweepEvent b) {
+		if (a.x != b.x) {
+			return (a.x > b.x) ? 1 : -1;
+		}
+		if (a.y != b.y) {
+			return (a.y > b.y) ? 1 : -1;
+		}
+		
+		if (a.left != b.left) {
+			return a.left ? 1 : -1;
+		}
+		
+		if (Predicates.orient2d(a.x, a.y, a.other.x, a.other.y, b.other.x, b.other.y) != 0.0) {
+			return a.below(b.other.x, b.other.y) ? -1 : 1;
+		}
+		
+		if (a.subject != b.subject) {
+			return a.subject ? -1 : 1;
+		}
+		
+		return Integer.compare(a.id, b.id);
+	}
+	
+	//Order of the edges of left end points a and b on the sweep line, bottom to top:
+	private static int compareSegments(SweepEvent a, SweepEvent b) {
+		if (a == b) {
+			return 0;
+		}
+		
+		if (Predicates.orient2d(a.x, a.y, a.other.x, a.other.y, b.x, b.y) != 0.0 || 
+			Predicates.orient2d(a.x, a.y, a.other.x, a.other.y, b.other.x, b.other.y) != 0.0) {
+			//Not collinear, edges with the same left end point are ordered by the right one:
+			if (a.x == b.x && a.y == b.y) {
+				return a.below(b.other.x, b.other.y) ? -1 : 1;
+			}
+			
+			if (a.x == b.x) {
+				return (a.y < b.y) ? -1 : 1;
+			}
+			
+			//Compare the edge that was inserted later with the line of the other one, by its right
+			//end point if the left one lies on the line:
+			if (compareEvents(a, b) > 0) {
+				return (side(b, a) > 0.0) ? 1 : -1;
+			}
+			
+			return (side(a, b) > 0.0) ? -1 : 1;
+		}
+		
+		if (a.subject == b.subject) {
+			if (a.x == b.x && a.y == b.y) {
+				if (a.other.x == b.other.x && a.other.y == b.other.y) {
+					return Integer.compare(a.id, b.id);
+				}
+				
+				return (a.contour > b.contour) ? 1 : (a.contour < b.contour) ? -1 : Integer.compare(a.id, b.id);
+			}
+		}else{
+			//Collinear edges of different sets:
+			return a.subject ? -1 : 1;
+		}
+		
+		return (compareEvents(a, b) > 0) ? 1 : -1;
+	}
+	
+	//Positive if the edge of b lies above the line of the edge of a:
+	private static double side(SweepEvent a, SweepEvent b) {
+		double o = Predicates.orient2d(a.x, a.y, a.other.x, a.other.y, b.x, b.y);
+		
+		if (o == 0.0) {
+			o = Predicates.orient2d(a.x, a.y, a.other.x, a.other.y, b.other.x, b.other.y);
+		}
+		
+		return o;
+	}
+	
+	private void subdivide(double bound) {
+		while (!queue.isEmpty()) {
+			SweepEvent event = queue.poll();
+			
+			if (sortedCount == sortedEvents.length) {
+				sortedEvents = Arrays.copyOf(sortedEvents, 2 * sortedCount);
+			}
+			
+			sortedEvents[sortedCount++] = event;
+			
+			if (event.x > bound) {
+				break;
+			}
+			
+			if (event.left) {
+				sweepLine.add(event);
+				
+				SweepEvent prev = sweepLine.lower(event);
+				SweepEvent next = sweepLine.higher(event);
+				
+				computeFields(event, prev);
+				
+				if (next != null && possibleIntersection(event, next) == 2) {
+					computeFields(event, prev);
+					computeFields(next, event);
+				}
+				
+				if (prev != null && possibleIntersection(prev, event) == 2) {
+					computeFields(prev, sweepLine.lower(prev));
+					computeFields(event, prev);
+				}
+			}else{
+				SweepEvent left = event.other;
+				
+				if (sweepLine.contains(left)) {
+					SweepEvent prev = sweepLine.lower(left);
+					SweepEvent next = sweepLine.higher(left);
+					
+					sweepLine.remove(left);
+					
+					if (prev != null && next != null) {
+						possibleIntersection(prev, next);
+					}
+				}
+			}
+		}
+	}
+	
+	//Whether the inside of each set is below the edge, from the edge below it:
+	private void computeFields(SweepEvent event, SweepEvent prev) {
+		if (prev == null) {
+			event.inOut = false;
+			event.otherInOut = true;
+		}else{
+			if (event.subject == prev.subject) {
+				event.inOut = !prev.inOut;
+				event.otherInOut = prev.otherInOut;
+			}else{
+				event.inOut = !prev.otherInOut;
+				event.otherInOut = prev.vertical() ? !prev.inOut : prev.inOut;
+			}
+			
+			event.prevInResult = (!inResult(prev) || prev.vertical()) ? prev.prevInResult : prev;
+		}
+		
+		if (inResult(event)) {
+			event.resultTransition = resultTransition(event);
+		}else{
+			event.resultTransition = 0;
+		}
+	}
+	
+	private boolean inResult(SweepEvent event) {
+		switch (event.type) {
+			case normal:
+				switch (operation) {
+					case INTERSECTION:
+						return !event.otherInOut;
+					case UNION:
+						return event.otherInOut;
+					case DIFFERENCE:
+						return (event.subject && event.otherInOut) || 
+						       (!event.subject && !event.otherInOut);
+					default:
+						return true;
+				}
+			case sameTransition:
+				return operation == Operation.INTERSECTION || operation == Operation.UNION;
+			case differentTransition:
+				return operation == Operation.DIFFERENCE;
+			default:
+				return false;
+		}
+	}
+	
+	//+1 if the result is inside above the edge, -1 if below:
+	private int resultTransition(SweepEvent event) {
+		boolean thisIn = !event.inOut;
+		boolean thatIn = !event.otherInOut;
+		boolean in;
+		
+		//Overlapping edges lie on the boundary of both sets, the result is on the inside of the
+		//first set for same transitions and on the inside of the subject for different ones:
+		if (event.type == sameTransition) {
+			return thisIn ? +1 : -1;
+		}else if (event.type == differentTransition) {
+			return (thisIn == event.subject) ? +1 : -1;
+		}
+		
+		switch (operation) {
+			case INTERSECTION:
+				in = thisIn && thatIn;
+				break;
+			case UNION:
+				in = thisIn || thatIn;
+				break;
+			case XOR:
+				in = thisIn ^ thatIn;
+				break;
+			default:
+				in = event.subject ? (thisIn && !thatIn) : (thatIn && !thisIn);
+				break;
+		}
+		
+		return in ? +1 : -1;
+	}
+	
+	//0 if the edges don't intersect or only share an end point, 2 if they overlap from a common
+	//left end point, 1 or 3 if an edge was divided:
+	private int possibleIntersection(SweepEvent e1, SweepEvent e2) {
+		double[] p = new double[4];
+		int n = intersection(e1.x, e1.y, e1.other.x, e1.other.y, 
+		                     e2.x, e2.y, e2.other.x, e2.other.y, p);
+		
+		if (n == 0) {
+			return 0;
+		}
+		
+		if (n == 1 && ((e1.x == e2.x && e1.y == e2.y) || 
+		               (e1.other.x == e2.other.x && e1.other.y == e2.other.y))) {
+			return 0;
+		}
+		
+		//Overlapping edges of the same set:
+		if (n == 2 && e1.subject == e2.subject) {
+			return 0;
+		}
+		
+		if (n == 1) {
+			if (!at(e1, p[0], p[1]) && !at(e1.other, p[0], p[1])) {
+				divideSegment(e1, p[0], p[1]);
+			}
+			if (!at(e2, p[0], p[1]) && !at(e2.other, p[0], p[1])) {
+				divideSegment(e2, p[0], p[1]);
+			}
+			
+			return 1;
+		}
+		
+		SweepEvent[] events = new SweepEvent[4];
+		int m = 0;
+		boolean leftCoincide = false;
+		boolean rightCoincide = false;
+		
+		if (e1.x == e2.x && e1.y == e2.y) {
+			leftCoincide = true;
+		}else if (compareEvents(e1, e2) > 0) {
+			events[m++] = e2;
+			events[m++] = e1;
+		}else{
+			events[m++] = e1;
+			events[m++] = e2;
+		}
+		
+		if (e1.other.x == e2.other.x && e1.other.y == e2.other.y) {
+			rightCoincide = true;
+		}else if (compareEvents(e1.other, e2.other) > 0) {
+			events[m++] = e2.other;
+			events[m++] = e1.other;
+		}else{
+			events[m++] = e1.other;
+			events[m++] = e2.other;
+		}
+		
+		if (leftCoincide) {
+			//Equal edges or edges with the same left end point, the first one stands for both:
+			e2.type = nonContributing;
+			e1.type = (e2.inOut == e1.inOut) ? sameTransition : differentTransition;
+			
+			if (!rightCoincide) {
+				divideSegment(events[1].other, events[0].x, events[0].y);
+			}
+			
+			return 2;
+		}
+		
+		if (rightCoincide) {
+			divideSegment(events[0], events[1].x, events[1].y);
+			
+			return 3;
+		}
+		
+		if (events[0] != events[3].other) {
+			//Neither edge contains the other:
+			divideSegment(events[0], events[1].x, events[1].y);
+			divideSegment(events[1], events[2].x, events[2].y);
+			
+			return 3;
+		}
+		
+		//One edge contains the other:
+		divideSegment(events[0], events[1].x, events[1].y);
+		divideSegment(events[3].other, events[2].x, events[2].y);
+		
+		return 3;
+	}
+	
+	private static boolean at(SweepEvent e, double x, double y) {
+		return e.x == x && e.y == y;
+	}
+	
+	//Splits the edge of the left end point e at x, y into two edges:
+	private void divideSegment(SweepEvent e, double x, double y) {
+		SweepEvent r = new SweepEvent(x, y, false, e, e.subject, e.contour, nextId++);
+		SweepEvent l = new SweepEvent(x, y, true, e.other, e.subject, e.contour, nextId++);
+		
+		//Rounding may move the point past the right end point:
+		if (compareEvents(l, e.other) > 0) {
+			e.other.left = true;
+			l.left = false;
+		}
+		
+		e.other.other = l;
+		e.other = r;
+		
+		queue.add(l);
+		queue.add(r);
+	}
+	
+	//Writes the intersection points of the segments a1 a2 and b1 b2 to p, two for overlapping
+	//collinear segments, and returns their number. End points are used exactly where they are hit:
+	private static int intersection(double a1x, double a1y, double a2x, double a2y, 
+	                                double b1x, double b1y, double b2x, double b2y, double[] p) {
+		int o1 = Predicates.sign(Predicates.orient2d(a1x, a1y, a2x, a2y, b1x, b1y));
+		int o2 = Predicates.sign(Predicates.orient2d(a1x, a1y, a2x, a2y, b2x, b2y));
+		
+		if (o1 != 0 || o2 != 0) {
+			int o3 = Predicates.sign(Predicates.orient2d(b1x, b1y, b2x, b2y, a1x, a1y));
+			int o4 = Predicates.sign(Predicates.orient2d(b1x, b1y, b2x, b2y, a2x, a2y));
+			
+			if (o1 * o2 > 0 || o3 * o4 > 0) {
+				return 0;
+			}
+			
+			if (o1 == 0) {
+				p[0] = b1x;
+				p[1] = b1y;
+			}else if (o2 == 0) {
+				p[0] = b2x;
+				p[1] = b2y;
+			}else if (o3 == 0) {
+				p[0] = a1x;
+				p[1] = a1y;
+			}else if (o4 == 0) {
+				p[0] = a2x;
+				p[1] = a2y;
+			}else{
+				double vax = a2x - a1x, vay = a2y - a1y;
+				double vbx = b2x - b1x, vby = b2y - b1y;
+				double ex = b1x - a1x, ey = b1y - a1y;
+				double s = (ex * vby - ey * vbx) / (vax * vby - vay * vbx);
+				
+				s = Math.max(0.0, Math.min(1.0, s));
+				
+				p[0] = a1x + s * vax;
+				p[1] = a1y + s * vay;
+			}
+			
+			return 1;
+		}
+		
+		//Collinear, compare positions along a:
+		double vax = a2x - a1x, vay = a2y - a1y;
+		double aa = vax * vax + vay * vay;
+		double s1 = ((b1x - a1x) * vax + (b1y - a1y) * vay) / aa;
+		double s2 = ((b2x - a1x) * vax + (b2y - a1y) * vay) / aa;
+		
+		double minS = Math.min(s1, s2);
+		double maxS = Math.max(s1, s2);
+		
+		if (minS > 1.0 || maxS < 0.0) {
+			return 0;
+		}
+		
+		double minX = (s1 <= s2) ? b1x : b2x, minY = (s1 <= s2) ? b1y : b2y;
+		double maxX = (s1 <= s2) ? b2x : b1x, maxY = (s1 <= s2) ? b2y : b1y;
+		
+		if (minS == 1.0) {
+			p[0] = a2x;
+			p[1] = a2y;
+			
+			return 1;
+		}
+		if (maxS == 0.0) {
+			p[0] = a1x;
+			p[1] = a1y;
+			
+			return 1;
+		}
+		
+		p[0] = (minS > 0.0) ? minX : a1x;
+		p[1] = (minS > 0.0) ? minY : a1y;
+		p[2] = (maxS < 1.0) ? maxX : a2x;
+		p[3] = (maxS < 1.0) ? maxY : a2y;
+		
+		return 2;
+	}
+	
+	private Region2D[] connectEdges() {
+		//End points of the edges in the result, in sweep order:
+		SweepEvent[] events = new SweepEvent[sortedCount];
+		int n = 0;
+		
+		for (int i = 0; i < sortedCount; i++) {
+			SweepEvent e = sortedEvents[i];
+			
+			if ((e.left && e.inResult()) || (!e.left && e.other.inResult())) {
+				events[n++] = e;
+			}
+		}
+		
+		//Divided overlapping edges can leave a few events out of order:
+		for (int i = 1; i < n; i++) {
+			SweepEvent e = events[i];
+			int j = i - 1;
+			
+			while (j >= 0 && compareEvents(events[j], e) > 0) {
+				events[j + 1] = events[j];
+				j--;
+			}
+			
+			events[j + 1] = e;
+		}
+		
+		//position is the index of the other end point of the edge, events at the same point
+		//are consecutive and first[i] is the first of them:
+		int[] first = new int[n];
+		
+		for (int i = 0; i < n; i++) {
+			events[i].position = i;
+			first[i] = (i > 0 && at(events[i - 1], events[i].x, events[i].y)) ? first[i - 1] : i;
+		}
+		for (int i = 0; i < n; i++) {
+			SweepEvent e = events[i];
+			
+			if (!e.left) {
+				int t = e.position;
+				
+				e.position = e.other.position;
+				e.other.position = t;
+			}
+		}
+		
+		//Every edge is walked with the result on its left, from the left end point if the
+		//result lies above it:
+		boolean[] forward = new boolean[n];
+		
+		for (int i = 0; i < n; i++) {
+			SweepEvent l = events[i].left ? events[i] : events[i].other;
+			
+			forward[i] = events[i].left == (l.resultTransition > 0);
+		}
+		
+		boolean[] processed = new boolean[n];
+		Contour[] contours = new Contour[0];
+		
+		//Edges of the contour being walked, onPath[first[i]] is the step that left the point of event i:
+		int[] path = new int[n];
+		int[] onPath = new int[n];
+		
+		Arrays.fill(onPath, -1);
+		
+		for (int i = 0; i < n; i++) {
+			if (!forward[i] || processed[i]) {
+				continue;
+			}
+			
+			int length = 0;
+			int pos = i;
+			
+			for (int steps = 0; steps <= n && pos >= 0; steps++) {
+				//Returning to a point closes a contour, so contours touching at a point stay apart:
+				int k = onPath[first[pos]];
+				
+				if (k >= 0) {
+					int id = contours.length;
+					
+					contours = Arrays.copyOf(contours, id + 1);
+					contours[id] = contour(events, path, k, length, id);
+					
+					for (int j = k; j < length; j++) {
+						onPath[first[path[j]]] = -1;
+					}
+					
+					length = k;
+				}
+				
+				if (processed[pos]) {
+					break;
+				}
+				
+				processed[pos] = true;
+				onPath[first[pos]] = length;
+				path[length++] = pos;
+				
+				pos = nextEdge(events[pos].position, events, first, forward, n);
+			}
+			
+			for (int j = 0; j < length; j++) {
+				onPath[first[path[j]]] = -1;
+			}
+		}
+		
+		//Holes belong to the contour around the result edge below their lowest point:
+		for (Contour contour : contours) {
+			if (contour.area >= 0.0) {
+				continue;
+			}
+			
+			SweepEvent below = contour.lowest.prevInResult;
+			
+			contour.holeOf = (below != null && below.outputContour >= 0) ? below.outputContour : -1;
+		}
+		
+		Region2D[] result = new Region2D[0];
+		
+		for (int c = 0; c < contours.length; c++) {
+			int parent = outerContour(contours, c);
+			
+			if (parent >= 0 && parent != c) {
+				contours[parent].addHole(c);
+			}
+		}
+		
+		for (Contour c : contours) {
+			if (c.area < 0.0) {
+				continue;
+			}
+			
+			Polygon2D outer = polygon(c, +1);
+			
+			if (outer == null) {
+				continue;
+			}
+			
+			Polygon2D[] holes = new Polygon2D[0];
+			
+			for (int h : c.holes) {
+				Polygon2D hole = polygon(contours[h], -1);
+				
+				if (hole != null) {
+					holes = Arrays.copyOf(holes, holes.length + 1);
+					holes[holes.length - 1] = hole;
+				}
+			}
+			
+			result = Arrays.copyOf(result, result.length + 1);
+			result[result.length - 1] = new Region2D(outer, holes);
+		}
+		
+		return result;
+	}
+	
+	//The contour of the edges path[from] to path[to - 1]:
+	private static Contour contour(SweepEvent[] events, int[] path, int from, int to, int id) {
+		Contour contour = new Contour();
+		int lowest = Integer.MAX_VALUE;
+		
+		for (int j = from; j < to; j++) {
+			SweepEvent e = events[path[j]];
+			
+			e.outputContour = id;
+			e.other.outputContour = id;
+			contour.add(e.x, e.y);
+			
+			lowest = Math.min(lowest, Math.min(path[j], e.position));
+		}
+		
+		//The first event of the contour is the left end point of its lower edge at its lowest point:
+		contour.lowest = events[lowest];
+		contour.area = signedArea(contour);
+		
+		return contour;
+	}
+	
+	//The edge leaving the end point of events[end] that turns least to the right, which keeps the
+	//contours apart where they touch:
+	private static int nextEdge(int end, SweepEvent[] events, int[] first, boolean[] forward, int n) {
+		SweepEvent e = events[end];
+		double back = Math.atan2(e.other.y - e.y, e.other.x - e.x);
+		double bestAngle = Double.POSITIVE_INFINITY;
+		int best = -1;
+		
+		for (int i = first[end]; i < n && at(events[i], e.x, e.y); i++) {
+			if (!forward[i]) {
+				continue;
+			}
+			
+			SweepEvent f = events[i];
+			double angle = back - Math.atan2(f.other.y - f.y, f.other.x - f.x);
+			
+			if (angle <= 0.0) {
+				angle += 2.0 * Math.PI;
+			}
+			
+			if (angle < bestAngle) {
+				bestAngle = angle;
+				best = i;
+			}
+		}
+		
+		return best;
+	}
+	
+	//Index of the outer contour of contour c, -1 if a hole has none:
+	private static int outerContour(Contour[] contours, int c) {
+		for (int steps = 0; steps <= contours.length; steps++) {
+			if (c < 0) {
+				return -1;
+			}
+			
+			if (contours[c].area >= 0.0) {
+				return c;
+			}
+			
+			c = contours[c].holeOf;
+		}
+		
+		return -1;
+	}
+	
+	private static double signedArea(Contour c) {
+		double s = 0.0;
+		
+		for (int i = 0; i < c.n; i++) {
+			int j = (i + 1) % c.n;
+			
+			s += c.xy[2 * i] * c.xy[2 * j + 1] - c.xy[2 * j] * c.xy[2 * i + 1];
+		}
+		
+		return s / 2.0;
+	}
+	
+	//The contour as a polygon with the given orientation, null if it has no area:
+	private static Polygon2D polygon(Contour c, int orientation) {
+		int n = c.n;
+		
+		if (n < 3 || Geometry.isZero(c.area)) {
+			return null;
+		}
+		
+		boolean reverse = (c.area > 0.0) != (orientation > 0);
+		Vector2D[] points = new Vector2D[n];
+		
+		for (int i = 0; i < n; i++) {
+			int k = reverse ? (n - 1 - i) : i;
+			
+			points[i] = new Vector2D(c.xy[2 * k], c.xy[2 * k + 1]);
+		}
+		
+		return new Polygon2D(points);
+	}
+	
+}
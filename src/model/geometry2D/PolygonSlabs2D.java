@@ -0,0 +1,318 @@
+package model.geometry2D;
+
+import java.util.Arrays;
+
+import model.basis.*;
+
+//Slab decomposition of a polygon for point location in O(log n). The horizontal lines through the
+//points cut the plane into slabs, in each slab the edges don't cross and are sorted left to right.
+//A point is inside if an odd number of edges of its slab lie left of it. Needs O(n) memory for
+//most polygons but O(n^2) in the worst case:
+public class PolygonSlabs2D {
+	private Polygon2D polygon;
+	
+	//Distinct y of the points, slab s lies between ys[s] and ys[s + 1]:
+	private double[] ys;
+	
+	//Edges pointing up, x0 y0 x1 y1 for each:
+	private double[] edges;
+	
+	//Edges in slab s are slabEdges[slabStart[s]] to slabEdges[slabStart[s + 1] - 1]:
+	private int[] slabStart;
+	private int[] slabEdges;
+	
+	//Horizontal edges at ys[l] as min x, max x, sorted by min x:
+	private int[] levelStart;
+	private double[] levelEdges;
+	
+	public PolygonSlabs2D(Polygon2D polygon) {
+		if (polygon == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.polygon = polygon;
+		
+		Vector2D[] points = polygon.points();
+		int n = points.length;
+		
+		double[] y = new double[n];
+		
+		for (int i = 0; i < n; i++) {
+			y[i] = points[i].x2();
+		}
+		
+		Arrays.sort(y);
+		
+		int m = 0;
+		
+		for (int i = 0; i < n; i++) {
+			if (m == 0 || y[i] != y[m - 1]) {
+				y[m++] = y[i];
+			}
+		}
+		
+		ys = Arrays.copyOf(y, m);
+		edges = new double[4 * n];
+		
+		int[] lo = new int[n];
+		int[] hi = new int[n];
+		
+		slabStart = new int[m];
+		levelStart = new int[m + 1];
+		
+		//Count the edges per slab and level:
+		for (int i = 0; i < n; i++) {
+			Vector2D a = points[i];
+			Vector2D b = points[(i + 1) % n];
+			
+			if (a.x2() > b.x2()) {
+				Vector2D c = a;
+				a = b;
+				b = c;
+			}
+			
+			edges[4 * i] = a.x1();
+			edges[4 * i + 1] = a.x2();
+			edges[4 * i + 2] = b.x1();
+			edges[4 * i + 3] = b.x2();
+			
+			lo[i] = Arrays.binarySearch(ys, a.x2());
+			hi[i] = Arrays.binarySearch(ys, b.x2());
+			
+			if (lo[i] == hi[i]) {
+				levelStart[lo[i] + 1]++;
+			}
+			
+			for (int s = lo[i]; s < hi[i]; s++) {
+				slabStart[s + 1]++;
+			}
+		}
+		
+		for (int s = 1; s < m; s++) {
+			slabStart[s] += slabStart[s - 1];
+		}
+		for (int l = 1; l <= m; l++) {
+			levelStart[l] += levelStart[l - 1];
+		}
+		
+		slabEdges = new int[slabStart[m - 1]];
+		levelEdges = new double[2 * levelStart[m]];
+		
+		int[] slabFill = Arrays.copyOf(slabStart, m - 1);
+		int[] levelFill = Arrays.copyOf(levelStart, m);
+		
+		for (int i = 0; i < n; i++) {
+			if (lo[i] == hi[i]) {
+				int k = levelFill[lo[i]]++;
+				
+				levelEdges[2 * k] = Math.min(edges[4 * i], edges[4 * i + 2]);
+				levelEdges[2 * k + 1] = Math.max(edges[4 * i], edges[4 * i + 2]);
+			}
+			
+			for (int s = lo[i]; s < hi[i]; s++) {
+				slabEdges[slabFill[s]++] = i;
+			}
+		}
+		
+		//Sort the edges of each slab by their x in the middle of the slab:
+		double[] keys = new double[slabEdges.length];
+		
+		for (int s = 0; s < m - 1; s++) {
+			double ym = 0.5 * (ys[s] + ys[s + 1]);
+			
+			for (int k = slabStart[s]; k < slabStart[s + 1]; k++) {
+				keys[k] = x(slabEdges[k], ym);
+			}
+			
+			sort(keys, slabEdges, slabStart[s], slabStart[s + 1] - 1);
+		}
+		
+		//Sort the horizontal edges of each level by min x:
+		for (int l = 0; l < m; l++) {
+			for (int k = levelStart[l] + 1; k < levelStart[l + 1]; k++) {
+				double x0 = levelEdges[2 * k];
+				double x1 = levelEdges[2 * k + 1];
+				int j = k - 1;
+				
+				while (j >= levelStart[l] && levelEdges[2 * j] > x0) {
+					levelEdges[2 * j + 2] = levelEdges[2 * j];
+					levelEdges[2 * j + 3] = levelEdges[2 * j + 1];
+					j--;
+				}
+				
+				levelEdges[2 * j + 2] = x0;
+				levelEdges[2 * j + 3] = x1;
+			}
+		}
+	}
+	
+	public Polygon2D getPolygon() {
+		return polygon;
+	}
+	
+	public int getNumberOfSlabs() {
+		return ys.length - 1;
+	}
+	
+	private double x(int edge, double y) {
+		double x0 = edges[4 * edge], y0 = edges[4 * edge + 1];
+		double x1 = edges[4 * edge + 2], y1 = edges[4 * edge + 3];
+		
+		return x0 + (x1 - x0) * (y - y0) / (y1 - y0);
+	}
+	
+	private static void sort(double[] keys, int[] ids, int lo, int hi) {
+		while (hi > lo) {
+			double pivot = keys[(lo + hi) >>> 1];
+			int i = lo;
+			int j = hi;
+			
+			while (i <= j) {
+				while (keys[i] < pivot) i++;
+				while (keys[j] > pivot) j--;
+				
+				if (i <= j) {
+					double key = keys[i];
+					keys[i] = keys[j];
+					keys[j] = key;
+					
+					int id = ids[i];
+					ids[i] = ids[j];
+					ids[j] = id;
+					i++;
+					j--;
+				}
+			}
+			
+			//Recurse into the smaller part to bound the stack:
+			if (j - lo < hi - i) {
+				sort(keys, ids, lo, j);
+				lo = i;
+			}else{
+				sort(keys, ids, i, hi);
+				hi = j;
+			}
+		}
+	}
+	
+	public boolean contains(Vector2D r) {
+		if (r == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return contains(r.x1(), r.x2());
+	}
+	
+	//Points on the boundary within the tolerance are contained, as for Polygon2D.contains:
+	public boolean contains(double x, double y) {
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double e = Geometry.getTolerance().epsilon();
+		int m = ys.length;
+		
+		if (y < ys[0] - e || y > ys[m - 1] + e) {
+			return false;
+		}
+		
+		//Last slab starting at or below y:
+		int s = Arrays.binarySearch(ys, y);
+		
+		if (s < 0) {
+			s = -s - 2;
+		}
+		
+		s = Math.max(0, Math.min(m - 2, s));
+		
+		int left = left(s, x, y);
+		
+		if (y >= ys[0] && y <= ys[m - 1] && left % 2 == 1) {
+			return true;
+		}
+		
+		//Boundary, from the edges next to the point and near a level from the ones of the slab
+		//on the other side and the horizontal edges:
+		if (near(s, left, x, y, e)) {
+			return true;
+		}
+		
+		if (y - ys[s] <= e) {
+			if (s > 0 && near(s - 1, left(s - 1, x, y), x, y, e)) {
+				return true;
+			}
+			if (nearLevel(s, x, y, e)) {
+				return true;
+			}
+		}
+		if (ys[s + 1] - y <= e) {
+			if (s + 2 < m && near(s + 1, left(s + 1, x, y), x, y, e)) {
+				return true;
+			}
+			if (nearLevel(s + 1, x, y, e)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	//Number of edges of slab s left of the point:
+	private int left(int s, double x, double y) {
+		int lo = slabStart[s];
+		int hi = slabStart[s + 1];
+		
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			int k = 4 * slabEdges[mid];
+			
+			if (Predicates.orient2d(edges[k], edges[k + 1], edges[k + 2], edges[k + 3], x, y) < 0.0) {
+				lo = mid + 1;
+			}else{
+				hi = mid;
+			}
+		}
+		
+		return lo - slabStart[s];
+	}
+	
+	private boolean near(int s, int left, double x, double y, double e) {
+		int k = slabStart[s] + left;
+		
+		return (k - 1 >= slabStart[s] && distance(slabEdges[k - 1], x, y) <= e) || 
+		       (k < slabStart[s + 1] && distance(slabEdges[k], x, y) <= e);
+	}
+	
+	private boolean nearLevel(int l, double x, double y, double e) {
+		if (Math.abs(y - ys[l]) > e) {
+			return false;
+		}
+		
+		//Last horizontal edge starting left of x + e:
+		int lo = levelStart[l];
+		int hi = levelStart[l + 1];
+		
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			
+			if (levelEdges[2 * mid] <= x + e) {
+				lo = mid + 1;
+			}else{
+				hi = mid;
+			}
+		}
+		
+		return lo > levelStart[l] && levelEdges[2 * lo - 1] >= x - e;
+	}
+	
+	private double distance(int edge, double x, double y) {
+		double x0 = edges[4 * edge], y0 = edges[4 * edge + 1];
+		double dx = edges[4 * edge + 2] - x0, dy = edges[4 * edge + 3] - y0;
+		double t = ((x - x0) * dx + (y - y0) * dy) / (dx * dx + dy * dy);
+		
+		t = Math.max(0.0, Math.min(1.0, t));
+		
+		return Math.hypot(x0 + t * dx - x, y0 + t * dy - y);
+	}
+	
+}
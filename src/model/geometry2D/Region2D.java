@@ -0,0 +1,96 @@
+package model.geometry2D;
+
+//A polygon with holes, the holes lie inside the outer polygon and don't overlap:
+public class Region2D {
+	private Polygon2D outer;
+	private Polygon2D[] holes;
+	
+	public Region2D(Polygon2D outer) {
+		this(outer, new Polygon2D[0]);
+	}
+	
+	public Region2D(Polygon2D outer, Polygon2D[] holes) {
+		if (outer == null || holes == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		for (Polygon2D h : holes) {
+			if (h == null) {
+				throw new IllegalArgumentException();
+			}
+		}
+		
+		this.outer = outer;
+		this.holes = holes;
+	}
+	
+	public Polygon2D outer() {
+		return outer;
+	}
+	
+	public Polygon2D[] holes() {
+		return holes;
+	}
+	
+	public int numberOfHoles() {
+		return holes.length;
+	}
+	
+	public double area() {
+		double s = outer.area();
+		
+		for (Polygon2D h : holes) {
+			s -= h.area();
+		}
+		
+		return s;
+	}
+	
+	//Points on the boundary of a hole are not contained:
+	public boolean contains(Vector2D r) {
+		if (r == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (!outer.contains(r)) {
+			return false;
+		}
+		
+		for (Polygon2D h : holes) {
+			if (h.contains(r)) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	public static Region2D[] regions(Polygon2D[] ps) {
+		if (ps == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Region2D[] rs = new Region2D[ps.length];
+		
+		for (int i = 0; i < ps.length; i++) {
+			rs[i] = new Region2D(ps[i]);
+		}
+		
+		return rs;
+	}
+	
+	public static double area(Region2D[] rs) {
+		if (rs == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double s = 0.0;
+		
+		for (Region2D r : rs) {
+			s += r.area();
+		}
+		
+		return s;
+	}
+	
+}
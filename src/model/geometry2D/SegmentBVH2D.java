@@ -0,0 +1,301 @@
+package model.geometry2D;
+
+import java.util.Arrays;
+
+//Bounding volume hierarchy over the edges of a polygon for distance queries. Nodes are stored depth
+//first in flat arrays like in TriangleBVH3D, an inner node's first child follows it and its second
+//child is at second[node]:
+public class SegmentBVH2D {
+	private static final int leafSize = 4;
+	
+	private Polygon2D polygon;
+	
+	//Edges in leaf order, ids[i] is the index in the polygon of the one at slot i, 
+	//xy holds the four coordinates of each slot:
+	private int[] ids;
+	private double[] xy;
+	
+	private int nodeCount;
+	private double[] bounds;
+	private int[] second;
+	private int[] start;
+	private int[] count;
+	
+	public SegmentBVH2D(Polygon2D polygon) {
+		if (polygon == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Vector2D[] points = polygon.points();
+		int n = points.length;
+		
+		this.polygon = polygon;
+		this.ids = new int[n];
+		this.xy = new double[4 * n];
+		
+		for (int i = 0; i < n; i++) {
+			Vector2D a = points[i];
+			Vector2D b = points[(i + 1) % n];
+			
+			ids[i] = i;
+			xy[4 * i] = a.x1();
+			xy[4 * i + 1] = a.x2();
+			xy[4 * i + 2] = b.x1();
+			xy[4 * i + 3] = b.x2();
+		}
+		
+		nodeCount = 0;
+		bounds = new double[4 * n];
+		second = new int[n];
+		start = new int[n];
+		count = new int[n];
+		
+		build(0, n);
+		
+		//Reorder the coordinates to the leaf order:
+		double[] packed = new double[4 * n];
+		
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(xy, 4 * ids[i], 
+			                 packed, 4 * i, 4);
+		}
+		
+		xy = packed;
+	}
+	
+	public Polygon2D getPolygon() {
+		return polygon;
+	}
+	
+	public int getNumberOfNodes() {
+		return nodeCount;
+	}
+	
+	//Splits the slots lo to hi at the median midpoint along the axis of largest extent:
+	private int build(int lo, int hi) {
+		int node = nodeCount;
+		
+		if (node == second.length) {
+			int capacity = 2 * node;
+			
+			bounds = Arrays.copyOf(bounds, 4 * capacity);
+			second = Arrays.copyOf(second, capacity);
+			start = Arrays.copyOf(start, capacity);
+			count = Arrays.copyOf(count, capacity);
+		}
+		
+		nodeCount++;
+		
+		double min1 = Double.POSITIVE_INFINITY, max1 = Double.NEGATIVE_INFINITY;
+		double min2 = Double.POSITIVE_INFINITY, max2 = Double.NEGATIVE_INFINITY;
+		
+		for (int i = lo; i < hi; i++) {
+			int j = 4 * ids[i];
+			
+			min1 = Math.min(min1, Math.min(xy[j], xy[j + 2]));
+			max1 = Math.max(max1, Math.max(xy[j], xy[j + 2]));
+			min2 = Math.min(min2, Math.min(xy[j + 1], xy[j + 3]));
+			max2 = Math.max(max2, Math.max(xy[j + 1], xy[j + 3]));
+		}
+		
+		bounds[4 * node] = min1;
+		bounds[4 * node + 1] = min2;
+		bounds[4 * node + 2] = max1;
+		bounds[4 * node + 3] = max2;
+		
+		if (hi - lo <= leafSize) {
+			second[node] = -1;
+			start[node] = lo;
+			count[node] = hi - lo;
+			
+			return node;
+		}
+		
+		int axis = (max1 - min1 >= max2 - min2) ? 0 : 1;
+		int mid = (lo + hi) >>> 1;
+		
+		select(lo, hi - 1, mid, axis);
+		
+		build(lo, mid);
+		
+		//Building may grow the arrays, so they are only indexed after it:
+		int r = build(mid, hi);
+		
+		second[node] = r;
+		start[node] = lo;
+		count[node] = 0;
+		
+		return node;
+	}
+	
+	//Twice the midpoint of the edge along axis:
+	private double center(int id, int axis) {
+		return xy[4 * id + axis] + xy[4 * id + 2 + axis];
+	}
+	
+	//Partitions the slots lo to hi (inclusive) so that slot k holds the k-th midpoint along axis:
+	private void select(int lo, int hi, int k, int axis) {
+		while (hi > lo) {
+			double pivot = center(ids[(lo + hi) >>> 1], axis);
+			int i = lo;
+			int j = hi;
+			
+			while (i <= j) {
+				while (center(ids[i], axis) < pivot) i++;
+				while (center(ids[j], axis) > pivot) j--;
+				
+				if (i <= j) {
+					int id = ids[i];
+					ids[i] = ids[j];
+					ids[j] = id;
+					i++;
+					j--;
+				}
+			}
+			
+			if (k <= j) {
+				hi = j;
+			}else if (k >= i) {
+				lo = i;
+			}else{
+				return;
+			}
+		}
+	}
+	
+	//Squared distance of the point to the box of the node:
+	private double boxDistance(int node, double x, double y) {
+		int b = 4 * node;
+		double dx = Math.max(0.0, Math.max(bounds[b] - x, x - bounds[b + 2]));
+		double dy = Math.max(0.0, Math.max(bounds[b + 1] - y, y - bounds[b + 3]));
+		
+		return dx * dx + dy * dy;
+	}
+	
+	//Squared distance of the point to the edge at slot i:
+	private double edgeDistance(int i, double x, double y) {
+		int j = 4 * i;
+		double x0 = xy[j], y0 = xy[j + 1];
+		double dx = xy[j + 2] - x0, dy = xy[j + 3] - y0;
+		double t = ((x - x0) * dx + (y - y0) * dy) / (dx * dx + dy * dy);
+		
+		t = Math.max(0.0, Math.min(1.0, t));
+		
+		double ex = x0 + t * dx - x;
+		double ey = y0 + t * dy - y;
+		
+		return ex * ex + ey * ey;
+	}
+	
+	//Slot of the nearest edge closer than sqrt(d2), -1 if there is none. result[0] is set to the squared
+	//distance, with stop the search ends at the first such edge:
+	private int nearest(double x, double y, double d2, boolean stop, int[] stack, double[] result) {
+		double best = d2;
+		int hit = -1;
+		int sp = 0;
+		
+		stack[sp++] = 0;
+		
+		while (sp > 0) {
+			int node = stack[--sp];
+			
+			if (boxDistance(node, x, y) > best) {
+				continue;
+			}
+			
+			if (second[node] < 0) {
+				for (int i = start[node]; i < start[node] + count[node]; i++) {
+					double d = edgeDistance(i, x, y);
+					
+					if (d <= best) {
+						best = d;
+						hit = i;
+						
+						if (stop) {
+							result[0] = best;
+							
+							return hit;
+						}
+					}
+				}
+				
+				continue;
+			}
+			
+			int l = node + 1;
+			int r = second[node];
+			
+			//The nearer child is pushed last and visited first:
+			if (boxDistance(l, x, y) <= boxDistance(r, x, y)) {
+				stack[sp++] = r;
+				stack[sp++] = l;
+			}else{
+				stack[sp++] = l;
+				stack[sp++] = r;
+			}
+		}
+		
+		result[0] = best;
+		
+		return hit;
+	}
+	
+	//Depth of the tree with median splits, for the traversal stacks:
+	private int[] stack() {
+		return new int[2 * (33 - Integer.numberOfLeadingZeros(nodeCount))];
+	}
+	
+	//Index of the nearest edge, from point i to point i + 1 of the polygon:
+	public int nearestEdge(double x, double y) {
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			throw new IllegalArgumentException();
+		}
+		
+		return ids[nearest(x, y, Double.POSITIVE_INFINITY, false, stack(), new double[1])];
+	}
+	
+	//Distance to the boundary of the polygon:
+	public double distance(double x, double y) {
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double[] result = new double[1];
+		
+		nearest(x, y, Double.POSITIVE_INFINITY, false, stack(), result);
+		
+		return Math.sqrt(result[0]);
+	}
+	
+	//Whether the boundary comes within distance d of the point, stops at the first edge that does:
+	public boolean withinDistance(double x, double y, double d) {
+		if (Double.isNaN(x) || Double.isNaN(y) || Double.isNaN(d)) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (d < 0.0) {
+			return false;
+		}
+		
+		return nearest(x, y, d * d, true, stack(), new double[1]) >= 0;
+	}
+	
+	//Distances to the boundary of count packed points (x, y per point), offsets count points:
+	public void distances(double[] points, int offset, int count, double[] result, int resultOffset) {
+		if (points == null || result == null || count < 0 || 
+			offset < 0 || 2 * (offset + count) > points.length || 
+			resultOffset < 0 || resultOffset + count > result.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		int[] stack = stack();
+		double[] d = new double[1];
+		
+		for (int i = 0; i < count; i++) {
+			nearest(points[2 * (offset + i)], points[2 * (offset + i) + 1], Double.POSITIVE_INFINITY, false, stack, d);
+			
+			result[resultOffset + i] = Math.sqrt(d[0]);
+		}
+	}
+	
+}
@@ -1,6 +1,7 @@
 package model.geometry2D;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import model.basis.*;
 
@@ -25,7 +26,7 @@ public class Triangle2D {
 	public Triangle2D(Vector2D[] p) {
 		if (p == null || p.length != 3 || 
 			Vector2D.equal(p[0], p[1]) || 
-			Vector2D.equal(p[0], p[2]) ||
+			Vector2D.equal(p[0], p[2]) || 
 			Vector2D.equal(p[1], p[2]) || 
 			Vector2D.collinear(Vector2D.subtract(p[1], p[0]), 
 			                   Vector2D.subtract(p[2], p[0]))) {
@@ -114,30 +115,15 @@ public class Triangle2D {
 	}
 	
 	public double area() {
-		return Math.abs(Geometry.round(0.5 * Vector2D.dotProcuct(ab(), ac())));
+		return Math.abs(Geometry.round(0.5 * Predicates.orient2d(a.x1(), a.x2(), 
+		                                                         b.x1(), b.x2(), 
+		                                                         c.x1(), c.x2())));
 	}
 	
 	public int orientation() {
-		double a1 = a.x1();
-		double a2 = a.x2();
-		double b1 = b.x1();
-		double b2 = b.x2();
-		double c1 = c.x1();
-		double c2 = c.x2();
-		
-		double d1 = a1 * b2 - a2 * b1;
-		double d2 = b1 * c2 - b2 * c1;
-		double d3 = c1 * a2 - c2 * a1;
-		
-		double signedArea = Geometry.round(0.5 * (d1 + d2 + d3));
-		
-		if (signedArea < 0.0) {
-			return -1;
-		}else if (signedArea > 0.0) {
-			return +1;
-		}else{
-			return 0;
-		}
+		return Predicates.sign(Predicates.orient2d(a.x1(), a.x2(), 
+		                                           b.x1(), b.x2(), 
+		                                           c.x1(), c.x2()));
 	}
 	
 	public boolean contains(Vector2D r) {
@@ -145,18 +131,26 @@ public class Triangle2D {
 			throw new IllegalArgumentException();
 		}
 		
-		Matrix m1 = Vector2D.matrixWithColumnVectors(ab(), ac()).inverse();
-		Matrix m2 = Vector2D.matrixWithColumnVector(ar(r));
-		Matrix m3 = Matrix.multiply(m1, m2);
-		
-		double t1 = Geometry.round(m3.entry(0, 0), 6);
-		double t2 = Geometry.round(m3.entry(1, 0), 6);
-		
-		if (t1 < 0.0 || t2 < 0.0) {
+		return contains(a.x1(), a.x2(), b.x1(), b.x2(), c.x1(), c.x2(), 
+		                r.x1(), r.x2(), Geometry.getTolerance().epsilon());
+	}
+	
+	//Barycentric coordinates of r as ratios of orientations, each at least -e:
+	public static boolean contains(double ax, double ay, 
+	                               double bx, double by, 
+	                               double cx, double cy, 
+	                               double rx, double ry, double e) {
+		double d = Predicates.orient2d(ax, ay, bx, by, cx, cy);
+		
+		if (d == 0.0) {
 			return false;
-		}else{
-			return t1 + t2 <= 1.0;
 		}
+		
+		double la = Predicates.orient2d(rx, ry, bx, by, cx, cy) / d;
+		double lb = Predicates.orient2d(ax, ay, rx, ry, cx, cy) / d;
+		double lc = Predicates.orient2d(ax, ay, bx, by, rx, ry) / d;
+		
+		return la >= -e && lb >= -e && lc >= -e;
 	}
 	
 	public double distance(Vector2D r) {
@@ -267,7 +261,7 @@ public class Triangle2D {
 			}else{
 				return new Triangle2D[] {t};
 			}
-			
+		
 		}else if (l.contains(t.b())) {
 			if (p2 != null && t.contains(p2)) {
 				return new Triangle2D[] {new Triangle2D(t.a(), t.b(), p2), 
@@ -275,7 +269,7 @@ public class Triangle2D {
 			}else{
 				return new Triangle2D[] {t};
 			}
-			
+		
 		}else if (l.contains(t.c())) {
 			if (p1 != null && t.contains(p1)) {
 				return new Triangle2D[] {new Triangle2D(t.a(), p1, t.c()), 
@@ -336,57 +330,434 @@ public class Triangle2D {
 		return u;
 	}
 	
+	//Intersection as triangles fanned out from the first vertex of the intersection polygon:
 	public static Triangle2D[] intersection(Triangle2D a, Triangle2D b) {
 		if (a == null || b == null) {
 			return null;
 		}
 		
-		Line2D ab = new Line2D(a.a(), a.ab());
-		Line2D bc = new Line2D(a.b(), a.bc());
-		Line2D ca = new Line2D(a.c(), a.ca());
+		Vector2D[] p = intersectionPoints(a, b, new double[clipBufferLength]);
 		
-		Triangle2D[] t = split(new Line2D[] {ab, bc, ca}, b);
-		Triangle2D[] u = new Triangle2D[0];
+		if (p == null) {
+			return new Triangle2D[0];
+		}
 		
-		for (int i = 0; i < t.length; i++) {
-			if (a.contains(t[i].center()) == false) {
+		return fan(p);
+	}
+	
+	//Triangles from p[0] to the edges of the convex polygon p, skipping those without area:
+	private static Triangle2D[] fan(Vector2D[] p) {
+		Triangle2D[] t = new Triangle2D[p.length - 2];
+		int m = 0;
+		
+		for (int i = 1; i < p.length - 1; i++) {
+			if (Vector2D.collinear(Vector2D.subtract(p[i], p[0]), 
+			                       Vector2D.subtract(p[i + 1], p[0]))) {
 				continue;
 			}
 			
-			int n = u.length;
+			t[m++] = new Triangle2D(p[0], p[i], p[i + 1]);
+		}
+		
+		return (m == t.length) ? t : Arrays.copyOf(t, m);
+	}
+	
+	//Intersection as a convex polygon, null if it has no area:
+	public static Polygon2D intersectionPolygon(Triangle2D a, Triangle2D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Vector2D[] p = intersectionPoints(a, b, new double[clipBufferLength]);
+		
+		if (p == null) {
+			return null;
+		}
+		
+		return new Polygon2D(p);
+	}
+	
+	//Vertices of the intersection without repeated points, null if it has no area:
+	private static Vector2D[] intersectionPoints(Triangle2D a, Triangle2D b, double[] buffer) {
+		int n = clip(a.a.x1(), a.a.x2(), a.b.x1(), a.b.x2(), a.c.x1(), a.c.x2(), 
+		             b.a.x1(), b.a.x2(), b.b.x1(), b.b.x2(), b.c.x1(), b.c.x2(), 
+		             buffer);
+		
+		if (n < 3) {
+			return null;
+		}
+		
+		double area = 0.0;
+		
+		for (int i = 0; i < n; i++) {
+			int j = (i + 1) % n;
 			
-			u = Arrays.copyOf(u, n + 1);
-			u[n] = t[i];
+			area += buffer[2 * i] * buffer[2 * j + 1] - buffer[2 * j] * buffer[2 * i + 1];
 		}
 		
-		return u;
+		if (Geometry.isZero(area / 2.0)) {
+			return null;
+		}
+		
+		Vector2D[] p = new Vector2D[n];
+		int m = 0;
+		
+		for (int i = 0; i < n; i++) {
+			Vector2D v = new Vector2D(buffer[2 * i], buffer[2 * i + 1]);
+			
+			if (m > 0 && Vector2D.equal(v, p[m - 1])) continue;
+			if (m > 0 && i == n - 1 && Vector2D.equal(v, p[0])) continue;
+			
+			p[m++] = v;
+		}
+		
+		if (m < 3) {
+			return null;
+		}
+		
+		return (m == n) ? p : Arrays.copyOf(p, m);
+	}
+	
+	//Length of the buffer clip() works in:
+	public static final int clipBufferLength = 32;
+	
+	//Sutherland-Hodgman clipping of the triangle d, e, f by the triangle a, b, c. Writes the 
+	//vertices of the convex intersection as x, y pairs to the start of result and returns 
+	//their number (at most 6). result must have clipBufferLength values, the rest of it is 
+	//used as scratch space, so the clipping itself allocates nothing:
+	public static int clip(double ax, double ay, double bx, double by, double cx, double cy, 
+	                       double dx, double dy, double ex, double ey, double fx, double fy, 
+	                       double[] result) {
+		if (result == null || result.length < clipBufferLength) {
+			throw new IllegalArgumentException();
+		}
+		
+		double o = Predicates.orient2d(ax, ay, bx, by, cx, cy);
+		
+		if (o == 0.0) {
+			return 0;
+		}
+		
+		//The clipping keeps what is left of the edges, so a, b, c need to be counterclockwise:
+		if (o < 0.0) {
+			double x = bx, y = by;
+			
+			bx = cx;
+			by = cy;
+			cx = x;
+			cy = y;
+		}
+		
+		int h = clipBufferLength / 2;
+		
+		result[0] = dx;
+		result[1] = dy;
+		result[2] = ex;
+		result[3] = ey;
+		result[4] = fx;
+		result[5] = fy;
+		
+		int n = 3;
+		
+		n = clip(ax, ay, bx, by, result, 0, n, h);
+		n = clip(bx, by, cx, cy, result, h, n, 0);
+		n = clip(cx, cy, ax, ay, result, 0, n, h);
+		
+		System.arraycopy(result, h, 
+		                 result, 0, 2 * n);
+		
+		return n;
+	}
+	
+	//Keeps the part of the polygon at from that lies left of p -> q and writes it to to:
+	private static int clip(double px, double py, double qx, double qy, 
+	                        double[] buffer, int from, int n, int to) {
+		if (n == 0) {
+			return 0;
+		}
+		
+		int max = clipBufferLength / 4;
+		int m = 0;
+		
+		double sx = buffer[from + 2 * (n - 1)];
+		double sy = buffer[from + 2 * (n - 1) + 1];
+		double ds = Predicates.orient2d(px, py, qx, qy, sx, sy);
+		
+		for (int i = 0; i < n; i++) {
+			double ex = buffer[from + 2 * i];
+			double ey = buffer[from + 2 * i + 1];
+			double de = Predicates.orient2d(px, py, qx, qy, ex, ey);
+			
+			//Crossing of s -> e with the line:
+			if (((de >= 0.0 && ds < 0.0) || (de < 0.0 && ds > 0.0)) && m < max) {
+				double f = ds / (ds - de);
+				
+				buffer[to + 2 * m] = sx + f * (ex - sx);
+				buffer[to + 2 * m + 1] = sy + f * (ey - sy);
+				m++;
+			}
+			
+			if (de >= 0.0 && m < max) {
+				buffer[to + 2 * m] = ex;
+				buffer[to + 2 * m + 1] = ey;
+				m++;
+			}
+			
+			sx = ex;
+			sy = ey;
+			ds = de;
+		}
+		
+		return m;
 	}
 	
 	public static Triangle2D[] intersection(Triangle2D[] a, Triangle2D[] b) {
+		return intersection(a, b, false);
+	}
+	
+	//Intersections of all pairs in order of a, then b. Only pairs whose bounding boxes overlap 
+	//in a uniform grid over b are clipped, with parallel the triangles of a are distributed 
+	//over the common fork-join pool:
+	public static Triangle2D[] intersection(Triangle2D[] a, Triangle2D[] b, boolean parallel) {
 		if (a == null || a.length == 0 || 
 			b == null || b.length == 0) {
 			throw new IllegalArgumentException();
 		}
 		
-		Triangle2D[] t = new Triangle2D[0];
+		Grid grid = new Grid(b);
+		Triangle2D[][] pieces = new Triangle2D[a.length][];
 		
-		for (int i = 0; i < a.length; i++) {
+		if (parallel && a.length > 1 && 
+			ForkJoinPool.getCommonPoolParallelism() > 1) {
+			ForkJoinPool.commonPool().invoke(new IntersectionTask(a, grid, pieces, 0, a.length));
+		}else{
+			intersection(a, grid, pieces, 0, a.length);
+		}
+		
+		int n = 0;
+		
+		for (Triangle2D[] t : pieces) {
+			n += t.length;
+		}
+		
+		Triangle2D[] t = new Triangle2D[n];
+		int k = 0;
+		
+		for (Triangle2D[] u : pieces) {
+			System.arraycopy(u, 0, 
+			                 t, k, 
+			                 u.length);
+			k += u.length;
+		}
+		
+		return t;
+	}
+	
+	//Intersections of the triangles i0 to i1 of a with the triangles in the grid:
+	private static void intersection(Triangle2D[] a, Grid grid, Triangle2D[][] pieces, int i0, int i1) {
+		double[] buffer = new double[clipBufferLength];
+		int[] candidates = new int[16];
+		double[] box = new double[4];
+		
+		for (int i = i0; i < i1; i++) {
 			Triangle2D f = a[i];
 			
-			for (int j = 0; j < b.length; j++) {
-				Triangle2D g = b[j];
+			candidates = grid.overlapping(f, box, candidates);
+			
+			int m = candidates[0];
+			Triangle2D[] t = new Triangle2D[0];
+			int n = 0;
+			
+			//Sorted to keep the order of b:
+			Arrays.sort(candidates, 1, m + 1);
+			
+			for (int c = 1; c <= m; c++) {
+				Vector2D[] p = intersectionPoints(f, grid.triangles[candidates[c]], buffer);
+				
+				if (p == null) {
+					continue;
+				}
 				
-				Triangle2D[] u = intersection(f, g);
+				Triangle2D[] u = fan(p);
 				
-				int n = t.length;
-				int m = u.length;
+				if (n + u.length > t.length) {
+					t = Arrays.copyOf(t, Math.max(2 * t.length, n + u.length));
+				}
 				
-				t = Arrays.copyOf(t, n + m);
-				System.arraycopy(u, 0, t, n, m);
+				System.arraycopy(u, 0, 
+				                 t, n, 
+				                 u.length);
+				n += u.length;
+			}
+			
+			pieces[i] = (n == t.length) ? t : Arrays.copyOf(t, n);
+		}
+	}
+	
+	//Bounding boxes of triangles binned into square cells, the triangles of cell k are 
+	//items[starts[k]] to items[starts[k + 1] - 1]:
+	private static class Grid {
+		private Triangle2D[] triangles;
+		private double[] boxes;
+		
+		private double minX, minY;
+		private double size;
+		private int columns, rows;
+		private int[] starts;
+		private int[] items;
+		
+		Grid(Triangle2D[] triangles) {
+			int n = triangles.length;
+			
+			this.triangles = triangles;
+			this.boxes = new double[4 * n];
+			
+			double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+			double extent = 0.0;
+			
+			minX = Double.POSITIVE_INFINITY;
+			minY = Double.POSITIVE_INFINITY;
+			
+			for (int i = 0; i < n; i++) {
+				box(triangles[i], boxes, 4 * i);
+				
+				minX = Math.min(minX, boxes[4 * i]);
+				minY = Math.min(minY, boxes[4 * i + 1]);
+				maxX = Math.max(maxX, boxes[4 * i + 2]);
+				maxY = Math.max(maxY, boxes[4 * i + 3]);
+				extent += (boxes[4 * i + 2] - boxes[4 * i]) + (boxes[4 * i + 3] - boxes[4 * i + 1]);
+			}
+			
+			//Cells about the size of a triangle, but not many more cells than triangles:
+			size = Math.max(extent / (2.0 * n), 
+			                Math.sqrt((maxX - minX) * (maxY - minY) / n));
+			
+			if (!(size > 0.0)) {
+				size = 1.0;
+			}
+			
+			columns = (int) Math.min((maxX - minX) / size, n) + 1;
+			rows = (int) Math.min((maxY - minY) / size, n) + 1;
+			
+			starts = new int[columns * rows + 1];
+			
+			for (int i = 0; i < n; i++) {
+				int x0 = column(boxes[4 * i]), x1 = column(boxes[4 * i + 2]);
+				int y0 = row(boxes[4 * i + 1]), y1 = row(boxes[4 * i + 3]);
+				
+				for (int y = y0; y <= y1; y++) {
+					for (int x = x0; x <= x1; x++) {
+						starts[y * columns + x + 1]++;
+					}
+				}
+			}
+			
+			for (int k = 0; k < columns * rows; k++) {
+				starts[k + 1] += starts[k];
+			}
+			
+			items = new int[starts[columns * rows]];
+			
+			int[] fill = Arrays.copyOf(starts, columns * rows);
+			
+			for (int i = 0; i < n; i++) {
+				int x0 = column(boxes[4 * i]), x1 = column(boxes[4 * i + 2]);
+				int y0 = row(boxes[4 * i + 1]), y1 = row(boxes[4 * i + 3]);
+				
+				for (int y = y0; y <= y1; y++) {
+					for (int x = x0; x <= x1; x++) {
+						items[fill[y * columns + x]++] = i;
+					}
+				}
 			}
 		}
 		
-		return t;
+		private int column(double x) {
+			return Math.max(0, Math.min(columns - 1, (int) ((x - minX) / size)));
+		}
+		
+		private int row(double y) {
+			return Math.max(0, Math.min(rows - 1, (int) ((y - minY) / size)));
+		}
+		
+		//Writes the number of triangles whose boxes overlap that of t to result[0] and their 
+		//indices after it, growing result as needed. A pair is only reported in the cell 
+		//that holds the lower left corner of the overlap, so no index appears twice. The box 
+		//of t is written to box, which needs a length of at least 4:
+		int[] overlapping(Triangle2D t, double[] box, int[] result) {
+			int m = 0;
+			
+			box(t, box, 0);
+			
+			int x0 = column(box[0]), x1 = column(box[2]);
+			int y0 = row(box[1]), y1 = row(box[3]);
+			
+			for (int y = y0; y <= y1; y++) {
+				for (int x = x0; x <= x1; x++) {
+					int k = y * columns + x;
+					
+					for (int l = starts[k]; l < starts[k + 1]; l++) {
+						int i = items[l];
+						int b = 4 * i;
+						
+						if (boxes[b] > box[2] || boxes[b + 2] < box[0] || 
+							boxes[b + 1] > box[3] || boxes[b + 3] < box[1]) {
+							continue;
+						}
+						
+						if (column(Math.max(box[0], boxes[b])) != x || 
+							row(Math.max(box[1], boxes[b + 1])) != y) {
+							continue;
+						}
+						
+						if (m + 1 == result.length) {
+							result = Arrays.copyOf(result, 2 * result.length);
+						}
+						
+						result[++m] = i;
+					}
+				}
+			}
+			
+			result[0] = m;
+			
+			return result;
+		}
+		
+		//Writes min x, min y, max x, max y:
+		private static void box(Triangle2D t, double[] box, int offset) {
+			box[offset] = Math.min(t.a.x1(), Math.min(t.b.x1(), t.c.x1()));
+			box[offset + 1] = Math.min(t.a.x2(), Math.min(t.b.x2(), t.c.x2()));
+			box[offset + 2] = Math.max(t.a.x1(), Math.max(t.b.x1(), t.c.x1()));
+			box[offset + 3] = Math.max(t.a.x2(), Math.max(t.b.x2(), t.c.x2()));
+		}
+	}
+	
+	@SuppressWarnings("serial")
+	private static class IntersectionTask extends RecursiveAction {
+		private Triangle2D[] a;
+		private Grid grid;
+		private Triangle2D[][] pieces;
+		private int i0, i1;
+		
+		IntersectionTask(Triangle2D[] a, Grid grid, Triangle2D[][] pieces, int i0, int i1) {
+			this.a = a;
+			this.grid = grid;
+			this.pieces = pieces;
+			this.i0 = i0;
+			this.i1 = i1;
+		}
+		
+		protected void compute() {
+			if (i1 - i0 <= 256) {
+				intersection(a, grid, pieces, i0, i1);
+			}else{
+				int im = (i0 + i1) >>> 1;
+				
+				invokeAll(new IntersectionTask(a, grid, pieces, i0, im), 
+				          new IntersectionTask(a, grid, pieces, im, i1));
+			}
+		}
 	}
 	
 }
@@ -44,6 +44,10 @@ public class Vector2D {
 		return new double[] {x1, x2};
 	}
 	
+	public MutableVector2D toMutableVector2D() {
+		return new MutableVector2D(x1, x2);
+	}
+	
 	public Vector2D neg() {
 		return new Vector2D(-x1, -x2);
 	}
@@ -57,7 +61,7 @@ public class Vector2D {
 	public Vector2D unit() {
 		double n = norm();
 		
-		if (n == 0.0) {
+		if (Geometry.isZero(n)) {
 			return null;
 		}else{
 			return new Vector2D(x1 / n, x2 / n);			
@@ -117,6 +121,33 @@ public class Vector2D {
 		                    k * a.x2());
 	}
 	
+	public static MutableVector2D add(Vector2D a, Vector2D b, MutableVector2D result) {
+		if (a == null || b == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.set(a.x1() + b.x1(), 
+		                  a.x2() + b.x2());
+	}
+	
+	public static MutableVector2D subtract(Vector2D m, Vector2D s, MutableVector2D result) {
+		if (m == null || s == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.set(m.x1() - s.x1(), 
+		                  m.x2() - s.x2());
+	}
+	
+	public static MutableVector2D multiply(double k, Vector2D a, MutableVector2D result) {
+		if (Double.isNaN(k) || a == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.set(k * a.x1(), 
+		                  k * a.x2());
+	}
+	
 	public static Vector2D average(Vector2D a, Vector2D b) {
 		if (a == null || b == null) {
 			throw new IllegalArgumentException();
@@ -221,9 +252,17 @@ public class Vector2D {
 			throw new IllegalArgumentException();
 		}
 		
-		Matrix m = Vector2D.matrixWithColumnVectors(a, b);
+		double an = a.norm();
+		double bn = b.norm();
+		
+		if (Geometry.isZero(an) || Geometry.isZero(bn)) {
+			return true;
+		}
+		
+		//det(a, b) = |a| |b| sin(angle):
+		double d = a.x1() * b.x2() - a.x2() * b.x1();
 		
-		return m.determinant() == 0.0;
+		return Geometry.isZero(d / (an * bn));
 	}
 	
 	public static boolean orthogonal(Vector2D a, Vector2D b) {
@@ -233,7 +272,7 @@ public class Vector2D {
 		
 		double ab = dotProcuct(a, b);
 		
-		return ab == 0.0;
+		return Geometry.isZero(ab);
 	}
 	
 	public static boolean equal(Vector2D a, Vector2D b) {
@@ -241,8 +280,8 @@ public class Vector2D {
 			throw new IllegalArgumentException();
 		}
 		
-		if (a.x1() != b.x1()) return false;
-		if (a.x2() != b.x2()) return false;
+		if (!Geometry.equal(a.x1(), b.x1())) return false;
+		if (!Geometry.equal(a.x2(), b.x2())) return false;
 		
 		return true;
 	}
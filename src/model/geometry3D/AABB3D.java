@@ -0,0 +1,200 @@
+package model.geometry3D;
+
+//Axis aligned bounding box, empty if a min is greater than the max:
+public class AABB3D {
+	public static final AABB3D empty = new AABB3D(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 
+	                                              Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+	
+	private double min1, min2, min3;
+	private double max1, max2, max3;
+	
+	public AABB3D(double min1, double min2, double min3, 
+	              double max1, double max2, double max3) {
+		if (Double.isNaN(min1) || Double.isNaN(min2) || Double.isNaN(min3) || 
+			Double.isNaN(max1) || Double.isNaN(max2) || Double.isNaN(max3)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.min1 = min1;
+		this.min2 = min2;
+		this.min3 = min3;
+		this.max1 = max1;
+		this.max2 = max2;
+		this.max3 = max3;
+	}
+	
+	public static AABB3D fromPoints(Vector3D[] points) {
+		if (points == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double min1 = Double.POSITIVE_INFINITY, max1 = Double.NEGATIVE_INFINITY;
+		double min2 = Double.POSITIVE_INFINITY, max2 = Double.NEGATIVE_INFINITY;
+		double min3 = Double.POSITIVE_INFINITY, max3 = Double.NEGATIVE_INFINITY;
+		
+		for (Vector3D p : points) {
+			min1 = Math.min(min1, p.x1());
+			max1 = Math.max(max1, p.x1());
+			min2 = Math.min(min2, p.x2());
+			max2 = Math.max(max2, p.x2());
+			min3 = Math.min(min3, p.x3());
+			max3 = Math.max(max3, p.x3());
+		}
+		
+		return new AABB3D(min1, min2, min3, max1, max2, max3);
+	}
+	
+	public double min1() {
+		return min1;
+	}
+	
+	public double min2() {
+		return min2;
+	}
+	
+	public double min3() {
+		return min3;
+	}
+	
+	public double max1() {
+		return max1;
+	}
+	
+	public double max2() {
+		return max2;
+	}
+	
+	public double max3() {
+		return max3;
+	}
+	
+	public boolean isEmpty() {
+		return min1 > max1 || min2 > max2 || min3 > max3;
+	}
+	
+	//Corners and center, null if empty:
+	public Vector3D min() {
+		if (isEmpty()) {
+			return null;
+		}
+		
+		return new Vector3D(min1, min2, min3);
+	}
+	
+	public Vector3D max() {
+		if (isEmpty()) {
+			return null;
+		}
+		
+		return new Vector3D(max1, max2, max3);
+	}
+	
+	public Vector3D center() {
+		if (isEmpty()) {
+			return null;
+		}
+		
+		return new Vector3D(min1 + (max1 - min1) / 2.0, 
+		                    min2 + (max2 - min2) / 2.0, 
+		                    min3 + (max3 - min3) / 2.0);
+	}
+	
+	//Length of the diagonal, 0 if empty:
+	public double diagonal() {
+		if (isEmpty()) {
+			return 0.0;
+		}
+		
+		double d1 = max1 - min1;
+		double d2 = max2 - min2;
+		double d3 = max3 - min3;
+		
+		return Math.sqrt(d1 * d1 + d2 * d2 + d3 * d3);
+	}
+	
+	public boolean contains(Vector3D r) {
+		if (r == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return r.x1() >= min1 && r.x1() <= max1 && 
+		       r.x2() >= min2 && r.x2() <= max2 && 
+		       r.x3() >= min3 && r.x3() <= max3;
+	}
+	
+	//Returns the t at which the ray enters the box or NaN if it misses it:
+	public double entry(Ray3D ray) {
+		if (ray == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (isEmpty()) {
+			return Double.NaN;
+		}
+		
+		return ray.entry(min1, min2, min3, max1, max2, max3, ray.tMax());
+	}
+	
+	public boolean intersects(Ray3D ray) {
+		return !Double.isNaN(entry(ray));
+	}
+	
+	public static boolean overlap(AABB3D a, AABB3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return a.min1 <= b.max1 && b.min1 <= a.max1 && 
+		       a.min2 <= b.max2 && b.min2 <= a.max2 && 
+		       a.min3 <= b.max3 && b.min3 <= a.max3;
+	}
+	
+	public static AABB3D union(AABB3D a, AABB3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (a.isEmpty()) return b;
+		if (b.isEmpty()) return a;
+		
+		return new AABB3D(Math.min(a.min1, b.min1), Math.min(a.min2, b.min2), Math.min(a.min3, b.min3), 
+		                  Math.max(a.max1, b.max1), Math.max(a.max2, b.max2), Math.max(a.max3, b.max3));
+	}
+	
+	public static AABB3D union(AABB3D a, Vector3D p) {
+		if (a == null || p == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (a.contains(p)) {
+			return a;
+		}
+		
+		return new AABB3D(Math.min(a.min1, p.x1()), Math.min(a.min2, p.x2()), Math.min(a.min3, p.x3()), 
+		                  Math.max(a.max1, p.x1()), Math.max(a.max2, p.x2()), Math.max(a.max3, p.x3()));
+	}
+	
+	//Box around the eight corners of a moved by the transform:
+	public static AABB3D transform(AABB3D a, Transform3D t) {
+		if (a == null || t == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (a.isEmpty()) {
+			return a;
+		}
+		
+		AABB3D b = empty;
+		
+		for (int i = 0; i < 8; i++) {
+			Vector3D p = new Vector3D(((i & 1) == 0) ? a.min1 : a.max1, 
+			                          ((i & 2) == 0) ? a.min2 : a.max2, 
+			                          ((i & 4) == 0) ? a.min3 : a.max3);
+			
+			b = union(b, t.applyToPoint(p));
+		}
+		
+		return b;
+	}
+	
+}
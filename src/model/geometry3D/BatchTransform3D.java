@@ -0,0 +1,325 @@
+package model.geometry3D;
+
+import model.basis.*;
+
+//Transforms of packed coordinate arrays (x1, x2, x3 per point) as used by MeshBuffer, and of 
+//separate x1, x2 and x3 arrays:
+public class BatchTransform3D {
+	
+	public static void transform(Matrix a, double[] xyz) {
+		if (a == null || xyz == null || xyz.length % 3 != 0) {
+			throw new IllegalArgumentException();
+		}
+		
+		transform(a, xyz, 0, xyz.length / 3, xyz, 0);
+	}
+	
+	//Accepts 3x3 linear and 4x4 homogeneous matrices:
+	public static void transform(Matrix a, double[] xyz, int offset, int count,
+	                             double[] result, int resultOffset) {
+		if (a == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (a.m() == 3 && a.n() == 3) {
+			transform(Matrix3.fromMatrix(a), xyz, offset, count, result, resultOffset);
+		}else if (a.m() == 4 && a.n() == 4) {
+			transform(Matrix4.fromMatrix(a), xyz, offset, count, result, resultOffset);
+		}else{
+			throw new IllegalArgumentException();
+		}
+	}
+	
+	//Offsets count points, result may be xyz if resultOffset == offset:
+	public static void transform(Matrix3 a, double[] xyz, int offset, int count,
+	                             double[] result, int resultOffset) {
+		if (a == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		checkRange(xyz, offset, count);
+		checkRange(result, resultOffset, count);
+		
+		double a11 = a.entry(0, 0), a12 = a.entry(0, 1), a13 = a.entry(0, 2);
+		double a21 = a.entry(1, 0), a22 = a.entry(1, 1), a23 = a.entry(1, 2);
+		double a31 = a.entry(2, 0), a32 = a.entry(2, 1), a33 = a.entry(2, 2);
+		
+		int s = 3 * offset;
+		int r = 3 * resultOffset;
+		int e = s + 3 * count;
+		
+		for (; s < e; s += 3, r += 3) {
+			double x1 = xyz[s];
+			double x2 = xyz[s + 1];
+			double x3 = xyz[s + 2];
+			
+			result[r] = a11 * x1 + a12 * x2 + a13 * x3;
+			result[r + 1] = a21 * x1 + a22 * x2 + a23 * x3;
+			result[r + 2] = a31 * x1 + a32 * x2 + a33 * x3;
+		}
+	}
+	
+	//Points get w = 1, projective matrices divide by the resulting w:
+	public static void transform(Matrix4 a, double[] xyz, int offset, int count,
+	                             double[] result, int resultOffset) {
+		if (a == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		checkRange(xyz, offset, count);
+		checkRange(result, resultOffset, count);
+		
+		double a11 = a.entry(0, 0), a12 = a.entry(0, 1), a13 = a.entry(0, 2), a14 = a.entry(0, 3);
+		double a21 = a.entry(1, 0), a22 = a.entry(1, 1), a23 = a.entry(1, 2), a24 = a.entry(1, 3);
+		double a31 = a.entry(2, 0), a32 = a.entry(2, 1), a33 = a.entry(2, 2), a34 = a.entry(2, 3);
+		double a41 = a.entry(3, 0), a42 = a.entry(3, 1), a43 = a.entry(3, 2), a44 = a.entry(3, 3);
+		
+		boolean affine = a41 == 0.0 && a42 == 0.0 && a43 == 0.0 && a44 == 1.0;
+		
+		int s = 3 * offset;
+		int r = 3 * resultOffset;
+		int e = s + 3 * count;
+		
+		if (affine) {
+			for (; s < e; s += 3, r += 3) {
+				double x1 = xyz[s];
+				double x2 = xyz[s + 1];
+				double x3 = xyz[s + 2];
+				
+				result[r] = a11 * x1 + a12 * x2 + a13 * x3 + a14;
+				result[r + 1] = a21 * x1 + a22 * x2 + a23 * x3 + a24;
+				result[r + 2] = a31 * x1 + a32 * x2 + a33 * x3 + a34;
+			}
+		}else{
+			for (; s < e; s += 3, r += 3) {
+				double x1 = xyz[s];
+				double x2 = xyz[s + 1];
+				double x3 = xyz[s + 2];
+				double w = a41 * x1 + a42 * x2 + a43 * x3 + a44;
+				
+				result[r] = (a11 * x1 + a12 * x2 + a13 * x3 + a14) / w;
+				result[r + 1] = (a21 * x1 + a22 * x2 + a23 * x3 + a24) / w;
+				result[r + 2] = (a31 * x1 + a32 * x2 + a33 * x3 + a34) / w;
+			}
+		}
+	}
+	
+	//Separate coordinate arrays, points offset to offset + count - 1 are transformed in place. 
+	//Each loop reads and writes the arrays with unit stride, which the JIT can vectorize:
+	public static void transform(Matrix3 a, double[] x1, double[] x2, double[] x3, int offset, int count) {
+		if (a == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		checkRange(x1, x2, x3, offset, count);
+		
+		double a11 = a.entry(0, 0), a12 = a.entry(0, 1), a13 = a.entry(0, 2);
+		double a21 = a.entry(1, 0), a22 = a.entry(1, 1), a23 = a.entry(1, 2);
+		double a31 = a.entry(2, 0), a32 = a.entry(2, 1), a33 = a.entry(2, 2);
+		
+		int e = offset + count;
+		
+		for (int i = offset; i < e; i++) {
+			double v1 = x1[i];
+			double v2 = x2[i];
+			double v3 = x3[i];
+			
+			x1[i] = a11 * v1 + a12 * v2 + a13 * v3;
+			x2[i] = a21 * v1 + a22 * v2 + a23 * v3;
+			x3[i] = a31 * v1 + a32 * v2 + a33 * v3;
+		}
+	}
+	
+	public static void transform(Matrix4 a, double[] x1, double[] x2, double[] x3, int offset, int count) {
+		if (a == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		checkRange(x1, x2, x3, offset, count);
+		
+		double a11 = a.entry(0, 0), a12 = a.entry(0, 1), a13 = a.entry(0, 2), a14 = a.entry(0, 3);
+		double a21 = a.entry(1, 0), a22 = a.entry(1, 1), a23 = a.entry(1, 2), a24 = a.entry(1, 3);
+		double a31 = a.entry(2, 0), a32 = a.entry(2, 1), a33 = a.entry(2, 2), a34 = a.entry(2, 3);
+		double a41 = a.entry(3, 0), a42 = a.entry(3, 1), a43 = a.entry(3, 2), a44 = a.entry(3, 3);
+		
+		boolean affine = a41 == 0.0 && a42 == 0.0 && a43 == 0.0 && a44 == 1.0;
+		
+		int e = offset + count;
+		
+		if (affine) {
+			for (int i = offset; i < e; i++) {
+				double v1 = x1[i];
+				double v2 = x2[i];
+				double v3 = x3[i];
+				
+				x1[i] = a11 * v1 + a12 * v2 + a13 * v3 + a14;
+				x2[i] = a21 * v1 + a22 * v2 + a23 * v3 + a24;
+				x3[i] = a31 * v1 + a32 * v2 + a33 * v3 + a34;
+			}
+		}else{
+			for (int i = offset; i < e; i++) {
+				double v1 = x1[i];
+				double v2 = x2[i];
+				double v3 = x3[i];
+				double w = a41 * v1 + a42 * v2 + a43 * v3 + a44;
+				
+				x1[i] = (a11 * v1 + a12 * v2 + a13 * v3 + a14) / w;
+				x2[i] = (a21 * v1 + a22 * v2 + a23 * v3 + a24) / w;
+				x3[i] = (a31 * v1 + a32 * v2 + a33 * v3 + a34) / w;
+			}
+		}
+	}
+	
+	//Copies count packed points from xyz at offset into the separate arrays at resultOffset:
+	public static void deinterleave(double[] xyz, int offset, int count, 
+	                                double[] x1, double[] x2, double[] x3, int resultOffset) {
+		checkRange(xyz, offset, count);
+		checkRange(x1, x2, x3, resultOffset, count);
+		
+		for (int i = 0; i < count; i++) {
+			int s = 3 * (offset + i);
+			
+			x1[resultOffset + i] = xyz[s];
+			x2[resultOffset + i] = xyz[s + 1];
+			x3[resultOffset + i] = xyz[s + 2];
+		}
+	}
+	
+	//Copies count points from the separate arrays at offset into xyz packed at resultOffset:
+	public static void interleave(double[] x1, double[] x2, double[] x3, int offset, int count, 
+	                              double[] xyz, int resultOffset) {
+		checkRange(x1, x2, x3, offset, count);
+		checkRange(xyz, resultOffset, count);
+		
+		for (int i = 0; i < count; i++) {
+			int r = 3 * (resultOffset + i);
+			
+			xyz[r] = x1[offset + i];
+			xyz[r + 1] = x2[offset + i];
+			xyz[r + 2] = x3[offset + i];
+		}
+	}
+	
+	public static void translate(Vector3D t, double[] xyz, int offset, int count) {
+		if (t == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		checkRange(xyz, offset, count);
+		
+		double t1 = t.x1();
+		double t2 = t.x2();
+		double t3 = t.x3();
+		
+		int e = 3 * (offset + count);
+		
+		for (int s = 3 * offset; s < e; s += 3) {
+			xyz[s] += t1;
+			xyz[s + 1] += t2;
+			xyz[s + 2] += t3;
+		}
+	}
+	
+	//x -> a(x - p) + p, e.g. for orbiting a model around its center:
+	public static void transformAboutPoint(Matrix3 a, Vector3D p, double[] xyz, int offset, int count) {
+		if (a == null || p == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		checkRange(xyz, offset, count);
+		
+		double a11 = a.entry(0, 0), a12 = a.entry(0, 1), a13 = a.entry(0, 2);
+		double a21 = a.entry(1, 0), a22 = a.entry(1, 1), a23 = a.entry(1, 2);
+		double a31 = a.entry(2, 0), a32 = a.entry(2, 1), a33 = a.entry(2, 2);
+		
+		double p1 = p.x1();
+		double p2 = p.x2();
+		double p3 = p.x3();
+		
+		int e = 3 * (offset + count);
+		
+		for (int s = 3 * offset; s < e; s += 3) {
+			double x1 = xyz[s] - p1;
+			double x2 = xyz[s + 1] - p2;
+			double x3 = xyz[s + 2] - p3;
+			
+			xyz[s] = a11 * x1 + a12 * x2 + a13 * x3 + p1;
+			xyz[s + 1] = a21 * x1 + a22 * x2 + a23 * x3 + p2;
+			xyz[s + 2] = a31 * x1 + a32 * x2 + a33 * x3 + p3;
+		}
+	}
+	
+	public static Vector3D[] transform(Matrix3 a, Vector3D[] vs) {
+		if (a == null || vs == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		int n = vs.length;
+		double[] xyz = pack(vs);
+		
+		transform(a, xyz, 0, n, xyz, 0);
+		
+		return unpack(xyz, n);
+	}
+	
+	public static Vector3D[] transform(Matrix4 a, Vector3D[] vs) {
+		if (a == null || vs == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		int n = vs.length;
+		double[] xyz = pack(vs);
+		
+		transform(a, xyz, 0, n, xyz, 0);
+		
+		return unpack(xyz, n);
+	}
+	
+	public static double[] pack(Vector3D[] vs) {
+		if (vs == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double[] xyz = new double[3 * vs.length];
+		
+		for (int i = 0; i < vs.length; i++) {
+			Vector3D v = vs[i];
+			
+			xyz[3 * i] = v.x1();
+			xyz[3 * i + 1] = v.x2();
+			xyz[3 * i + 2] = v.x3();
+		}
+		
+		return xyz;
+	}
+	
+	public static Vector3D[] unpack(double[] xyz, int count) {
+		checkRange(xyz, 0, count);
+		
+		Vector3D[] vs = new Vector3D[count];
+		
+		for (int i = 0; i < count; i++) {
+			vs[i] = new Vector3D(xyz[3 * i], xyz[3 * i + 1], xyz[3 * i + 2]);
+		}
+		
+		return vs;
+	}
+	
+	private static void checkRange(double[] xyz, int offset, int count) {
+		if (xyz == null || offset < 0 || count < 0 || 
+			3 * (offset + count) > xyz.length) {
+			throw new IllegalArgumentException();
+		}
+	}
+	
+	private static void checkRange(double[] x1, double[] x2, double[] x3, int offset, int count) {
+		if (x1 == null || x2 == null || x3 == null || 
+			offset < 0 || count < 0 || 
+			offset + count > x1.length || 
+			offset + count > x2.length || 
+			offset + count > x3.length) {
+			throw new IllegalArgumentException();
+		}
+	}
+	
+}
@@ -0,0 +1,146 @@
+package model.geometry3D;
+
+//Sphere around a set of points, cheaper to test against other spheres and rays than a box but looser:
+public class BoundingSphere3D {
+	private double c1, c2, c3;
+	private double radius;
+	
+	public BoundingSphere3D(double c1, double c2, double c3, double radius) {
+		if (Double.isNaN(c1) || Double.isNaN(c2) || Double.isNaN(c3) || 
+			Double.isNaN(radius) || radius < 0.0) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.c1 = c1;
+		this.c2 = c2;
+		this.c3 = c3;
+		this.radius = radius;
+	}
+	
+	//Centered on the bounding box of the points, which is within a factor of sqrt(3) of the smallest sphere:
+	public static BoundingSphere3D fromPoints(Vector3D[] points) {
+		if (points == null || points.length == 0) {
+			throw new IllegalArgumentException();
+		}
+		
+		AABB3D box = AABB3D.fromPoints(points);
+		
+		double c1 = box.min1() + (box.max1() - box.min1()) / 2.0;
+		double c2 = box.min2() + (box.max2() - box.min2()) / 2.0;
+		double c3 = box.min3() + (box.max3() - box.min3()) / 2.0;
+		double r2 = 0.0;
+		
+		for (Vector3D p : points) {
+			double d1 = p.x1() - c1;
+			double d2 = p.x2() - c2;
+			double d3 = p.x3() - c3;
+			
+			r2 = Math.max(r2, d1 * d1 + d2 * d2 + d3 * d3);
+		}
+		
+		return new BoundingSphere3D(c1, c2, c3, Math.sqrt(r2));
+	}
+	
+	public Vector3D center() {
+		return new Vector3D(c1, c2, c3);
+	}
+	
+	public double radius() {
+		return radius;
+	}
+	
+	public boolean contains(Vector3D r) {
+		if (r == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double d1 = r.x1() - c1;
+		double d2 = r.x2() - c2;
+		double d3 = r.x3() - c3;
+		
+		return d1 * d1 + d2 * d2 + d3 * d3 <= radius * radius;
+	}
+	
+	//Whether the ray passes through the sphere for some t in its range:
+	public boolean intersects(Ray3D ray) {
+		if (ray == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Vector3D o = ray.origin();
+		Vector3D d = ray.direction();
+		
+		double o1 = o.x1() - c1;
+		double o2 = o.x2() - c2;
+		double o3 = o.x3() - c3;
+		double d1 = d.x1(), d2 = d.x2(), d3 = d.x3();
+		
+		//|o + t d|^2 = r^2 as a t^2 + 2 b t + c = 0:
+		double a = d1 * d1 + d2 * d2 + d3 * d3;
+		double b = o1 * d1 + o2 * d2 + o3 * d3;
+		double c = o1 * o1 + o2 * o2 + o3 * o3 - radius * radius;
+		double disc = b * b - a * c;
+		
+		//Rays have a nonzero direction, so a > 0:
+		if (disc < 0.0) {
+			return false;
+		}
+		
+		double s = Math.sqrt(disc);
+		double t0 = (-b - s) / a;
+		double t1 = (-b + s) / a;
+		
+		return t0 <= ray.tMax() && t1 >= ray.tMin();
+	}
+	
+	public static boolean overlap(BoundingSphere3D a, BoundingSphere3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double d1 = a.c1 - b.c1;
+		double d2 = a.c2 - b.c2;
+		double d3 = a.c3 - b.c3;
+		double r = a.radius + b.radius;
+		
+		return d1 * d1 + d2 * d2 + d3 * d3 <= r * r;
+	}
+	
+	public static boolean overlap(BoundingSphere3D a, AABB3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (b.isEmpty()) {
+			return false;
+		}
+		
+		//Distance from the center to the closest point of the box:
+		double d1 = Math.max(0.0, Math.max(b.min1() - a.c1, a.c1 - b.max1()));
+		double d2 = Math.max(0.0, Math.max(b.min2() - a.c2, a.c2 - b.max2()));
+		double d3 = Math.max(0.0, Math.max(b.min3() - a.c3, a.c3 - b.max3()));
+		
+		return d1 * d1 + d2 * d2 + d3 * d3 <= a.radius * a.radius;
+	}
+	
+	//Smallest sphere around both spheres:
+	public static BoundingSphere3D union(BoundingSphere3D a, BoundingSphere3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double d1 = b.c1 - a.c1;
+		double d2 = b.c2 - a.c2;
+		double d3 = b.c3 - a.c3;
+		double d = Math.sqrt(d1 * d1 + d2 * d2 + d3 * d3);
+		
+		if (d + b.radius <= a.radius) return a;
+		if (d + a.radius <= b.radius) return b;
+		
+		double r = (d + a.radius + b.radius) / 2.0;
+		double f = (r - a.radius) / d;
+		
+		return new BoundingSphere3D(a.c1 + f * d1, a.c2 + f * d2, a.c3 + f * d3, r);
+	}
+	
+}
@@ -2,8 +2,6 @@ package model.geometry3D;
 
 import java.awt.geom.*;
 
-import model.basis.Matrix;
-
 public class Camera3D {
 	Vector3D center;
 	Vector3D hAxis;
@@ -11,12 +9,99 @@ public class Camera3D {
 	double eyeDistance;
 	double zoom;
 	
+	//center, hAxis and vAxis are baseCenter, baseHAxis and baseVAxis after the transform,
+	//the axes are additionally rotated by the orientation accumulated by orbit():
+	Vector3D baseCenter;
+	Vector3D baseHAxis;
+	Vector3D baseVAxis;
+	Transform3D transform;
+	Vector3D transformedHAxis;
+	Vector3D transformedVAxis;
+	Quaternion orientation;
+	
+	//Cache, cleared whenever center or the axes change:
+	private volatile Vector3D normal;
+	private volatile Vector3D eye;
+	private volatile Plane3D plane;
+	
+	//Incremented whenever center or the axes change, so data derived from the camera elsewhere 
+	//can be checked for staleness:
+	private volatile int version;
+	
 	public Camera3D(Vector3D center, Vector3D hAxis, Vector3D vAxis, double eyeDistance, double zoom) {
 		this.center = center;
 		this.hAxis = hAxis;
 		this.vAxis = vAxis;
 		this.eyeDistance = eyeDistance;
 		this.zoom = zoom;
+		
+		this.baseCenter = center;
+		this.baseHAxis = hAxis;
+		this.baseVAxis = vAxis;
+		this.transform = Transform3D.identity;
+		this.transformedHAxis = hAxis;
+		this.transformedVAxis = vAxis;
+		this.orientation = Quaternion.identity;
+	}
+	
+	public Transform3D getTransform() {
+		return transform;
+	}
+	
+	//Also resets the orientation:
+	public void setTransform(Transform3D transform) {
+		if (transform == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.transform = transform;
+		
+		center = transform.applyToPoint(baseCenter);
+		transformedHAxis = transform.applyToDirection(baseHAxis);
+		transformedVAxis = transform.applyToDirection(baseVAxis);
+		orientation = Quaternion.identity;
+		hAxis = transformedHAxis;
+		vAxis = transformedVAxis;
+		
+		clearCache();
+	}
+	
+	public Quaternion getOrientation() {
+		return orientation;
+	}
+	
+	public void rotate(Quaternion q) {
+		orbit(center, q);
+	}
+	
+	//Rotates the center about p and the axes by q. The axes are recomputed from 
+	//the normalized accumulated orientation, so they don't drift over many steps:
+	public void orbit(Vector3D p, Quaternion q) {
+		if (p == null || q == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Quaternion u = q.unit();
+		MutableVector3D c = new MutableVector3D(center).subtractInPlace(p);
+		
+		center = u.rotate(c).addInPlace(p).toVector3D();
+		orientation = Quaternion.multiply(u, orientation).unit();
+		hAxis = orientation.rotate(transformedHAxis);
+		vAxis = orientation.rotate(transformedVAxis);
+		
+		clearCache();
+	}
+	
+	private void clearCache() {
+		normal = null;
+		eye = null;
+		plane = null;
+		
+		version++;
+	}
+	
+	public int version() {
+		return version;
 	}
 	
 	public Vector3D center() {
@@ -40,29 +125,182 @@ public class Camera3D {
 	}
 	
 	public Vector3D normal() {
-		return Vector3D.crossProduct(hAxis, vAxis);
+		Vector3D v = normal;
+		
+		if (v == null) {
+			v = Vector3D.crossProduct(hAxis, vAxis);
+			normal = v;
+		}
+		
+		return v;
+	}
+	
+	public MutableVector3D normal(MutableVector3D result) {
+		if (result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.setFrom(normal());
 	}
 	
 	public Vector3D eye() {
-		return Vector3D.add(center, 
-		                    Vector3D.multiply(eyeDistance, normal().unit()));
+		Vector3D v = eye;
+		
+		if (v == null) {
+			v = Vector3D.add(center, 
+			                 Vector3D.multiply(eyeDistance, normal().unit()));
+			eye = v;
+		}
+		
+		return v;
+	}
+	
+	public MutableVector3D eye(MutableVector3D result) {
+		if (result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.setFrom(eye());
 	}
 	
 	public Plane3D plane() {
-		return new Plane3D(center, normal());
+		Plane3D p = plane;
+		
+		if (p == null) {
+			p = new Plane3D(center, normal());
+			plane = p;
+		}
+		
+		return p;
 	}
 	
 	public Point2D projectedPoint(Vector3D v) {
-		Line3D l = new Line3D(eye(), 
-		                      Vector3D.subtract(v, eye()));
-		Vector3D p = Plane3D.intersection(l, plane());
+		return projectedPoint(v, new Point2D.Double());
+	}
+	
+	public Point2D projectedPoint(Vector3D v, Point2D result) {
+		if (v == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double h1 = hAxis.x1();
+		double h2 = hAxis.x2();
+		double h3 = hAxis.x3();
+		double v1 = vAxis.x1();
+		double v2 = vAxis.x2();
+		double v3 = vAxis.x3();
+		
+		Vector3D n = normal();
+		Vector3D e = eye();
+		
+		double n1 = n.x1();
+		double n2 = n.x2();
+		double n3 = n.x3();
+		
+		double c1 = center.x1();
+		double c2 = center.x2();
+		double c3 = center.x3();
+		double e1 = e.x1();
+		double e2 = e.x2();
+		double e3 = e.x3();
+		double s1 = v.x1() - e1;
+		double s2 = v.x2() - e2;
+		double s3 = v.x3() - e3;
+		
+		double t = Plane3D.intersection(e1, e2, e3, 
+		                                s1, s2, s3, 
+		                                c1, c2, c3, 
+		                                n1, n2, n3);
+		
+		if (Double.isNaN(t)) {
+			throw new IllegalArgumentException();
+		}
+		
+		//Intersection relative to the center:
+		double p1 = e1 + t * s1 - c1;
+		double p2 = e2 + t * s2 - c2;
+		double p3 = e3 + t * s3 - c3;
+		
+		double x = (p1 * h1 + p2 * h2 + p3 * h3) / Math.sqrt(h1 * h1 + h2 * h2 + h3 * h3);
+		double y = (p1 * v1 + p2 * v2 + p3 * v3) / Math.sqrt(v1 * v1 + v2 * v2 + v3 * v3);
+		
+		result.setLocation(x * zoom, y * zoom);
 		
-		double x = Vector3D.projectionFactor(Vector3D.subtract(p, center), 
-		                                     hAxis.unit());
-		double y = Vector3D.projectionFactor(Vector3D.subtract(p, center), 
-		                                     vAxis.unit());
+		return result;
+	}
+	
+	//Ray from the eye through the point that projectedPoint maps to (x, y), starting at the
+	//camera plane, for picking:
+	public Ray3D ray(double x, double y) {
+		if (Double.isNaN(x) || Double.isNaN(y)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double h = hAxis.norm();
+		double v = vAxis.norm();
+		
+		Vector3D p = Vector3D.add(center, 
+		                          Vector3D.add(Vector3D.multiply(x / zoom / h, hAxis), 
+		                                       Vector3D.multiply(y / zoom / v, vAxis)));
+		Vector3D e = eye();
+		
+		return new Ray3D(e, Vector3D.subtract(p, e), 1.0, Double.POSITIVE_INFINITY);
+	}
+	
+	//Single precision projection of packed points to packed x, y pairs:
+	public void projectPoints(float[] xyz, int offset, int count, float[] result, int resultOffset) {
+		if (xyz == null || offset < 0 || count < 0 || 3 * (offset + count) > xyz.length || 
+			result == null || resultOffset < 0 || 2 * (resultOffset + count) > result.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		double h1 = hAxis.x1();
+		double h2 = hAxis.x2();
+		double h3 = hAxis.x3();
+		double v1 = vAxis.x1();
+		double v2 = vAxis.x2();
+		double v3 = vAxis.x3();
+		double hn = Math.sqrt(h1 * h1 + h2 * h2 + h3 * h3);
+		double vn = Math.sqrt(v1 * v1 + v2 * v2 + v3 * v3);
 		
-		return new Point2D.Double(x * zoom, y * zoom);
+		double n1 = h2 * v3 - h3 * v2;
+		double n2 = h3 * v1 - h1 * v3;
+		double n3 = h1 * v2 - h2 * v1;
+		double nn = Math.sqrt(n1 * n1 + n2 * n2 + n3 * n3);
+		double f = eyeDistance / nn;
+		
+		//The eye relative to the center is f * n:
+		float e1 = (float) (center.x1() + f * n1);
+		float e2 = (float) (center.x2() + f * n2);
+		float e3 = (float) (center.x3() + f * n3);
+		float pn = (float) (-f * nn * nn);
+		float eh = (float) (f * (n1 * h1 + n2 * h2 + n3 * h3) / hn * zoom);
+		float ev = (float) (f * (n1 * v1 + n2 * v2 + n3 * v3) / vn * zoom);
+		
+		float fn1 = (float) n1;
+		float fn2 = (float) n2;
+		float fn3 = (float) n3;
+		float fh1 = (float) (h1 / hn * zoom);
+		float fh2 = (float) (h2 / hn * zoom);
+		float fh3 = (float) (h3 / hn * zoom);
+		float fv1 = (float) (v1 / vn * zoom);
+		float fv2 = (float) (v2 / vn * zoom);
+		float fv3 = (float) (v3 / vn * zoom);
+		
+		int s = 3 * offset;
+		int r = 2 * resultOffset;
+		int e = s + 3 * count;
+		
+		for (; s < e; s += 3, r += 2) {
+			float s1 = xyz[s] - e1;
+			float s2 = xyz[s + 1] - e2;
+			float s3 = xyz[s + 2] - e3;
+			
+			float t = pn / (s1 * fn1 + s2 * fn2 + s3 * fn3);
+			
+			result[r] = eh + t * (s1 * fh1 + s2 * fh2 + s3 * fh3);
+			result[r + 1] = ev + t * (s1 * fv1 + s2 * fv2 + s3 * fv3);
+		}
 	}
 	
 	public static Camera3D offset(Camera3D camera, Vector3D offset) {
@@ -73,24 +311,25 @@ public class Camera3D {
 		                    camera.zoom());
 	}
 	
+	//Rotation about the z axis through v:
 	public static Camera3D rotateAboutPoint(Camera3D camera, Vector3D v, double alpha) {
-		double r_alpha = Math.toRadians(alpha);
-		
-		Matrix transform = new Matrix(new double[][] {new double[] {+Math.cos(r_alpha), -Math.sin(r_alpha), 0},
-													  new double[] {+Math.sin(r_alpha), +Math.cos(r_alpha), 0},
-													  new double[] {0, 0, 1}});
-		
-		Vector3D rc = Vector3D.subtract(camera.center(), v);
+		return rotateAboutPoint(camera, v, Quaternion.rotation_z_axis(alpha));
+	}
+	
+	public static Camera3D rotateAboutPoint(Camera3D camera, Vector3D v, Quaternion q) {
+		if (camera == null || v == null || q == null) {
+			throw new IllegalArgumentException();
+		}
 		
-		return null;
-		/*
-		rc = Vector3D.transform(transform, rc);
+		Camera3D c = new Camera3D(camera.center(), 
+		                          camera.hAxis(), 
+		                          camera.vAxis(), 
+		                          camera.eyeDistance(), 
+		                          camera.zoom());
 		
-		Vector3D nc = Vector3D.add(v, rc);
-		Vector3D nh = Vector3D.transform(transform, camera.hAxis());
-		Vector3D nv = Vector3D.transform(transform, camera.vAxis());
+		c.orbit(v, q);
 		
-		return new Camera3D(nc, nh, nv, camera.eyeDistance(), camera.zoom);*/
+		return c;
 	}
 	
 }
@@ -0,0 +1,146 @@
+package model.geometry3D;
+
+import java.util.Arrays;
+
+import model.basis.*;
+
+//Single precision copy of a MeshBuffer for projecting and sorting, triangle indices are the same:
+public class FloatMeshBuffer {
+	private int vertexCount;
+	private float[] xyz;
+	
+	private int triangleCount;
+	private int[] triangles;
+	private int[] triangleColors;
+	
+	private Color[] colors;
+	
+	public FloatMeshBuffer(MeshBuffer mesh) {
+		if (mesh == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		vertexCount = mesh.getNumberOfVertices();
+		triangleCount = mesh.getNumberOfTriangles();
+		
+		double[] v = mesh.xyz();
+		
+		xyz = new float[3 * vertexCount];
+		
+		for (int i = 0; i < 3 * vertexCount; i++) {
+			xyz[i] = (float) v[i];
+		}
+		
+		triangles = Arrays.copyOf(mesh.triangleIndices(), 3 * triangleCount);
+		triangleColors = Arrays.copyOf(mesh.triangleColorIndices(), triangleCount);
+		
+		colors = new Color[mesh.getNumberOfColors()];
+		
+		for (int i = 0; i < colors.length; i++) {
+			colors[i] = mesh.getColorAtIndex(i);
+		}
+	}
+	
+	public int getNumberOfVertices() {
+		return vertexCount;
+	}
+	
+	public int getNumberOfTriangles() {
+		return triangleCount;
+	}
+	
+	public float[] xyz() {
+		return xyz;
+	}
+	
+	public int[] triangleIndices() {
+		return triangles;
+	}
+	
+	public int[] triangleColorIndices() {
+		return triangleColors;
+	}
+	
+	public Color getColorAtIndex(int index) {
+		if (index < 0 || index >= colors.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		return colors[index];
+	}
+	
+	public float[] projectedPoints(Camera3D camera) {
+		if (camera == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		float[] result = new float[2 * vertexCount];
+		
+		camera.projectPoints(xyz, 0, vertexCount, result, 0);
+		
+		return result;
+	}
+	
+	//Triangles with their center behind the camera plane, farthest first:
+	public int[] visibleTriangles(Camera3D camera) {
+		if (camera == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Vector3D ev = camera.eye();
+		Vector3D cv = camera.center();
+		Vector3D nv = camera.normal();
+		
+		float e1 = (float) ev.x1();
+		float e2 = (float) ev.x2();
+		float e3 = (float) ev.x3();
+		float n1 = (float) nv.x1();
+		float n2 = (float) nv.x2();
+		float n3 = (float) nv.x3();
+		float pn = (float) ((cv.x1() - ev.x1()) * nv.x1() +
+		                    (cv.x2() - ev.x2()) * nv.x2() +
+		                    (cv.x3() - ev.x3()) * nv.x3());
+		
+		//Depth bits in the high and the index in the low word, sorting the keys sorts by depth:
+		long[] keys = new long[triangleCount];
+		int m = 0;
+		
+		for (int t = 0; t < triangleCount; t++) {
+			int a = 3 * triangles[3 * t];
+			int b = 3 * triangles[3 * t + 1];
+			int c = 3 * triangles[3 * t + 2];
+			
+			float s1 = (xyz[a] + xyz[b] + xyz[c]) / 3.0f - e1;
+			float s2 = (xyz[a + 1] + xyz[b + 1] + xyz[c + 1]) / 3.0f - e2;
+			float s3 = (xyz[a + 2] + xyz[b + 2] + xyz[c + 2]) / 3.0f - e3;
+			
+			float sn = s1 * n1 + s2 * n2 + s3 * n3;
+			
+			if (sn == 0.0f) {
+				continue;
+			}
+			
+			float ti = pn / sn;
+			
+			if (ti <= 0.0f || ti > 1.0f) {
+				continue;
+			}
+			
+			float d = (float) Math.sqrt(s1 * s1 + s2 * s2 + s3 * s3);
+			
+			keys[m] = ((long) Float.floatToIntBits(d) << 32) | t;
+			m++;
+		}
+		
+		Arrays.sort(keys, 0, m);
+		
+		int[] order = new int[m];
+		
+		for (int i = 0; i < m; i++) {
+			order[i] = (int) keys[m - 1 - i];
+		}
+		
+		return order;
+	}
+	
+}
@@ -6,7 +6,7 @@ public class Line3D {
 	private Vector3D r0, s;
 	
 	public Line3D(Vector3D r0, Vector3D s) {
-		if (r0 == null || s == null || s.norm() == 0.0) {
+		if (r0 == null || s == null || Geometry.isZero(s.norm())) {
 			throw new IllegalArgumentException();
 		}
 		
@@ -30,6 +30,14 @@ public class Line3D {
 		return Vector3D.add(r0, Vector3D.multiply(t, s));
 	}
 	
+	public MutableVector3D vector(double t, MutableVector3D result) {
+		if (Double.isNaN(t) || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.setFrom(r0).addInPlace(t, s);
+	}
+	
 	public boolean contains(Vector3D r) {
 		if (r == null) {
 			throw new IllegalArgumentException();
@@ -112,22 +120,59 @@ public class Line3D {
 			throw new IllegalArgumentException();
 		}
 		
-		if (Line3D.parallel(a, b)) {
+		double[] t = new double[2];
+		
+		if (!closestApproach(a.r0().x(), a.s().x(), 
+		                     b.r0().x(), b.s().x(), 
+		                     t)) {
 			return null;
 		}
 		
-		Matrix m = Vector3D.matrixWithColumnVectors(Vector3D.multiply(+1.0, a.s()), 
-		                                            Vector3D.multiply(-1.0, b.s()),
-		                                            Vector3D.subtract(b.r0(), a.r0()));
-		m = m.rref();
+		Vector3D p = a.vector(t[0]);
+		Vector3D q = b.vector(t[1]);
 		
-		if (m.entry(2, 2) == 1.0) {
+		//Skew lines pass each other at a distance:
+		if (!Geometry.isZero(Vector3D.subtract(p, q).norm())) {
 			return null;
 		}
 		
-		double t1 = m.entry(0, 2);
+		return p;
+	}
+	
+	//Writes the parameters of the closest points r + t1 * s and q + t2 * u 
+	//into t[0] and t[1]. Returns false if the lines are parallel:
+	public static boolean closestApproach(double[] r, double[] s, 
+	                                      double[] q, double[] u, 
+	                                      double[] t) {
+		if (r == null || r.length != 3 || 
+			s == null || s.length != 3 || 
+			q == null || q.length != 3 || 
+			u == null || u.length != 3 || 
+			t == null || t.length < 2) {
+			throw new IllegalArgumentException();
+		}
+		
+		double w1 = r[0] - q[0];
+		double w2 = r[1] - q[1];
+		double w3 = r[2] - q[2];
+		
+		double ss = s[0] * s[0] + s[1] * s[1] + s[2] * s[2];
+		double su = s[0] * u[0] + s[1] * u[1] + s[2] * u[2];
+		double uu = u[0] * u[0] + u[1] * u[1] + u[2] * u[2];
+		double sw = s[0] * w1 + s[1] * w2 + s[2] * w3;
+		double uw = u[0] * w1 + u[1] * w2 + u[2] * w3;
+		
+		double d = ss * uu - su * su;
+		
+		//d = |s|^2 |u|^2 sin(angle)^2, parallel if the sine vanishes:
+		if (d <= 0.0 || Geometry.isZero(Math.sqrt(d / (ss * uu)))) {
+			return false;
+		}
+		
+		t[0] = (su * uw - uu * sw) / d;
+		t[1] = (ss * uw - su * sw) / d;
 		
-		return a.vector(t1);
+		return true;
 	}
 	
 }
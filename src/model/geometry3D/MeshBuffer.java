@@ -0,0 +1,474 @@
+package model.geometry3D;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import model.basis.*;
+
+public class MeshBuffer {
+	//Vertices, packed as x1, x2, x3 per vertex:
+	private int vertexCount;
+	private double[] xyz;
+	
+	//Triangles, three vertex indices and one palette index per triangle:
+	private int triangleCount;
+	private int[] triangles;
+	private int[] triangleColors;
+	
+	//Polygons, ranges into polygonVertices and triangles:
+	private int polygonCount;
+	private int[] polygonVertices;
+	private int[] polygonVertexStarts;
+	private int[] polygonTriangleStarts;
+	private int[] polygonColors;
+	
+	private int colorCount;
+	private Color[] colors;
+	
+	public MeshBuffer() {
+		this(16, 16);
+	}
+	
+	public MeshBuffer(int vertexCapacity, int triangleCapacity) {
+		if (vertexCapacity < 1 || triangleCapacity < 1) {
+			throw new IllegalArgumentException();
+		}
+		
+		vertexCount = 0;
+		xyz = new double[3 * vertexCapacity];
+		
+		triangleCount = 0;
+		triangles = new int[3 * triangleCapacity];
+		triangleColors = new int[triangleCapacity];
+		
+		polygonCount = 0;
+		polygonVertices = new int[0];
+		polygonVertexStarts = new int[] {0};
+		polygonTriangleStarts = new int[] {0};
+		polygonColors = new int[0];
+		
+		colorCount = 0;
+		colors = new Color[0];
+	}
+	
+	//Copy that can be transformed without changing mesh:
+	public MeshBuffer(MeshBuffer mesh) {
+		if (mesh == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		vertexCount = mesh.vertexCount;
+		xyz = Arrays.copyOf(mesh.xyz, mesh.xyz.length);
+		
+		triangleCount = mesh.triangleCount;
+		triangles = Arrays.copyOf(mesh.triangles, mesh.triangles.length);
+		triangleColors = Arrays.copyOf(mesh.triangleColors, mesh.triangleColors.length);
+		
+		polygonCount = mesh.polygonCount;
+		polygonVertices = Arrays.copyOf(mesh.polygonVertices, mesh.polygonVertices.length);
+		polygonVertexStarts = Arrays.copyOf(mesh.polygonVertexStarts, mesh.polygonVertexStarts.length);
+		polygonTriangleStarts = Arrays.copyOf(mesh.polygonTriangleStarts, mesh.polygonTriangleStarts.length);
+		polygonColors = Arrays.copyOf(mesh.polygonColors, mesh.polygonColors.length);
+		
+		colorCount = mesh.colorCount;
+		colors = Arrays.copyOf(mesh.colors, mesh.colors.length);
+	}
+	
+	public static MeshBuffer fromPolygons(Polygon3D[] ps) {
+		if (ps == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		int v = 0;
+		
+		for (Polygon3D p : ps) {
+			v += p.getNumberOfPoints();
+		}
+		
+		MeshBuffer mesh = new MeshBuffer(Math.max(v, 1), Math.max(v, 1));
+		
+		//Points shared by reference between polygons are stored once:
+		IdentityHashMap<Vector3D, Integer> indices = new IdentityHashMap<Vector3D, Integer>();
+		
+		for (Polygon3D p : ps) {
+			mesh.addPolygon(p, indices);
+		}
+		
+		return mesh;
+	}
+	
+	//Triangles in the given order, without polygons:
+	public static MeshBuffer fromTriangles(Triangle3D[] ts) {
+		if (ts == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		MeshBuffer mesh = new MeshBuffer(Math.max(3 * ts.length, 1), Math.max(ts.length, 1));
+		
+		//Points shared by reference between triangles are stored once:
+		IdentityHashMap<Vector3D, Integer> indices = new IdentityHashMap<Vector3D, Integer>();
+		
+		for (Triangle3D t : ts) {
+			mesh.addTriangle(mesh.indexOf(t.a(), indices), 
+			                 mesh.indexOf(t.b(), indices), 
+			                 mesh.indexOf(t.c(), indices), 
+			                 mesh.addColor(t.getColor()));
+		}
+		
+		return mesh;
+	}
+	
+	public int getNumberOfVertices() {
+		return vertexCount;
+	}
+	
+	public int getNumberOfTriangles() {
+		return triangleCount;
+	}
+	
+	public int getNumberOfPolygons() {
+		return polygonCount;
+	}
+	
+	public int getNumberOfColors() {
+		return colorCount;
+	}
+	
+	//Backing arrays, only the first 3 * getNumberOfVertices() (resp. triangles) entries are used:
+	public double[] xyz() {
+		return xyz;
+	}
+	
+	public int[] triangleIndices() {
+		return triangles;
+	}
+	
+	public int[] triangleColorIndices() {
+		return triangleColors;
+	}
+	
+	public double x1(int vertex) {
+		checkVertex(vertex);
+		
+		return xyz[3 * vertex];
+	}
+	
+	public double x2(int vertex) {
+		checkVertex(vertex);
+		
+		return xyz[3 * vertex + 1];
+	}
+	
+	public double x3(int vertex) {
+		checkVertex(vertex);
+		
+		return xyz[3 * vertex + 2];
+	}
+	
+	public Vector3D getVertex(int vertex) {
+		checkVertex(vertex);
+		
+		return new Vector3D(xyz[3 * vertex],
+		                    xyz[3 * vertex + 1],
+		                    xyz[3 * vertex + 2]);
+	}
+	
+	public MutableVector3D getVertex(int vertex, MutableVector3D result) {
+		checkVertex(vertex);
+		
+		if (result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.set(xyz[3 * vertex],
+		                  xyz[3 * vertex + 1],
+		                  xyz[3 * vertex + 2]);
+	}
+	
+	public Color getColorAtIndex(int index) {
+		if (index < 0 || index >= colorCount) {
+			throw new IllegalArgumentException();
+		}
+		
+		return colors[index];
+	}
+	
+	//k = 0, 1, 2 for the corners a, b, c:
+	public int triangleVertex(int triangle, int k) {
+		checkTriangle(triangle);
+		
+		if (k < 0 || k > 2) {
+			throw new IllegalArgumentException();
+		}
+		
+		return triangles[3 * triangle + k];
+	}
+	
+	public int triangleColor(int triangle) {
+		checkTriangle(triangle);
+		
+		return triangleColors[triangle];
+	}
+	
+	public int polygonSize(int polygon) {
+		checkPolygon(polygon);
+		
+		return polygonVertexStarts[polygon + 1] - polygonVertexStarts[polygon];
+	}
+	
+	public int polygonVertex(int polygon, int k) {
+		checkPolygon(polygon);
+		
+		int s = polygonVertexStarts[polygon];
+		
+		if (k < 0 || s + k >= polygonVertexStarts[polygon + 1]) {
+			throw new IllegalArgumentException();
+		}
+		
+		return polygonVertices[s + k];
+	}
+	
+	public int polygonColor(int polygon) {
+		checkPolygon(polygon);
+		
+		return polygonColors[polygon];
+	}
+	
+	public int polygonFirstTriangle(int polygon) {
+		checkPolygon(polygon);
+		
+		return polygonTriangleStarts[polygon];
+	}
+	
+	public int polygonTriangleCount(int polygon) {
+		checkPolygon(polygon);
+		
+		return polygonTriangleStarts[polygon + 1] - polygonTriangleStarts[polygon];
+	}
+	
+	public int addVertex(double x1, double x2, double x3) {
+		if (Double.isNaN(x1) || 
+			Double.isNaN(x2) || 
+			Double.isNaN(x3)) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (3 * vertexCount == xyz.length) {
+			xyz = Arrays.copyOf(xyz, 2 * xyz.length);
+		}
+		
+		int i = 3 * vertexCount;
+		
+		xyz[i] = x1;
+		xyz[i + 1] = x2;
+		xyz[i + 2] = x3;
+		
+		return vertexCount++;
+	}
+	
+	public int addVertex(Vector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return addVertex(v.x1(), v.x2(), v.x3());
+	}
+	
+	public void setVertex(int vertex, double x1, double x2, double x3) {
+		checkVertex(vertex);
+		
+		if (Double.isNaN(x1) || 
+			Double.isNaN(x2) || 
+			Double.isNaN(x3)) {
+			throw new IllegalArgumentException();
+		}
+		
+		xyz[3 * vertex] = x1;
+		xyz[3 * vertex + 1] = x2;
+		xyz[3 * vertex + 2] = x3;
+	}
+	
+	//Returns the palette index, equal colors share an entry:
+	public int addColor(Color color) {
+		if (color == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		for (int i = 0; i < colorCount; i++) {
+			Color c = colors[i];
+			
+			if (c == color || 
+				(c.r() == color.r() && c.g() == color.g() && c.b() == color.b())) {
+				return i;
+			}
+		}
+		
+		colors = Arrays.copyOf(colors, colorCount + 1);
+		colors[colorCount] = color;
+		
+		return colorCount++;
+	}
+	
+	public int addTriangle(int a, int b, int c, int color) {
+		checkVertex(a);
+		checkVertex(b);
+		checkVertex(c);
+		
+		if (color < 0 || color >= colorCount) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (triangleCount == triangleColors.length) {
+			triangles = Arrays.copyOf(triangles, 6 * triangleCount);
+			triangleColors = Arrays.copyOf(triangleColors, 2 * triangleCount);
+		}
+		
+		int i = 3 * triangleCount;
+		
+		triangles[i] = a;
+		triangles[i + 1] = b;
+		triangles[i + 2] = c;
+		triangleColors[triangleCount] = color;
+		
+		return triangleCount++;
+	}
+	
+	public int addTriangle(Triangle3D t) {
+		if (t == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		int a = addVertex(t.a());
+		int b = addVertex(t.b());
+		int c = addVertex(t.c());
+		
+		return addTriangle(a, b, c, addColor(t.getColor()));
+	}
+	
+	public int addPolygon(Polygon3D p) {
+		if (p == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return addPolygon(p, new IdentityHashMap<Vector3D, Integer>());
+	}
+	
+	private int addPolygon(Polygon3D p, IdentityHashMap<Vector3D, Integer> indices) {
+		int n = p.getNumberOfPoints();
+		int s = polygonVertexStarts[polygonCount];
+		int color = addColor(p.getColor());
+		
+		if (s + n > polygonVertices.length) {
+			polygonVertices = Arrays.copyOf(polygonVertices, Math.max(s + n, 2 * polygonVertices.length));
+		}
+		if (polygonCount == polygonColors.length) {
+			int k = Math.max(polygonCount + 1, 2 * polygonCount);
+			
+			polygonVertexStarts = Arrays.copyOf(polygonVertexStarts, k + 1);
+			polygonTriangleStarts = Arrays.copyOf(polygonTriangleStarts, k + 1);
+			polygonColors = Arrays.copyOf(polygonColors, k);
+		}
+		
+		for (int i = 0; i < n; i++) {
+			polygonVertices[s + i] = indexOf(p.getPointAtIndex(i), indices);
+		}
+		
+		for (Triangle3D t : p.getTriangles()) {
+			addTriangle(indexOf(t.a(), indices),
+			            indexOf(t.b(), indices),
+			            indexOf(t.c(), indices),
+			            color);
+		}
+		
+		polygonVertexStarts[polygonCount + 1] = s + n;
+		polygonTriangleStarts[polygonCount + 1] = triangleCount;
+		polygonColors[polygonCount] = color;
+		
+		return polygonCount++;
+	}
+	
+	private int indexOf(Vector3D v, IdentityHashMap<Vector3D, Integer> indices) {
+		Integer i = indices.get(v);
+		
+		if (i == null) {
+			i = addVertex(v);
+			indices.put(v, i);
+		}
+		
+		return i;
+	}
+	
+	public void transform(Matrix3 a) {
+		BatchTransform3D.transform(a, xyz, 0, vertexCount, xyz, 0);
+	}
+	
+	public void transform(Matrix4 a) {
+		BatchTransform3D.transform(a, xyz, 0, vertexCount, xyz, 0);
+	}
+	
+	public void translate(Vector3D t) {
+		BatchTransform3D.translate(t, xyz, 0, vertexCount);
+	}
+	
+	public void transformAboutPoint(Matrix3 a, Vector3D p) {
+		BatchTransform3D.transformAboutPoint(a, p, xyz, 0, vertexCount);
+	}
+	
+	//Releases unused capacity of the backing arrays:
+	public void trim() {
+		xyz = Arrays.copyOf(xyz, Math.max(3 * vertexCount, 3));
+		triangles = Arrays.copyOf(triangles, Math.max(3 * triangleCount, 3));
+		triangleColors = Arrays.copyOf(triangleColors, Math.max(triangleCount, 1));
+		polygonVertices = Arrays.copyOf(polygonVertices, polygonVertexStarts[polygonCount]);
+		polygonVertexStarts = Arrays.copyOf(polygonVertexStarts, polygonCount + 1);
+		polygonTriangleStarts = Arrays.copyOf(polygonTriangleStarts, polygonCount + 1);
+		polygonColors = Arrays.copyOf(polygonColors, polygonCount);
+	}
+	
+	public MeshTriangle3D triangle(int triangle) {
+		return new MeshTriangle3D(this, triangle);
+	}
+	
+	public MeshPolygon3D polygon(int polygon) {
+		return new MeshPolygon3D(this, polygon);
+	}
+	
+	//Materializes the triangles, corners with equal vertex index share one Vector3D:
+	public Triangle3D[] toTriangles() {
+		Vector3D[] vs = new Vector3D[vertexCount];
+		Triangle3D[] ts = new Triangle3D[triangleCount];
+		
+		for (int t = 0; t < triangleCount; t++) {
+			int a = triangles[3 * t];
+			int b = triangles[3 * t + 1];
+			int c = triangles[3 * t + 2];
+			
+			if (vs[a] == null) vs[a] = getVertex(a);
+			if (vs[b] == null) vs[b] = getVertex(b);
+			if (vs[c] == null) vs[c] = getVertex(c);
+			
+			ts[t] = new Triangle3D(vs[a], vs[b], vs[c], colors[triangleColors[t]]);
+		}
+		
+		return ts;
+	}
+	
+	private void checkVertex(int vertex) {
+		if (vertex < 0 || vertex >= vertexCount) {
+			throw new IllegalArgumentException();
+		}
+	}
+	
+	private void checkTriangle(int triangle) {
+		if (triangle < 0 || triangle >= triangleCount) {
+			throw new IllegalArgumentException();
+		}
+	}
+	
+	private void checkPolygon(int polygon) {
+		if (polygon < 0 || polygon >= polygonCount) {
+			throw new IllegalArgumentException();
+		}
+	}
+	
+}
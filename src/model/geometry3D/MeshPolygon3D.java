@@ -0,0 +1,83 @@
+package model.geometry3D;
+
+import model.basis.*;
+
+//A view of one polygon of a MeshBuffer, moveTo() reuses it for another:
+public class MeshPolygon3D {
+	private MeshBuffer mesh;
+	private int index;
+	
+	public MeshPolygon3D(MeshBuffer mesh, int index) {
+		if (mesh == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.mesh = mesh;
+		
+		moveTo(index);
+	}
+	
+	public MeshPolygon3D moveTo(int index) {
+		if (index < 0 || index >= mesh.getNumberOfPolygons()) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.index = index;
+		
+		return this;
+	}
+	
+	public MeshBuffer getMesh() {
+		return mesh;
+	}
+	
+	public int getIndex() {
+		return index;
+	}
+	
+	public int getNumberOfPoints() {
+		return mesh.polygonSize(index);
+	}
+	
+	public int vertexAtIndex(int k) {
+		return mesh.polygonVertex(index, k);
+	}
+	
+	public Vector3D getPointAtIndex(int k) {
+		return mesh.getVertex(mesh.polygonVertex(index, k));
+	}
+	
+	public Color getColor() {
+		return mesh.getColorAtIndex(mesh.polygonColor(index));
+	}
+	
+	public int getNumberOfTriangles() {
+		return mesh.polygonTriangleCount(index);
+	}
+	
+	public MeshTriangle3D getTriangleAtIndex(int k, MeshTriangle3D result) {
+		if (k < 0 || k >= mesh.polygonTriangleCount(index)) {
+			throw new IllegalArgumentException();
+		}
+		
+		int t = mesh.polygonFirstTriangle(index) + k;
+		
+		if (result == null) {
+			return new MeshTriangle3D(mesh, t);
+		}else{
+			return result.moveTo(t);
+		}
+	}
+	
+	public Polygon3D toPolygon3D() {
+		int n = getNumberOfPoints();
+		Vector3D[] points = new Vector3D[n];
+		
+		for (int k = 0; k < n; k++) {
+			points[k] = getPointAtIndex(k);
+		}
+		
+		return new Polygon3D(points, getColor());
+	}
+	
+}
@@ -0,0 +1,107 @@
+package model.geometry3D;
+
+import model.basis.*;
+
+//A view of one triangle of a MeshBuffer, moveTo() reuses it for another:
+public class MeshTriangle3D {
+	private MeshBuffer mesh;
+	private int index;
+	private int a, b, c;
+	
+	public MeshTriangle3D(MeshBuffer mesh, int index) {
+		if (mesh == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.mesh = mesh;
+		
+		moveTo(index);
+	}
+	
+	public MeshTriangle3D moveTo(int index) {
+		int[] ts = mesh.triangleIndices();
+		
+		if (index < 0 || index >= mesh.getNumberOfTriangles()) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.index = index;
+		this.a = ts[3 * index];
+		this.b = ts[3 * index + 1];
+		this.c = ts[3 * index + 2];
+		
+		return this;
+	}
+	
+	public MeshBuffer getMesh() {
+		return mesh;
+	}
+	
+	public int getIndex() {
+		return index;
+	}
+	
+	public int vertexA() {
+		return a;
+	}
+	
+	public int vertexB() {
+		return b;
+	}
+	
+	public int vertexC() {
+		return c;
+	}
+	
+	public Vector3D a() {
+		return mesh.getVertex(a);
+	}
+	
+	public Vector3D b() {
+		return mesh.getVertex(b);
+	}
+	
+	public Vector3D c() {
+		return mesh.getVertex(c);
+	}
+	
+	public Color getColor() {
+		return mesh.getColorAtIndex(mesh.triangleColor(index));
+	}
+	
+	public MutableVector3D getCenter(MutableVector3D result) {
+		if (result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double[] v = mesh.xyz();
+		
+		return result.set((v[3 * a] + v[3 * b] + v[3 * c]) / 3.0,
+		                  (v[3 * a + 1] + v[3 * b + 1] + v[3 * c + 1]) / 3.0,
+		                  (v[3 * a + 2] + v[3 * b + 2] + v[3 * c + 2]) / 3.0);
+	}
+	
+	public MutableVector3D getNormalVector(MutableVector3D result) {
+		if (result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double[] v = mesh.xyz();
+		
+		double ab1 = v[3 * b] - v[3 * a];
+		double ab2 = v[3 * b + 1] - v[3 * a + 1];
+		double ab3 = v[3 * b + 2] - v[3 * a + 2];
+		double ac1 = v[3 * c] - v[3 * a];
+		double ac2 = v[3 * c + 1] - v[3 * a + 1];
+		double ac3 = v[3 * c + 2] - v[3 * a + 2];
+		
+		return result.set(ab2 * ac3 - ab3 * ac2,
+		                  ab3 * ac1 - ab1 * ac3,
+		                  ab1 * ac2 - ab2 * ac1);
+	}
+	
+	public Triangle3D toTriangle3D() {
+		return new Triangle3D(a(), b(), c(), getColor());
+	}
+	
+}
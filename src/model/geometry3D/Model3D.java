@@ -5,29 +5,54 @@ import java.util.*;
 public class Model3D {
 	private Polygon3D[] polygons;
 	private Camera3D[] cameras;
+	private Transform3D transform;
+	private boolean singlePrecision;
+	
+	//Bounds in world coordinates, grown as polygons are added and null after a transform change:
+	private AABB3D bounds;
+	private BoundingSphere3D sphere;
+	
+	//Triangulated and split polygons in model coordinates and their mesh. An affine transform 
+	//doesn't change which triangles intersect, so these are kept when only the transform changes:
+	private Triangle3D[] splitTriangles;
+	private MeshBuffer splitMesh;
 	
 	//Cache:
 	private boolean cacheIsValid;
-	private Vector3D min;
-	private Vector3D max;
-	private Vector3D center;
 	private Triangle3D[] preparedTriangles;
+	private MeshBuffer meshBuffer;
+	private FloatMeshBuffer floatMeshBuffer;
+	private TriangleBVH3D triangleBVH;
 	
 	private boolean[] cacheForCamerasIsValid;
+	private int[] cameraVersions;
 	private Triangle3D[][] preparedTrianglesForCameras;
+	private int[][] preparedOrdersForCameras;
+	private float[][] projectedPointsForCameras;
 	
 	public Model3D() {
 		polygons = new Polygon3D[0];
 		cameras = new Camera3D[0];
+		transform = Transform3D.identity;
+		singlePrecision = false;
+		
+		bounds = AABB3D.empty;
+		sphere = null;
+		
+		splitTriangles = null;
+		splitMesh = null;
 		
 		cacheIsValid = false;
-		min = null;
-		max = null;
-		center = null;
 		preparedTriangles = null;
+		meshBuffer = null;
+		floatMeshBuffer = null;
+		triangleBVH = null;
 		
 		cacheForCamerasIsValid = new boolean[0];
+		cameraVersions = new int[0];
 		preparedTrianglesForCameras = new Triangle3D[0][0];
+		preparedOrdersForCameras = new int[0][0];
+		projectedPointsForCameras = new float[0][0];
 	}
 	
 	public int getNumberOfPolygons() {
@@ -49,6 +74,11 @@ public class Model3D {
 	public void clearModel() {
 		polygons = new Polygon3D[0];
 		
+		bounds = AABB3D.empty;
+		sphere = null;
+		
+		splitTriangles = null;
+		splitMesh = null;
 		cacheIsValid = false;
 		
 		for (int i = 0; i < cameras.length; i++) {
@@ -66,8 +96,15 @@ public class Model3D {
 		polygons = Arrays.copyOf(polygons, n + 1);
 		polygons[n] = polygon;
 		
+		if (bounds != null) {
+			bounds = AABB3D.union(bounds, worldBounds(polygon));
+		}
+		sphere = null;
+		
+		splitTriangles = null;
+		splitMesh = null;
 		cacheIsValid = false;
-
+		
 		for (int i = 0; i < cameras.length; i++) {
 			cacheForCamerasIsValid[i] = false;
 		}
@@ -84,6 +121,37 @@ public class Model3D {
 		polygons = Arrays.copyOf(polygons, n + m);
 		System.arraycopy(ps, 0, polygons, n, m);
 		
+		if (bounds != null) {
+			for (int i = n; i < n + m; i++) {
+				bounds = AABB3D.union(bounds, worldBounds(polygons[i]));
+			}
+		}
+		sphere = null;
+		
+		splitTriangles = null;
+		splitMesh = null;
+		cacheIsValid = false;
+		
+		for (int i = 0; i < cameras.length; i++) {
+			cacheForCamerasIsValid[i] = false;
+		}
+	}
+	
+	public Transform3D getTransform() {
+		return transform;
+	}
+	
+	//The model is placed in the world by the transform, cached geometry is in world coordinates:
+	public void setTransform(Transform3D transform) {
+		if (transform == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.transform = transform;
+		
+		bounds = null;
+		sphere = null;
+		
 		cacheIsValid = false;
 		
 		for (int i = 0; i < cameras.length; i++) {
@@ -91,6 +159,19 @@ public class Model3D {
 		}
 	}
 	
+	public boolean isSinglePrecision() {
+		return singlePrecision;
+	}
+	
+	//Projects and sorts the prepared triangles with floats, see getPreparedOrderForCamera:
+	public void setSinglePrecision(boolean singlePrecision) {
+		this.singlePrecision = singlePrecision;
+		
+		for (int i = 0; i < cameras.length; i++) {
+			cacheForCamerasIsValid[i] = false;
+		}
+	}
+	
 	public int getNumberOfCameras() {
 		return cameras.length;
 	}
@@ -107,11 +188,34 @@ public class Model3D {
 		return cameras[index];
 	}
 	
+	public void setCameraTransform(int index, Transform3D transform) {
+		if (index < 0 || index >= cameras.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		cameras[index].setTransform(transform);
+		
+		cacheForCamerasIsValid[index] = false;
+	}
+	
+	public void orbitCamera(int index, Vector3D p, Quaternion q) {
+		if (index < 0 || index >= cameras.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		cameras[index].orbit(p, q);
+		
+		cacheForCamerasIsValid[index] = false;
+	}
+	
 	public void clearCameras() {
 		cameras = new Camera3D[0];
 		
 		cacheForCamerasIsValid = new boolean[0];
+		cameraVersions = new int[0];
 		preparedTrianglesForCameras = new Triangle3D[0][0];
+		preparedOrdersForCameras = new int[0][0];
+		projectedPointsForCameras = new float[0][0];
 	}
 	
 	public void addCamera(Camera3D camera) {
@@ -126,9 +230,13 @@ public class Model3D {
 		
 		cacheForCamerasIsValid = Arrays.copyOf(cacheForCamerasIsValid, n + 1);
 		cacheForCamerasIsValid[n] = false;
+		cameraVersions = Arrays.copyOf(cameraVersions, n + 1);
 		
 		preparedTrianglesForCameras = Arrays.copyOf(preparedTrianglesForCameras, n + 1);
 		preparedTrianglesForCameras[n] = new Triangle3D[0];
+		
+		preparedOrdersForCameras = Arrays.copyOf(preparedOrdersForCameras, n + 1);
+		projectedPointsForCameras = Arrays.copyOf(projectedPointsForCameras, n + 1);
 	}
 	
 	public void addCameras(Camera3D[] cs) {
@@ -143,7 +251,10 @@ public class Model3D {
 		System.arraycopy(cs, 0, cameras, n, m);
 		
 		cacheForCamerasIsValid = Arrays.copyOf(cacheForCamerasIsValid, n + m);
+		cameraVersions = Arrays.copyOf(cameraVersions, n + m);
 		preparedTrianglesForCameras = Arrays.copyOf(preparedTrianglesForCameras, n + m);
+		preparedOrdersForCameras = Arrays.copyOf(preparedOrdersForCameras, n + m);
+		projectedPointsForCameras = Arrays.copyOf(projectedPointsForCameras, n + m);
 		
 		for (int i = n; i < n + m; i++) {
 			cacheForCamerasIsValid[i] = false;
@@ -151,36 +262,155 @@ public class Model3D {
 		}
 	}
 	
+	//Bounding box of the model in world coordinates, empty without polygons:
+	public AABB3D getBounds() {
+		if (bounds == null) {
+			AABB3D b = AABB3D.empty;
+			
+			for (Polygon3D polygon : polygons) {
+				b = AABB3D.union(b, worldBounds(polygon));
+			}
+			
+			bounds = b;
+		}
+		
+		return bounds;
+	}
+	
+	//Bounding sphere of the model in world coordinates, null without polygons:
+	public BoundingSphere3D getBoundingSphere() {
+		if (sphere == null && polygons.length > 0) {
+			AABB3D b = getBounds();
+			double c1 = b.min1() + (b.max1() - b.min1()) / 2.0;
+			double c2 = b.min2() + (b.max2() - b.min2()) / 2.0;
+			double c3 = b.min3() + (b.max3() - b.min3()) / 2.0;
+			double r2 = 0.0;
+			
+			boolean transformed = transform != Transform3D.identity;
+			MutableVector3D w = new MutableVector3D();
+			
+			for (Polygon3D polygon : polygons) {
+				for (Vector3D v : polygon.getPoints()) {
+					if (transformed) {
+						transform.applyToPoint(w.setFrom(v));
+					}else{
+						w.setFrom(v);
+					}
+					
+					double d1 = w.x1() - c1;
+					double d2 = w.x2() - c2;
+					double d3 = w.x3() - c3;
+					
+					r2 = Math.max(r2, d1 * d1 + d2 * d2 + d3 * d3);
+				}
+			}
+			
+			sphere = new BoundingSphere3D(c1, c2, c3, Math.sqrt(r2));
+		}
+		
+		return sphere;
+	}
+	
+	//Box of the polygon in world coordinates, from the transformed points since 
+	//transforming its cached box would loosen it:
+	private AABB3D worldBounds(Polygon3D polygon) {
+		if (transform == Transform3D.identity) {
+			return polygon.getBounds();
+		}
+		
+		AABB3D b = AABB3D.empty;
+		
+		for (Vector3D v : polygon.getPoints()) {
+			b = AABB3D.union(b, transform.applyToPoint(v));
+		}
+		
+		return b;
+	}
+	
 	public Vector3D getMin() {
+		AABB3D b = getBounds();
+		
+		return b.isEmpty() ? Vector3D.origin : b.min();
+	}
+	
+	public Vector3D getMax() {
+		AABB3D b = getBounds();
+		
+		return b.isEmpty() ? Vector3D.origin : b.max();
+	}
+	
+	public Vector3D getCenter() {
+		AABB3D b = getBounds();
+		
+		return b.isEmpty() ? Vector3D.origin : b.center();
+	}
+	
+	public Triangle3D[] getPreparedTriangles() {
 		if (cacheIsValid == false) {
 			recalculateCache();
 		}
 		
-		return min;
+		return preparedTriangles;
 	}
 	
-	public Vector3D getMax() {
+	//Mesh of the prepared triangles in their order, already split and in world coordinates:
+	public MeshBuffer getMeshBuffer() {
 		if (cacheIsValid == false) {
 			recalculateCache();
 		}
 		
-		return max;
+		return meshBuffer;
 	}
 	
-	public Vector3D getCenter() {
+	public FloatMeshBuffer getFloatMeshBuffer() {
 		if (cacheIsValid == false) {
 			recalculateCache();
 		}
 		
-		return center;
+		if (floatMeshBuffer == null) {
+			floatMeshBuffer = new FloatMeshBuffer(getMeshBuffer());
+		}
+		
+		return floatMeshBuffer;
 	}
 	
-	public Triangle3D[] getPreparedTriangles() {
+	//Hierarchy over the prepared triangles, built on first use:
+	public TriangleBVH3D getTriangleBVH() {
 		if (cacheIsValid == false) {
 			recalculateCache();
 		}
 		
-		return preparedTriangles;
+		if (triangleBVH == null) {
+			triangleBVH = new TriangleBVH3D(preparedTriangles);
+		}
+		
+		return triangleBVH;
+	}
+	
+	//Nearest hit, the index is that of the triangle in getPreparedTriangles():
+	public RayHit3D raycast(Ray3D ray) {
+		if (ray == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		//Rays missing the bounds don't need the prepared triangles:
+		if (!getBounds().intersects(ray)) {
+			return null;
+		}
+		
+		return getTriangleBVH().intersection(ray);
+	}
+	
+	public boolean hits(Ray3D ray) {
+		if (ray == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (!getBounds().intersects(ray)) {
+			return false;
+		}
+		
+		return getTriangleBVH().intersects(ray);
 	}
 	
 	public Triangle3D[] getPreparedTrianglesForCamera(int index) {
@@ -191,13 +421,39 @@ public class Model3D {
 		if (cacheIsValid == false) {
 			recalculateCache();
 		}
-		if (cacheForCamerasIsValid[index] == false) {
+		if (!cacheForCameraIsValid(index)) {
 			recalculateCacheForCamera(index);
 		}
 		
 		return preparedTrianglesForCameras[index];
 	}
 	
+	//Indices into the float mesh buffer in drawing order, null unless single precision:
+	public int[] getPreparedOrderForCamera(int index) {
+		if (index < 0 || index >= cameras.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (!cacheForCameraIsValid(index)) {
+			recalculateCacheForCamera(index);
+		}
+		
+		return preparedOrdersForCameras[index];
+	}
+	
+	//Projected x, y pairs of the float mesh buffer vertices, null unless single precision:
+	public float[] getProjectedPointsForCamera(int index) {
+		if (index < 0 || index >= cameras.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (!cacheForCameraIsValid(index)) {
+			recalculateCacheForCamera(index);
+		}
+		
+		return projectedPointsForCameras[index];
+	}
+	
 	private void recalculateCache() {
 		if (cacheIsValid) {
 			return;
@@ -205,67 +461,37 @@ public class Model3D {
 		
 		cacheIsValid = true;
 		
-		double minX = Double.NaN;
-		double maxX = Double.NaN;
-		double minY = Double.NaN;
-		double maxY = Double.NaN;
-		double minZ = Double.NaN;
-		double maxZ = Double.NaN;
-		
-		for (Polygon3D polygon : polygons) {
-			for (Vector3D v : polygon.getPoints()) {
-				double x = v.x1();
-				double y = v.x2();
-				double z = v.x3();
-				
-				if (Double.isNaN(minX) || 
-					minX > x) {
-					minX = x;
-				}
-				if (Double.isNaN(maxX) || 
-					maxX < x) {
-					maxX = x;
-				}
-				
-				if (Double.isNaN(minY) || 
-					minY > y) {
-					minY = y;
-				}
-				if (Double.isNaN(maxY) || 
-					maxY < y) {
-					maxY = y;
-				}
-					
-				if (Double.isNaN(minZ) || 
-					minZ > z) {
-					minZ = z;
-				}
-				if (Double.isNaN(maxZ) || 
-					maxZ < z) {
-					maxZ = z;
-				}
-			}
+		if (splitTriangles == null) {
+			//Interpenetrating triangles can't be ordered by depth, split them once per geometry change:
+			splitTriangles = Triangle3D.intersect(Polygon3D.triangles(polygons));
+			splitMesh = MeshBuffer.fromTriangles(splitTriangles);
+			splitMesh.trim();
 		}
 		
-		if (polygons.length > 0) {
-			min = new Vector3D(minX, minY, minZ);
-			max = new Vector3D(maxX, maxY, maxZ);
-			center = new Vector3D(minX + (maxX - minX) / 2.0, 
-			                      minY + (maxY - minY) / 2.0, 
-			                      minZ + (maxZ - minZ) / 2.0);
+		floatMeshBuffer = null;
+		triangleBVH = null;
+		
+		if (transform == Transform3D.identity) {
+			preparedTriangles = splitTriangles;
+			meshBuffer = splitMesh;
 		}else{
-			min = Vector3D.origin;
-			max = Vector3D.origin;
-			center = Vector3D.origin;
+			//Transforms the shared points of the mesh in one batch, they stay shared between triangles:
+			meshBuffer = new MeshBuffer(splitMesh);
+			meshBuffer.transform(transform.matrix());
+			preparedTriangles = meshBuffer.toTriangles();
 		}
-		
-		preparedTriangles = Polygon3D.triangles(polygons);
+	}
+	
+	//Also stale if the camera was moved directly instead of through the model:
+	private boolean cacheForCameraIsValid(int index) {
+		return cacheForCamerasIsValid[index] && 
+		       cameraVersions[index] == cameras[index].version();
 	}
 	
 	private void recalculateCacheForCamera(int index) {
 		if (index < 0 || index >= cameras.length) {
 			throw new IllegalArgumentException();
-		}else if (cacheForCamerasIsValid[index] == true) {
+		}else if (cacheForCameraIsValid(index)) {
 			return;
 		}
 		
@@ -274,25 +500,50 @@ public class Model3D {
 		}
 		
 		cacheForCamerasIsValid[index] = true;
+		cameraVersions[index] = cameras[index].version();
 		
 		Camera3D camera = cameras[index];
-		Plane3D cameraPlane = camera.plane();
+		
+		if (singlePrecision) {
+			//Mesh triangles are in the order of preparedTriangles:
+			FloatMeshBuffer mesh = getFloatMeshBuffer();
+			int[] order = mesh.visibleTriangles(camera);
+			
+			preparedOrdersForCameras[index] = order;
+			projectedPointsForCameras[index] = mesh.projectedPoints(camera);
+			preparedTrianglesForCameras[index] = new Triangle3D[order.length];
+			
+			for (int i = 0; i < order.length; i++) {
+				preparedTrianglesForCameras[index][i] = preparedTriangles[order[i]];
+			}
+			
+			return;
+		}else{
+			preparedOrdersForCameras[index] = null;
+			projectedPointsForCameras[index] = null;
+		}
+		
+		Vector3D e = camera.eye();
+		Vector3D r = camera.center();
+		Vector3D nc = camera.normal();
 		
 		int n = preparedTriangles.length;
 		int m = 0;
 		
 		preparedTrianglesForCameras[index] = new Triangle3D[n];
 		
+		MutableVector3D c = new MutableVector3D();
+		
 		for (int i = 0; i < n; i++) {
 			Triangle3D p = preparedTriangles[i];
-			Vector3D c = p.getCenter();
+			p.getCenter(c);
 			
-			Line3D l = new Line3D(camera.eye(), 
-			                      Vector3D.subtract(c, camera.eye()));
-			Vector3D pi = Plane3D.intersection(l, cameraPlane);
-			double ti = l.parameter(pi);
+			double ti = Plane3D.intersection(e.x1(), e.x2(), e.x3(), 
+			                                 c.x1() - e.x1(), c.x2() - e.x2(), c.x3() - e.x3(), 
+			                                 r.x1(), r.x2(), r.x3(), 
+			                                 nc.x1(), nc.x2(), nc.x3());
 			
-			if (ti <= 0.0 || ti > 1.0) {
+			if (Double.isNaN(ti) || ti <= 0.0 || ti > 1.0) {
 				continue;
 			}else{
 				preparedTrianglesForCameras[index][m] = p;
@@ -302,12 +553,15 @@ public class Model3D {
 		
 		preparedTrianglesForCameras[index] = Arrays.copyOf(preparedTrianglesForCameras[index], m);
 		
+		MutableVector3D c1 = new MutableVector3D();
+		MutableVector3D c2 = new MutableVector3D();
+		
 		for (int i = 0; i < m - 1; i++) {
 			Triangle3D p1 = preparedTrianglesForCameras[index][i];
 			Triangle3D p2 = preparedTrianglesForCameras[index][i + 1];
 			
-			double d1 = Vector3D.subtract(p1.getCenter(), camera.eye()).norm();
-			double d2 = Vector3D.subtract(p2.getCenter(), camera.eye()).norm();
+			double d1 = MutableVector3D.distance(p1.getCenter(c1), e);
+			double d2 = MutableVector3D.distance(p2.getCenter(c2), e);
 			
 			if (d2 > d1) {
 				preparedTrianglesForCameras[index][i] = p2;
@@ -0,0 +1,241 @@
+package model.geometry3D;
+
+import model.basis.*;
+
+public class MutableVector3D {
+	private double x1, x2, x3;
+	
+	public MutableVector3D() {
+		this.x1 = 0.0;
+		this.x2 = 0.0;
+		this.x3 = 0.0;
+	}
+	
+	public MutableVector3D(double x1, double x2, double x3) {
+		set(x1, x2, x3);
+	}
+	
+	public MutableVector3D(Vector3D v) {
+		setFrom(v);
+	}
+	
+	public double x1() {
+		return x1;
+	}
+	
+	public double x2() {
+		return x2;
+	}
+	
+	public double x3() {
+		return x3;
+	}
+	
+	public MutableVector3D set(double x1, double x2, double x3) {
+		if (Double.isNaN(x1) || 
+			Double.isNaN(x2) || 
+			Double.isNaN(x3)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.x1 = x1;
+		this.x2 = x2;
+		this.x3 = x3;
+		
+		return this;
+	}
+	
+	public MutableVector3D setFrom(Vector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 = v.x1();
+		x2 = v.x2();
+		x3 = v.x3();
+		
+		return this;
+	}
+	
+	public MutableVector3D setFrom(MutableVector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 = v.x1;
+		x2 = v.x2;
+		x3 = v.x3;
+		
+		return this;
+	}
+	
+	public Vector3D toVector3D() {
+		return new Vector3D(x1, x2, x3);
+	}
+	
+	public double norm() {
+		return Math.sqrt(x1 * x1 + x2 * x2 + x3 * x3);
+	}
+	
+	public MutableVector3D negInPlace() {
+		x1 = -x1;
+		x2 = -x2;
+		x3 = -x3;
+		
+		return this;
+	}
+	
+	public MutableVector3D unitInPlace() {
+		double n = norm();
+		
+		if (Geometry.isZero(n)) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 /= n;
+		x2 /= n;
+		x3 /= n;
+		
+		return this;
+	}
+	
+	public MutableVector3D addInPlace(Vector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 += v.x1();
+		x2 += v.x2();
+		x3 += v.x3();
+		
+		return this;
+	}
+	
+	public MutableVector3D addInPlace(MutableVector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 += v.x1;
+		x2 += v.x2;
+		x3 += v.x3;
+		
+		return this;
+	}
+	
+	public MutableVector3D addInPlace(double k, Vector3D v) {
+		if (Double.isNaN(k) || v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 += k * v.x1();
+		x2 += k * v.x2();
+		x3 += k * v.x3();
+		
+		return this;
+	}
+	
+	public MutableVector3D addInPlace(double k, MutableVector3D v) {
+		if (Double.isNaN(k) || v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 += k * v.x1;
+		x2 += k * v.x2;
+		x3 += k * v.x3;
+		
+		return this;
+	}
+	
+	public MutableVector3D subtractInPlace(Vector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 -= v.x1();
+		x2 -= v.x2();
+		x3 -= v.x3();
+		
+		return this;
+	}
+	
+	public MutableVector3D subtractInPlace(MutableVector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 -= v.x1;
+		x2 -= v.x2;
+		x3 -= v.x3;
+		
+		return this;
+	}
+	
+	public MutableVector3D multiplyInPlace(double k) {
+		if (Double.isNaN(k)) {
+			throw new IllegalArgumentException();
+		}
+		
+		x1 *= k;
+		x2 *= k;
+		x3 *= k;
+		
+		return this;
+	}
+	
+	public static double dotProduct(MutableVector3D a, MutableVector3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return a.x1 * b.x1 + a.x2 * b.x2 + a.x3 * b.x3;
+	}
+	
+	public static double dotProduct(MutableVector3D a, Vector3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return a.x1 * b.x1() + a.x2 * b.x2() + a.x3 * b.x3();
+	}
+	
+	public static double distance(MutableVector3D a, Vector3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double d1 = a.x1 - b.x1();
+		double d2 = a.x2 - b.x2();
+		double d3 = a.x3 - b.x3();
+		
+		return Math.sqrt(d1 * d1 + d2 * d2 + d3 * d3);
+	}
+	
+	//result may be a or b:
+	public static MutableVector3D crossInto(MutableVector3D a, MutableVector3D b, MutableVector3D result) {
+		if (a == null || b == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return crossInto(a.x1, a.x2, a.x3, b.x1, b.x2, b.x3, result);
+	}
+	
+	public static MutableVector3D crossInto(Vector3D a, Vector3D b, MutableVector3D result) {
+		if (a == null || b == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return crossInto(a.x1(), a.x2(), a.x3(), b.x1(), b.x2(), b.x3(), result);
+	}
+	
+	private static MutableVector3D crossInto(double a1, double a2, double a3,
+	                                         double b1, double b2, double b3,
+	                                         MutableVector3D result) {
+		result.x1 = a2 * b3 - a3 * b2;
+		result.x2 = a3 * b1 - a1 * b3;
+		result.x3 = a1 * b2 - a2 * b1;
+		
+		return result;
+	}
+	
+}
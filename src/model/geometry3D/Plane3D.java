@@ -5,8 +5,12 @@ import model.basis.*;
 public class Plane3D {
 	private Vector3D r0, n;
 	
+	//Cache, volatile for safe publication of the lazily computed values:
+	private volatile Vector3D s1;
+	private volatile Vector3D s2;
+	
 	public Plane3D(Vector3D r0, Vector3D n) {
-		if (r0 == null || n == null || n.norm() == 0.0) {
+		if (r0 == null || n == null || Geometry.isZero(n.norm())) {
 			throw new IllegalArgumentException();
 		}
 		
@@ -39,18 +43,30 @@ public class Plane3D {
 	}
 	
 	public Vector3D s1() {
-		Vector3D v1 = Vector3D.crossProduct(n, Vector3D.i);
-		Vector3D v2 = Vector3D.crossProduct(n, Vector3D.j);
-		
-		if (v1.norm() != 0.0) {
-			return v1;
-		}else{
-			return v2;
+		Vector3D v = s1;
+		
+		if (v == null) {
+			v = Vector3D.crossProduct(n, Vector3D.i);
+			
+			if (Geometry.isZero(v.norm())) {
+				v = Vector3D.crossProduct(n, Vector3D.j);
+			}
+			
+			s1 = v;
 		}
+		
+		return v;
 	}
 	
 	public Vector3D s2() {
-		return Vector3D.crossProduct(n, s1());
+		Vector3D v = s2;
+		
+		if (v == null) {
+			v = Vector3D.crossProduct(n, s1());
+			s2 = v;
+		}
+		
+		return v;
 	}
 	
 	public Vector3D vector(double t1, double t2) {
@@ -63,6 +79,14 @@ public class Plane3D {
 		                    Vector3D.multiply(t2, s2()));
 	}
 	
+	public MutableVector3D vector(double t1, double t2, MutableVector3D result) {
+		if (Double.isNaN(t1) || Double.isNaN(t2) || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.setFrom(r0).addInPlace(t1, s1()).addInPlace(t2, s2());
+	}
+	
 	public boolean contains(Vector3D r) {
 		if (r == null) {
 			throw new IllegalArgumentException();
@@ -88,41 +112,19 @@ public class Plane3D {
 			throw new IllegalArgumentException();
 		}
 		
-		Vector3D[] s = new Vector3D[4];
-		s[0] = s1();
-		s[1] = s2();
-		s[2] = n;
-		s[3] = Vector3D.subtract(r, r0);
-		
+		double[] v = coordinates(r);
 		
-		Matrix m = Vector3D.matrixWithColumnVectors(s);
-		
-		m = m.rref();
-		
-		double t1 = m.entry(0, 3);
-		
-		return t1;
+		return v[3];
 	}
 	
 	public double parameter2(Vector3D r) {
 		if (r == null) {
 			throw new IllegalArgumentException();
 		}
-
-		Vector3D[] s = new Vector3D[4];
-		s[0] = s1();
-		s[1] = s2();
-		s[2] = n;
-		s[3] = Vector3D.subtract(r, r0);
-		
-		
-		Matrix m = Vector3D.matrixWithColumnVectors(s);
 		
-		m = m.rref();
+		double[] v = coordinates(r);
 		
-		double t2 = m.entry(1, 3);
-		
-		return t2;
+		return v[7];
 	}
 	
 	public Vector3D projection(Vector3D r) {
@@ -130,23 +132,26 @@ public class Plane3D {
 			throw new IllegalArgumentException();
 		}
 		
-		Vector3D[] s = new Vector3D[4];
-		s[0] = s1();
-		s[1] = s2();
-		s[2] = n;
-		s[3] = Vector3D.subtract(r, r0);
+		double[] v = coordinates(r);
 		
+		double t1 = v[3];
+		double t2 = v[7];
 		
-		Matrix m = Vector3D.matrixWithColumnVectors(s);
+		return vector(t1, t2);
+	}
+	
+	//Reduces [s1 s2 n | r - r0] in place, the last column holds t1, t2, t3:
+	private double[] coordinates(Vector3D r) {
+		Vector3D s1 = s1();
+		Vector3D s2 = s2();
 		
-		m = m.rref();
+		double[] v = new double[] {s1.x1(), s2.x1(), n.x1(), r.x1() - r0.x1(), 
+		                           s1.x2(), s2.x2(), n.x2(), r.x2() - r0.x2(), 
+		                           s1.x3(), s2.x3(), n.x3(), r.x3() - r0.x3()};
 		
-		double t1 = m.entry(0, 3);
-		double t2 = m.entry(1, 3);
+		Matrix.rref(v, 3, 4, null);
 		
-		return Vector3D.add(r0, 
-		                    Vector3D.multiply(t1, s1()), 
-		                    Vector3D.multiply(t2, s2()));
+		return v;
 	}
 	
 	public static boolean parallel(Plane3D a, Plane3D b) {
@@ -178,73 +183,141 @@ public class Plane3D {
 			throw new IllegalArgumentException();
 		}
 		
-		Vector3D[] s = new Vector3D[4];
-		s[0] = p.s1();
-		s[1] = p.s2();
-		s[2] = p.n();
-		s[3] = Vector3D.subtract(v, p.r0());
+		double[] m = p.coordinates(v);
 		
-		Matrix m = Vector3D.matrixWithColumnVectors(s);
-		
-		m = m.rref();
-		
-		double n = m.entry(2, 3);
+		double n = m[11];
 		
 		return n * p.n().norm();
 	}
 	
 	public static Vector3D intersection(Line3D l, Plane3D p) {
-		if (l == null || p == null || p.contains(l)) {
+		if (l == null || p == null) {
 			throw new IllegalArgumentException();
 		}
 		
-		if (Vector3D.orthogonal(l.s(), p.n())) {
+		Vector3D r = l.r0();
+		Vector3D s = l.s();
+		Vector3D q = p.r0();
+		Vector3D n = p.n();
+		
+		double t = intersection(r.x1(), r.x2(), r.x3(), 
+		                        s.x1(), s.x2(), s.x3(), 
+		                        q.x1(), q.x2(), q.x3(), 
+		                        n.x1(), n.x2(), n.x3());
+		
+		if (Double.isNaN(t)) {
+			if (p.contains(l)) {
+				throw new IllegalArgumentException();
+			}
+			
 			return null;
 		}
 		
-		Matrix m = Vector3D.matrixWithColumnVectors(new Vector3D[]{Vector3D.multiply(+1.0, l.s()),
-																   Vector3D.multiply(-1.0, p.s1()),
-																   Vector3D.multiply(-1.0, p.s2()),
-																   Vector3D.subtract(p.r0(), l.r0())});
-		m = m.rref();
+		return l.vector(t);
+	}
+	
+	//Returns false if the line is parallel to the plane:
+	public static boolean intersection(Line3D l, Plane3D p, MutableVector3D result) {
+		if (l == null || p == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Vector3D r = l.r0();
+		Vector3D s = l.s();
+		Vector3D q = p.r0();
+		Vector3D n = p.n();
+		
+		double t = intersection(r.x1(), r.x2(), r.x3(), 
+		                        s.x1(), s.x2(), s.x3(), 
+		                        q.x1(), q.x2(), q.x3(), 
+		                        n.x1(), n.x2(), n.x3());
+		
+		if (Double.isNaN(t)) {
+			return false;
+		}
+		
+		l.vector(t, result);
+		
+		return true;
+	}
+	
+	//Returns the parameter t of the point r + t * s on the plane through q 
+	//with normal n, or NaN if the line is parallel to the plane:
+	public static double intersection(double r1, double r2, double r3, 
+	                                  double s1, double s2, double s3, 
+	                                  double q1, double q2, double q3, 
+	                                  double n1, double n2, double n3) {
+		double ns = n1 * s1 + n2 * s2 + n3 * s3;
+		double nn = n1 * n1 + n2 * n2 + n3 * n3;
+		double ss = s1 * s1 + s2 * s2 + s3 * s3;
+		
+		//n . s = |n| |s| cos(angle), parallel if the cosine vanishes:
+		if (nn == 0.0 || ss == 0.0 || Geometry.isZero(ns / Math.sqrt(nn * ss))) {
+			return Double.NaN;
+		}
 		
-		double t1 = m.entry(0, 3);
+		double nd = n1 * (q1 - r1) + n2 * (q2 - r2) + n3 * (q3 - r3);
 		
-		return l.vector(t1);
+		return nd / ns;
 	}
 	
 	public static Line3D intersection(Plane3D a, Plane3D b) {
-		if (a == null || b == null || equal(a, b)) {
+		if (a == null || b == null) {
 			throw new IllegalArgumentException();
 		}
 		
-		if (parallel(a, b)) {
+		double[] line = new double[6];
+		
+		if (!intersection(a.r0().x(), a.n().x(), 
+		                  b.r0().x(), b.n().x(), 
+		                  line)) {
+			if (equal(a, b)) {
+				throw new IllegalArgumentException();
+			}
+			
 			return null;
 		}
 		
-		Vector3D s = Vector3D.crossProduct(a.n(), b.n());
-		
-		Matrix m = Vector3D.matrixWithColumnVectors(new Vector3D[]{Vector3D.multiply(+1.0, a.s1()),
-																   Vector3D.multiply(+1.0, a.s2()),
-																   Vector3D.multiply(-1.0, b.s1()),
-																   Vector3D.multiply(-1.0, b.s2()),
-																   Vector3D.subtract(b.r0(), a.r0())});
-		m = m.rref();
+		return new Line3D(new Vector3D(line[0], line[1], line[2]), 
+		                  new Vector3D(line[3], line[4], line[5]));
+	}
+	
+	//Writes a point and the direction n x m of the line shared by the planes 
+	//(p, n) and (q, m) into line[0..2] and line[3..5]. Returns false if the 
+	//planes are parallel:
+	public static boolean intersection(double[] p, double[] n, 
+	                                   double[] q, double[] m, 
+	                                   double[] line) {
+		if (p == null || p.length != 3 || 
+			n == null || n.length != 3 || 
+			q == null || q.length != 3 || 
+			m == null || m.length != 3 || 
+			line == null || line.length < 6) {
+			throw new IllegalArgumentException();
+		}
 		
-		//f1 * t3 + f2 * t4 = c
-		double f1 = m.entry(2, 2);
-		double f2 = m.entry(2, 3);
-		double c = m.entry(2, 4);
+		double u1 = n[1] * m[2] - n[2] * m[1];
+		double u2 = n[2] * m[0] - n[0] * m[2];
+		double u3 = n[0] * m[1] - n[1] * m[0];
 		
-		Vector3D r0;
+		double uu = u1 * u1 + u2 * u2 + u3 * u3;
 		
-		if (f1 != 0.0) {
-			r0 = b.vector(c / f1, 0.0);
-		}else{
-			r0 = b.vector(0.0, c / f2);
+		if (Geometry.isZero(uu)) {
+			return false;
 		}
 		
-		return new Line3D(r0, s);
+		double d1 = n[0] * p[0] + n[1] * p[1] + n[2] * p[2];
+		double d2 = m[0] * q[0] + m[1] * q[1] + m[2] * q[2];
+		
+		//r = (d1 * (m x u) + d2 * (u x n)) / |u|^2
+		line[0] = (d1 * (m[1] * u3 - m[2] * u2) + d2 * (u2 * n[2] - u3 * n[1])) / uu;
+		line[1] = (d1 * (m[2] * u1 - m[0] * u3) + d2 * (u3 * n[0] - u1 * n[2])) / uu;
+		line[2] = (d1 * (m[0] * u2 - m[1] * u1) + d2 * (u1 * n[1] - u2 * n[0])) / uu;
+		line[3] = u1;
+		line[4] = u2;
+		line[5] = u3;
+		
+		return true;
 	}
 	
 }
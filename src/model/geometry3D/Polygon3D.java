@@ -8,6 +8,13 @@ public class Polygon3D {
 	private Vector3D[] points;
 	private Color color;
 	
+	//Cache, volatile for safe publication of the lazily computed values:
+	private volatile Vector3D center;
+	private volatile Vector3D normal;
+	private volatile Plane3D plane;
+	private volatile AABB3D bounds;
+	private volatile BoundingSphere3D sphere;
+	
 	public Polygon3D(Vector3D a, Vector3D b, Vector3D c, Color color) {
 		if (a == null || b == null || c == null || color == null) {
 			throw new IllegalArgumentException();
@@ -22,24 +29,17 @@ public class Polygon3D {
 			throw new IllegalArgumentException();
 		}
 		
-		if (points.length > 3) {
-			Vector3D v0 = points[0];
-			
-			Vector3D[] s = new Vector3D[points.length - 1];
-			
-			for (int i = 1; i < points.length; i++) {
-				Vector3D vi = points[i];
-				
-				s[i - 1] = Vector3D.subtract(vi, v0);
-			}
-			
-			Matrix m = Vector3D.matrixWithColumnVectors(s);
-			
-			if (m.rank() > 2) {
+		for (Vector3D p : points) {
+			if (p == null) {
 				throw new IllegalArgumentException();
 			}
 		}
 		
+		if (points.length > 3 && 
+			planarityDeviation(points, newellNormal(points, new MutableVector3D())) > Geometry.getTolerance().epsilon()) {
+			throw new IllegalArgumentException();
+		}
+		
 		this.points = points;
 		this.color = color;
 	}
@@ -60,52 +60,38 @@ public class Polygon3D {
 		return points;
 	}
 	
+	//Center of the bounding box:
 	public Vector3D getCenter() {
-		double minX = Double.NaN;
-		double maxX = Double.NaN;
-		double minY = Double.NaN;
-		double maxY = Double.NaN;
-		double minZ = Double.NaN;
-		double maxZ = Double.NaN;
-		
-		for (Vector3D v : points) {
-			double x = v.x1();
-			double y = v.x2();
-			double z = v.x3();
-			
-			if (Double.isNaN(minX) || 
-				minX > x) {
-				minX = x;
-			}
-			if (Double.isNaN(maxX) || 
-				maxX < x) {
-				maxX = x;
-			}
-			
-			if (Double.isNaN(minY) || 
-				minY > y) {
-				minY = y;
-			}
-			if (Double.isNaN(maxY) || 
-				maxY < y) {
-				maxY = y;
-			}
-				
-			if (Double.isNaN(minZ) || 
-				minZ > z) {
-				minZ = z;
-			}
-			if (Double.isNaN(maxZ) || 
-				maxZ < z) {
-				maxZ = z;
-			}
+		Vector3D v = center;
+		
+		if (v == null) {
+			v = getBounds().center();
+			center = v;
 		}
 		
-		double cx = minX + (maxX - minX) / 2;
-		double cy = minY + (maxY - minY) / 2;
-		double cz = minZ + (maxZ - minZ) / 2;
+		return v;
+	}
+	
+	public AABB3D getBounds() {
+		AABB3D b = bounds;
+		
+		if (b == null) {
+			b = AABB3D.fromPoints(points);
+			bounds = b;
+		}
+		
+		return b;
+	}
+	
+	public BoundingSphere3D getBoundingSphere() {
+		BoundingSphere3D s = sphere;
+		
+		if (s == null) {
+			s = BoundingSphere3D.fromPoints(points);
+			sphere = s;
+		}
 		
-		return new Vector3D(cx, cy, cz);
+		return s;
 	}
 	
 	public Color getColor() {
@@ -113,94 +99,225 @@ public class Polygon3D {
 	}
 	
 	public Vector3D getNormalVector() {
-		Vector3D v0 = points[0];
+		Vector3D v = normal;
 		
-		double[][] mv = new double[points.length][3];
+		if (v == null) {
+			v = calculateNormalVector();
+			normal = v;
+		}
+		
+		return v;
+	}
+	
+	private Vector3D calculateNormalVector() {
+		MutableVector3D n = newellNormal(points, new MutableVector3D());
 		
+		if (!Geometry.isZero(n.norm())) {
+			return n.toVector3D();
+		}
+		
+		//Collinear points, any vector orthogonal to the line:
 		for (int i = 1; i < points.length; i++) {
-			Vector3D vi = points[i];
+			Vector3D a = Vector3D.subtract(points[i], points[0]);
 			
-			mv[i] = Vector3D.subtract(vi, v0).x();
+			if (!Geometry.isZero(a.norm())) {
+				Vector3D b = !Vector3D.collinear(a, Vector3D.i) ? Vector3D.i : Vector3D.j;
+				
+				return Vector3D.crossProduct(a, b);
+			}
+		}
+		
+		return Vector3D.k;
+	}
+	
+	//Newell's method, the result has length twice the area and follows the orientation of the points:
+	public static MutableVector3D newellNormal(Vector3D[] points, MutableVector3D result) {
+		if (points == null || result == null) {
+			throw new IllegalArgumentException();
 		}
 		
-		Matrix m = new Matrix(mv);
+		double n1 = 0.0;
+		double n2 = 0.0;
+		double n3 = 0.0;
 		
-		double[][] bv = m.basisForRowSpace();
+		int n = points.length;
 		
-		if (bv.length == 2) {
-			Vector3D a = new Vector3D(bv[0]);
-			Vector3D b = new Vector3D(bv[1]);
-			
-			return Vector3D.crossProduct(a, b);
-			
-		}else{
-			Vector3D a = new Vector3D(bv[0]);
-			Vector3D b = !Vector3D.collinear(a, Vector3D.i) ? Vector3D.i : Vector3D.j;
+		for (int i = 0; i < n; i++) {
+			Vector3D p = points[i];
+			Vector3D q = points[(i + 1) % n];
 			
-			return Vector3D.crossProduct(a, b);
+			n1 += (p.x2() - q.x2()) * (p.x3() + q.x3());
+			n2 += (p.x3() - q.x3()) * (p.x1() + q.x1());
+			n3 += (p.x1() - q.x1()) * (p.x2() + q.x2());
 		}
+		
+		return result.set(n1, n2, n3);
+	}
+	
+	//Largest distance of a point from the plane through the centroid with normal n:
+	private static double planarityDeviation(Vector3D[] points, MutableVector3D n) {
+		double l = n.norm();
+		
+		if (Geometry.isZero(l)) {
+			return 0.0;
+		}
+		
+		double n1 = n.x1() / l;
+		double n2 = n.x2() / l;
+		double n3 = n.x3() / l;
+		
+		double d = 0.0;
+		
+		for (Vector3D p : points) {
+			d += p.x1() * n1 + p.x2() * n2 + p.x3() * n3;
+		}
+		
+		d /= points.length;
+		
+		double max = 0.0;
+		
+		for (Vector3D p : points) {
+			max = Math.max(max, Math.abs(p.x1() * n1 + p.x2() * n2 + p.x3() * n3 - d));
+		}
+		
+		return max;
+	}
+	
+	public double getPlanarityDeviation() {
+		return planarityDeviation(points, newellNormal(points, new MutableVector3D()));
+	}
+	
+	public boolean isPlanar(double tolerance) {
+		if (Double.isNaN(tolerance) || tolerance < 0.0) {
+			throw new IllegalArgumentException();
+		}
+		
+		return getPlanarityDeviation() <= tolerance;
+	}
+	
+	public boolean isPlanar() {
+		return isPlanar(Geometry.getTolerance().epsilon());
+	}
+	
+	public double getArea() {
+		return newellNormal(points, new MutableVector3D()).norm() / 2.0;
 	}
 	
 	public Plane3D getPlane() {
-		Vector3D v0 = points[0];
-		Vector3D n = getNormalVector();
+		Plane3D p = plane;
 		
-		return new Plane3D(v0, n);
+		if (p == null) {
+			//Through the centroid, which averages out small deviations from planarity:
+			p = new Plane3D(Vector3D.average(points), getNormalVector());
+			plane = p;
+		}
+		
+		return p;
 	}
 	
 	public Triangle3D[] getTriangles() {
 		int p = points.length;
 		Vector3D[] ps = points.clone();
 		
+		//Packed copy of ps, tested against each candidate ear in one pass:
+		double[] xyz = new double[3 * p];
+		boolean[] inside = new boolean[p];
+		
+		for (int i = 0; i < p; i++) {
+			xyz[3 * i] = ps[i].x1();
+			xyz[3 * i + 1] = ps[i].x2();
+			xyz[3 * i + 2] = ps[i].x3();
+		}
+		
+		Vector3D n = getNormalVector();
+		double n1 = n.x1(), n2 = n.x2(), n3 = n.x3();
+		
 		int t = 0;
-		Triangle3D[] ts = new Triangle3D[0];
+		Triangle3D[] ts = new Triangle3D[p - 2];
 		
-		while (ps.length > 3) {
-			for (int i = 0; i < p; i++) {
-				Vector3D a = ps[i];
-				Vector3D b = ps[(i + 1) % p];
-				Vector3D c = ps[(i + 2) % p];
+		//Corners that are flat are dropped without a triangle:
+		while (p > 3) {
+			int ear = -1;
+			int convex = -1;
+			boolean flat = false;
+			
+			for (int i = 0; i < p && ear < 0; i++) {
+				int j = (i + 1) % p;
+				int k = (i + 2) % p;
 				
-				Triangle3D e = new Triangle3D(a, b, c, color);
+				if (flat(ps[i], ps[j], ps[k])) {
+					ear = i;
+					flat = true;
+					break;
+				}
 				
-				for (int j = 0; j < p; j++) {
-					Vector3D d = ps[j];
-					
-					if (d == a || d == b || d == c) {
-						continue;
-					}
-					
-					if (e.contains(d)) {
-						e = null;
+				double u1 = ps[j].x1() - ps[i].x1(), u2 = ps[j].x2() - ps[i].x2(), u3 = ps[j].x3() - ps[i].x3();
+				double v1 = ps[k].x1() - ps[i].x1(), v2 = ps[k].x2() - ps[i].x2(), v3 = ps[k].x3() - ps[i].x3();
+				
+				//Reflex corners turn against the polygon normal:
+				if ((u2 * v3 - u3 * v2) * n1 + (u3 * v1 - u1 * v3) * n2 + (u1 * v2 - u2 * v1) * n3 <= 0.0) {
+					continue;
+				}
+				
+				Triangle3D e = new Triangle3D(ps[i], ps[j], ps[k], color);
+				
+				if (convex < 0) {
+					convex = i;
+				}
+				
+				e.containsAll(xyz, 0, p, inside, 0);
+				inside[i] = false;
+				inside[j] = false;
+				inside[k] = false;
+				
+				ear = i;
+				
+				for (int l = 0; l < p; l++) {
+					if (inside[l]) {
+						ear = -1;
 						break;
 					}
 				}
 				
-				if (e != null) {
-					t++;
-					ts = Arrays.copyOf(ts, t);
-					ts[t - 1] = e;
-					
-					if (i + 2 < p) {
-						System.arraycopy(ps, i + 2, 
-						                 ps, i + 1, 
-						                 p - i - 2);
-					}else if (i + 1 == p) {
-						System.arraycopy(ps, 1, 
-						                 ps, 0, p - 1);
-					}
-					p--;
-					
-					break;
+				if (ear >= 0) {
+					ts[t] = e;
 				}
 			}
+			
+			//Only for degenerate input, clipping anyway guarantees termination:
+			if (ear < 0) {
+				ear = Math.max(convex, 0);
+				ts[t] = new Triangle3D(ps[ear], ps[(ear + 1) % p], ps[(ear + 2) % p], color);
+			}
+			
+			if (!flat) {
+				t++;
+			}
+			
+			int j = (ear + 1) % p;
+			
+			System.arraycopy(ps, j + 1, 
+			                 ps, j, p - j - 1);
+			System.arraycopy(xyz, 3 * (j + 1), 
+			                 xyz, 3 * j, 3 * (p - j - 1));
+			p--;
 		}
 		
-		t++;
-		ts = Arrays.copyOf(ts, t);
-		ts[t - 1] = new Triangle3D(ps, color);
+		if (!flat(ps[0], ps[1], ps[2])) {
+			ts[t++] = new Triangle3D(ps[0], ps[1], ps[2], color);
+		}
 		
-		return ts;
+		return (t == ts.length) ? ts : Arrays.copyOf(ts, t);
+	}
+	
+	//Corners too flat for a triangle within the tolerance, exactly if the projections to all 
+	//three coordinate planes are collinear:
+	private static boolean flat(Vector3D a, Vector3D b, Vector3D c) {
+		return (Predicates.orient2d(a.x1(), a.x2(), b.x1(), b.x2(), c.x1(), c.x2()) == 0.0 && 
+		        Predicates.orient2d(a.x2(), a.x3(), b.x2(), b.x3(), c.x2(), c.x3()) == 0.0 && 
+		        Predicates.orient2d(a.x3(), a.x1(), b.x3(), b.x1(), c.x3(), c.x1()) == 0.0) || 
+		       Vector3D.collinear(Vector3D.subtract(b, a), 
+		                          Vector3D.subtract(c, a));
 	}
 	
 	public static Triangle3D[] triangles(Polygon3D[] ps) {
@@ -0,0 +1,165 @@
+package model.geometry3D;
+
+import model.basis.*;
+
+//w + x1 i + x2 j + x3 k, unit quaternions represent rotations:
+public class Quaternion {
+	private double w, x1, x2, x3;
+	
+	public static final Quaternion identity = new Quaternion(1.0, 0.0, 0.0, 0.0);
+	
+	public Quaternion(double w, double x1, double x2, double x3) {
+		if (Double.isNaN(w) || 
+			Double.isNaN(x1) || 
+			Double.isNaN(x2) || 
+			Double.isNaN(x3)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.w = w;
+		this.x1 = x1;
+		this.x2 = x2;
+		this.x3 = x3;
+	}
+	
+	//Rotation by angle (in degrees) about axis, matching Matrix3.rotation_*_axis:
+	public static Quaternion rotation(Vector3D axis, double angle) {
+		if (axis == null || Double.isNaN(angle)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double n = axis.norm();
+		
+		if (Geometry.isZero(n)) {
+			throw new IllegalArgumentException();
+		}
+		
+		double h = Math.toRadians(angle) / 2.0;
+		double s = Math.sin(h) / n;
+		
+		return new Quaternion(Math.cos(h), s * axis.x1(), s * axis.x2(), s * axis.x3());
+	}
+	
+	public static Quaternion rotation_x_axis(double angle) {
+		return rotation(Vector3D.i, angle);
+	}
+	
+	public static Quaternion rotation_y_axis(double angle) {
+		return rotation(Vector3D.j, angle);
+	}
+	
+	public static Quaternion rotation_z_axis(double angle) {
+		return rotation(Vector3D.k, angle);
+	}
+	
+	//table[i] is the rotation by i * step, for fixed step animations without trigonometry per frame:
+	public static Quaternion[] rotationTable(Vector3D axis, double step, int count) {
+		if (axis == null || Double.isNaN(step) || count < 1) {
+			throw new IllegalArgumentException();
+		}
+		
+		Quaternion[] table = new Quaternion[count];
+		
+		for (int i = 0; i < count; i++) {
+			table[i] = rotation(axis, i * step);
+		}
+		
+		return table;
+	}
+	
+	public double w() {
+		return w;
+	}
+	
+	public double x1() {
+		return x1;
+	}
+	
+	public double x2() {
+		return x2;
+	}
+	
+	public double x3() {
+		return x3;
+	}
+	
+	public double norm() {
+		return Math.sqrt(w * w + x1 * x1 + x2 * x2 + x3 * x3);
+	}
+	
+	public Quaternion unit() {
+		double n = norm();
+		
+		if (Geometry.isZero(n)) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Quaternion(w / n, x1 / n, x2 / n, x3 / n);
+	}
+	
+	public Quaternion conjugate() {
+		return new Quaternion(w, -x1, -x2, -x3);
+	}
+	
+	//For unit quaternions the conjugate:
+	public Quaternion inverse() {
+		double n = w * w + x1 * x1 + x2 * x2 + x3 * x3;
+		
+		if (Geometry.isZero(n)) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Quaternion(w / n, -x1 / n, -x2 / n, -x3 / n);
+	}
+	
+	//Rotating with multiply(a, b) rotates with b first:
+	public static Quaternion multiply(Quaternion a, Quaternion b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Quaternion(a.w * b.w - a.x1 * b.x1 - a.x2 * b.x2 - a.x3 * b.x3,
+		                      a.w * b.x1 + a.x1 * b.w + a.x2 * b.x3 - a.x3 * b.x2,
+		                      a.w * b.x2 - a.x1 * b.x3 + a.x2 * b.w + a.x3 * b.x1,
+		                      a.w * b.x3 + a.x1 * b.x2 - a.x2 * b.x1 + a.x3 * b.w);
+	}
+	
+	public Vector3D rotate(Vector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return rotate(new MutableVector3D(v)).toVector3D();
+	}
+	
+	//Rotates v in place, q is assumed to be a unit quaternion:
+	public MutableVector3D rotate(MutableVector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double v1 = v.x1();
+		double v2 = v.x2();
+		double v3 = v.x3();
+		
+		//t = 2 (x cross v), v' = v + w t + x cross t:
+		double t1 = 2.0 * (x2 * v3 - x3 * v2);
+		double t2 = 2.0 * (x3 * v1 - x1 * v3);
+		double t3 = 2.0 * (x1 * v2 - x2 * v1);
+		
+		return v.set(v1 + w * t1 + (x2 * t3 - x3 * t2),
+		             v2 + w * t2 + (x3 * t1 - x1 * t3),
+		             v3 + w * t3 + (x1 * t2 - x2 * t1));
+	}
+	
+	public Matrix3 toMatrix3() {
+		double xx = x1 * x1, yy = x2 * x2, zz = x3 * x3;
+		double xy = x1 * x2, xz = x1 * x3, yz = x2 * x3;
+		double wx = w * x1, wy = w * x2, wz = w * x3;
+		
+		return new Matrix3(1.0 - 2.0 * (yy + zz), 2.0 * (xy - wz), 2.0 * (xz + wy),
+		                   2.0 * (xy + wz), 1.0 - 2.0 * (xx + zz), 2.0 * (yz - wx),
+		                   2.0 * (xz - wy), 2.0 * (yz + wx), 1.0 - 2.0 * (xx + yy));
+	}
+	
+}
@@ -0,0 +1,176 @@
+package model.geometry3D;
+
+import model.basis.*;
+
+//The points r0 + t * s with tMin <= t <= tMax:
+public class Ray3D extends Line3D {
+	private double tMin, tMax;
+	
+	//Cache of the coordinates for the intersection kernels:
+	private double o1, o2, o3;
+	private double d1, d2, d3;
+	private double i1, i2, i3;
+	
+	public Ray3D(Vector3D origin, Vector3D direction) {
+		this(origin, direction, 0.0, Double.POSITIVE_INFINITY);
+	}
+	
+	public Ray3D(Vector3D origin, Vector3D direction, double tMin, double tMax) {
+		super(origin, direction);
+		
+		if (Double.isNaN(tMin) || Double.isNaN(tMax) || tMin > tMax) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.tMin = tMin;
+		this.tMax = tMax;
+		
+		this.o1 = origin.x1();
+		this.o2 = origin.x2();
+		this.o3 = origin.x3();
+		this.d1 = direction.x1();
+		this.d2 = direction.x2();
+		this.d3 = direction.x3();
+		this.i1 = 1.0 / d1;
+		this.i2 = 1.0 / d2;
+		this.i3 = 1.0 / d3;
+	}
+	
+	//The segment from a to b, for visibility queries:
+	public static Ray3D segment(Vector3D a, Vector3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Ray3D(a, Vector3D.subtract(b, a), 0.0, 1.0);
+	}
+	
+	public Vector3D origin() {
+		return r0();
+	}
+	
+	public Vector3D direction() {
+		return s();
+	}
+	
+	public double tMin() {
+		return tMin;
+	}
+	
+	public double tMax() {
+		return tMax;
+	}
+	
+	public boolean contains(Vector3D r) {
+		if (super.contains(r) == false) {
+			return false;
+		}
+		
+		double t = parameter(r);
+		double e = Geometry.getTolerance().epsilon();
+		
+		return t >= tMin - e && t <= tMax + e;
+	}
+	
+	//Moeller-Trumbore intersection with the triangle stored as nine coordinates (a, b, c)
+	//from offset in abc. Returns t of the hit in [tMin, tMax] and writes the barycentric
+	//coordinates of b and c to uv[0] and uv[1], or NaN if the ray misses:
+	public double intersection(double[] abc, int offset, double tMax, double[] uv) {
+		double a1 = abc[offset];
+		double a2 = abc[offset + 1];
+		double a3 = abc[offset + 2];
+		
+		double ab1 = abc[offset + 3] - a1;
+		double ab2 = abc[offset + 4] - a2;
+		double ab3 = abc[offset + 5] - a3;
+		double ac1 = abc[offset + 6] - a1;
+		double ac2 = abc[offset + 7] - a2;
+		double ac3 = abc[offset + 8] - a3;
+		
+		//p = d x ac, det = ab . p:
+		double p1 = d2 * ac3 - d3 * ac2;
+		double p2 = d3 * ac1 - d1 * ac3;
+		double p3 = d1 * ac2 - d2 * ac1;
+		
+		double det = ab1 * p1 + ab2 * p2 + ab3 * p3;
+		
+		//The ray is parallel to the triangle:
+		if (det == 0.0) {
+			return Double.NaN;
+		}
+		
+		double f = 1.0 / det;
+		
+		double s1 = o1 - a1;
+		double s2 = o2 - a2;
+		double s3 = o3 - a3;
+		
+		double u = (s1 * p1 + s2 * p2 + s3 * p3) * f;
+		
+		if (u < 0.0 || u > 1.0) {
+			return Double.NaN;
+		}
+		
+		//q = s x ab:
+		double q1 = s2 * ab3 - s3 * ab2;
+		double q2 = s3 * ab1 - s1 * ab3;
+		double q3 = s1 * ab2 - s2 * ab1;
+		
+		double v = (d1 * q1 + d2 * q2 + d3 * q3) * f;
+		
+		if (v < 0.0 || u + v > 1.0) {
+			return Double.NaN;
+		}
+		
+		double t = (ac1 * q1 + ac2 * q2 + ac3 * q3) * f;
+		
+		if (t < tMin || t > tMax) {
+			return Double.NaN;
+		}
+		
+		if (uv != null) {
+			uv[0] = u;
+			uv[1] = v;
+		}
+		
+		return t;
+	}
+	
+	//Slab test, returns the t at which the ray enters the box or NaN if it misses it before tMax:
+	public double entry(double min1, double min2, double min3, 
+	                    double max1, double max2, double max3, double tMax) {
+		double t0 = tMin;
+		double t1 = tMax;
+		
+		double n1 = (min1 - o1) * i1, f1 = (max1 - o1) * i1;
+		double n2 = (min2 - o2) * i2, f2 = (max2 - o2) * i2;
+		double n3 = (min3 - o3) * i3, f3 = (max3 - o3) * i3;
+		
+		//A zero direction component gives NaN for an origin on the slab, which the comparisons skip:
+		if (n1 > f1) {
+			double x = n1;
+			n1 = f1;
+			f1 = x;
+		}
+		if (n2 > f2) {
+			double x = n2;
+			n2 = f2;
+			f2 = x;
+		}
+		if (n3 > f3) {
+			double x = n3;
+			n3 = f3;
+			f3 = x;
+		}
+		
+		if (n1 > t0) t0 = n1;
+		if (n2 > t0) t0 = n2;
+		if (n3 > t0) t0 = n3;
+		if (f1 < t1) t1 = f1;
+		if (f2 < t1) t1 = f2;
+		if (f3 < t1) t1 = f3;
+		
+		return (t0 <= t1) ? t0 : Double.NaN;
+	}
+	
+}
@@ -0,0 +1,57 @@
+package model.geometry3D;
+
+//Hit of a ray at ray.vector(t) = a + u * (b - a) + v * (c - a) of the triangle:
+public class RayHit3D {
+	private Ray3D ray;
+	private Triangle3D triangle;
+	private int index;
+	private double t, u, v;
+	
+	public RayHit3D(Ray3D ray, Triangle3D triangle, int index, double t, double u, double v) {
+		if (ray == null || triangle == null || 
+			Double.isNaN(t) || Double.isNaN(u) || Double.isNaN(v)) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.ray = ray;
+		this.triangle = triangle;
+		this.index = index;
+		this.t = t;
+		this.u = u;
+		this.v = v;
+	}
+	
+	public Ray3D getRay() {
+		return ray;
+	}
+	
+	public Triangle3D getTriangle() {
+		return triangle;
+	}
+	
+	//Index of the triangle in the queried array, -1 for a single triangle:
+	public int getIndex() {
+		return index;
+	}
+	
+	public double t() {
+		return t;
+	}
+	
+	public double u() {
+		return u;
+	}
+	
+	public double v() {
+		return v;
+	}
+	
+	public double getDistance() {
+		return Math.abs(t) * ray.direction().norm();
+	}
+	
+	public Vector3D getPoint() {
+		return ray.vector(t);
+	}
+	
+}
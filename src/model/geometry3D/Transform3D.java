@@ -0,0 +1,235 @@
+package model.geometry3D;
+
+import model.basis.*;
+
+//Affine transform x -> Lx + t, compose(a, b) applies b first:
+public class Transform3D {
+	private final Matrix3 linear;
+	private final Vector3D translation;
+	
+	//Entries of linear and translation, read once so applying the transform doesn't look them up:
+	private final double l11, l12, l13, t1;
+	private final double l21, l22, l23, t2;
+	private final double l31, l32, l33, t3;
+	
+	//Cache, volatile for safe publication of the lazily computed values, null if not computed:
+	private volatile Matrix4 matrix;
+	private volatile Transform3D inverse;
+	
+	public static final Transform3D identity = new Transform3D(Matrix3.identity, Vector3D.zeroVector);
+	
+	//Stored as the inverse of transforms with a singular linear part:
+	private static final Transform3D noInverse = new Transform3D(Matrix3.identity, Vector3D.zeroVector);
+	
+	public Transform3D(Matrix3 linear, Vector3D translation) {
+		if (linear == null || translation == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		this.linear = linear;
+		this.translation = translation;
+		
+		l11 = linear.entry(0, 0);
+		l12 = linear.entry(0, 1);
+		l13 = linear.entry(0, 2);
+		l21 = linear.entry(1, 0);
+		l22 = linear.entry(1, 1);
+		l23 = linear.entry(1, 2);
+		l31 = linear.entry(2, 0);
+		l32 = linear.entry(2, 1);
+		l33 = linear.entry(2, 2);
+		
+		t1 = translation.x1();
+		t2 = translation.x2();
+		t3 = translation.x3();
+		
+		matrix = null;
+		inverse = null;
+	}
+	
+	public static Transform3D fromMatrix(Matrix4 m) {
+		if (m == null || 
+			m.entry(3, 0) != 0.0 || m.entry(3, 1) != 0.0 || m.entry(3, 2) != 0.0 || m.entry(3, 3) != 1.0) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Transform3D(new Matrix3(m.entry(0, 0), m.entry(0, 1), m.entry(0, 2),
+		                                   m.entry(1, 0), m.entry(1, 1), m.entry(1, 2),
+		                                   m.entry(2, 0), m.entry(2, 1), m.entry(2, 2)),
+		                       new Vector3D(m.entry(0, 3), m.entry(1, 3), m.entry(2, 3)));
+	}
+	
+	public static Transform3D translation(Vector3D t) {
+		return new Transform3D(Matrix3.identity, t);
+	}
+	
+	public static Transform3D linear(Matrix3 l) {
+		return new Transform3D(l, Vector3D.zeroVector);
+	}
+	
+	public static Transform3D scaling(double k) {
+		return scaling(k, k, k);
+	}
+	
+	public static Transform3D scaling(double k1, double k2, double k3) {
+		return linear(new Matrix3(k1, 0.0, 0.0,
+		                          0.0, k2, 0.0,
+		                          0.0, 0.0, k3));
+	}
+	
+	public static Transform3D rotation_x_axis(double angle) {
+		return linear(Matrix3.rotation_x_axis(angle));
+	}
+	
+	public static Transform3D rotation_y_axis(double angle) {
+		return linear(Matrix3.rotation_y_axis(angle));
+	}
+	
+	public static Transform3D rotation_z_axis(double angle) {
+		return linear(Matrix3.rotation_z_axis(angle));
+	}
+	
+	public static Transform3D rotation(Quaternion q) {
+		if (q == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return linear(q.unit().toMatrix3());
+	}
+	
+	//x -> l(x - p) + p:
+	public static Transform3D aboutPoint(Matrix3 l, Vector3D p) {
+		if (l == null || p == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double[] lp = Matrix3.multiply(l, p.x());
+		
+		return new Transform3D(l, new Vector3D(p.x1() - lp[0],
+		                                       p.x2() - lp[1],
+		                                       p.x3() - lp[2]));
+	}
+	
+	public Matrix3 linear() {
+		return linear;
+	}
+	
+	public Vector3D translation() {
+		return translation;
+	}
+	
+	public Matrix4 matrix() {
+		Matrix4 m = matrix;
+		
+		if (m == null) {
+			m = new Matrix4(l11, l12, l13, t1,
+			                l21, l22, l23, t2,
+			                l31, l32, l33, t3,
+			                0.0, 0.0, 0.0, 1.0);
+			matrix = m;
+		}
+		
+		return m;
+	}
+	
+	//Returns null if the linear part is singular:
+	public Transform3D inverse() {
+		Transform3D t = inverse;
+		
+		if (t == null) {
+			Matrix3 li = linear.inverse();
+			
+			if (li != null) {
+				double[] lt = Matrix3.multiply(li, translation.x());
+				
+				t = new Transform3D(li, new Vector3D(-lt[0], -lt[1], -lt[2]));
+				t.inverse = this;
+			}else{
+				t = noInverse;
+			}
+			
+			inverse = t;
+		}
+		
+		return (t == noInverse) ? null : t;
+	}
+	
+	public boolean isIdentity() {
+		return this == identity || 
+		       (Vector3D.equal(translation, Vector3D.zeroVector) && 
+		        isZeroMatrix(Matrix3.subtract(linear, Matrix3.identity)));
+	}
+	
+	private static boolean isZeroMatrix(Matrix3 m) {
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				if (!Geometry.isZero(m.entry(i, j))) {
+					return false;
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	public Vector3D applyToPoint(Vector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double x1 = v.x1();
+		double x2 = v.x2();
+		double x3 = v.x3();
+		
+		return new Vector3D(l11 * x1 + l12 * x2 + l13 * x3 + t1,
+		                    l21 * x1 + l22 * x2 + l23 * x3 + t2,
+		                    l31 * x1 + l32 * x2 + l33 * x3 + t3);
+	}
+	
+	//Directions ignore the translation:
+	public Vector3D applyToDirection(Vector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return new Vector3D(Matrix3.multiply(linear, v.x()));
+	}
+	
+	public MutableVector3D applyToPoint(MutableVector3D v) {
+		if (v == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double x1 = v.x1();
+		double x2 = v.x2();
+		double x3 = v.x3();
+		
+		return v.set(l11 * x1 + l12 * x2 + l13 * x3 + t1,
+		             l21 * x1 + l22 * x2 + l23 * x3 + t2,
+		             l31 * x1 + l32 * x2 + l33 * x3 + t3);
+	}
+	
+	public void applyToPoints(double[] xyz, int offset, int count) {
+		BatchTransform3D.transform(matrix(), xyz, offset, count, xyz, offset);
+	}
+	
+	public static Transform3D compose(Transform3D a, Transform3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (a == identity) {
+			return b;
+		}else if (b == identity) {
+			return a;
+		}
+		
+		double[] at = Matrix3.multiply(a.linear, b.translation.x());
+		
+		return new Transform3D(Matrix3.multiply(a.linear, b.linear),
+		                       new Vector3D(at[0] + a.translation.x1(),
+		                                    at[1] + a.translation.x2(),
+		                                    at[2] + a.translation.x3()));
+	}
+	
+}
@@ -1,11 +1,77 @@
 package model.geometry3D;
 
+import java.util.Arrays;
+import java.util.concurrent.*;
+
 import model.basis.*;
 
 public class Triangle3D {
 	private Vector3D a, b, c;
 	private Color color;
 	
+	//Cache, volatile for safe publication of the lazily computed values:
+	private volatile Vector3D center;
+	private volatile Vector3D normal;
+	private volatile Plane3D plane;
+	private volatile Barycentric barycentric;
+	private volatile AABB3D bounds;
+	private volatile BoundingSphere3D sphere;
+	
+	//Precomputed form of contains: for r - a, the dot product with n / nn is the distance
+	//from the plane and the dot products with g and h are the coordinates of b and c:
+	private static final class Barycentric {
+		final double a1, a2, a3;
+		final double n1, n2, n3, nn;
+		final double g1, g2, g3;
+		final double h1, h2, h3;
+		final boolean degenerate;
+		
+		Barycentric(Vector3D a, Vector3D b, Vector3D c) {
+			a1 = a.x1();
+			a2 = a.x2();
+			a3 = a.x3();
+			
+			double ab1 = b.x1() - a1, ab2 = b.x2() - a2, ab3 = b.x3() - a3;
+			double ac1 = c.x1() - a1, ac2 = c.x2() - a2, ac3 = c.x3() - a3;
+			
+			n1 = ab2 * ac3 - ab3 * ac2;
+			n2 = ab3 * ac1 - ab1 * ac3;
+			n3 = ab1 * ac2 - ab2 * ac1;
+			nn = Math.sqrt(n1 * n1 + n2 * n2 + n3 * n3);
+			
+			double d00 = ab1 * ab1 + ab2 * ab2 + ab3 * ab3;
+			double d01 = ab1 * ac1 + ab2 * ac2 + ab3 * ac3;
+			double d11 = ac1 * ac1 + ac2 * ac2 + ac3 * ac3;
+			double denom = d00 * d11 - d01 * d01;
+			
+			degenerate = (denom == 0.0);
+			
+			double f = degenerate ? 0.0 : 1.0 / denom;
+			
+			g1 = (d11 * ab1 - d01 * ac1) * f;
+			g2 = (d11 * ab2 - d01 * ac2) * f;
+			g3 = (d11 * ab3 - d01 * ac3) * f;
+			h1 = (d00 * ac1 - d01 * ab1) * f;
+			h2 = (d00 * ac2 - d01 * ab2) * f;
+			h3 = (d00 * ac3 - d01 * ab3) * f;
+		}
+		
+		boolean contains(double x1, double x2, double x3, double e) {
+			double r1 = x1 - a1;
+			double r2 = x2 - a2;
+			double r3 = x3 - a3;
+			
+			if (Math.abs(r1 * n1 + r2 * n2 + r3 * n3) > e * nn) {
+				return false;
+			}
+			
+			double v = r1 * g1 + r2 * g2 + r3 * g3;
+			double w = r1 * h1 + r2 * h2 + r3 * h3;
+			
+			return v >= -e && w >= -e && v + w <= 1.0 + e;
+		}
+	}
+	
 	public Triangle3D(Vector3D a, Vector3D b, Vector3D c, Color color) {
 		if (a == null || b == null || c == null || color == null) {
 			throw new IllegalArgumentException();
@@ -41,7 +107,46 @@ public class Triangle3D {
 	}
 	
 	public Vector3D getCenter() {
-		return Vector3D.average(a, b, c);
+		Vector3D v = center;
+		
+		if (v == null) {
+			v = Vector3D.average(a, b, c);
+			center = v;
+		}
+		
+		return v;
+	}
+	
+	public MutableVector3D getCenter(MutableVector3D result) {
+		if (result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.set((a.x1() + b.x1() + c.x1()) / 3.0, 
+		                  (a.x2() + b.x2() + c.x2()) / 3.0, 
+		                  (a.x3() + b.x3() + c.x3()) / 3.0);
+	}
+	
+	public AABB3D getBounds() {
+		AABB3D bb = bounds;
+		
+		if (bb == null) {
+			bb = AABB3D.fromPoints(new Vector3D[] {a, b, c});
+			bounds = bb;
+		}
+		
+		return bb;
+	}
+	
+	public BoundingSphere3D getBoundingSphere() {
+		BoundingSphere3D s = sphere;
+		
+		if (s == null) {
+			s = BoundingSphere3D.fromPoints(new Vector3D[] {a, b, c});
+			sphere = s;
+		}
+		
+		return s;
 	}
 	
 	public Color getColor() {
@@ -49,14 +154,54 @@ public class Triangle3D {
 	}
 	
 	public Vector3D getNormalVector() {
-		return Vector3D.crossProduct(Vector3D.subtract(b, a), 
-		                             Vector3D.subtract(c, a));
+		Vector3D v = normal;
+		
+		if (v == null) {
+			v = Vector3D.crossProduct(Vector3D.subtract(b, a), 
+			                          Vector3D.subtract(c, a));
+			normal = v;
+		}
+		
+		return v;
+	}
+	
+	public MutableVector3D getNormalVector(MutableVector3D result) {
+		if (result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double ab1 = b.x1() - a.x1();
+		double ab2 = b.x2() - a.x2();
+		double ab3 = b.x3() - a.x3();
+		double ac1 = c.x1() - a.x1();
+		double ac2 = c.x2() - a.x2();
+		double ac3 = c.x3() - a.x3();
+		
+		return result.set(ab2 * ac3 - ab3 * ac2, 
+		                  ab3 * ac1 - ab1 * ac3, 
+		                  ab1 * ac2 - ab2 * ac1);
 	}
 	
 	public Plane3D getPlane() {
-		Vector3D n = getNormalVector();
+		Plane3D p = plane;
+		
+		if (p == null) {
+			p = new Plane3D(a, getNormalVector());
+			plane = p;
+		}
 		
-		return new Plane3D(a, n);
+		return p;
+	}
+	
+	private Barycentric barycentric() {
+		Barycentric k = barycentric;
+		
+		if (k == null) {
+			k = new Barycentric(a, b, c);
+			barycentric = k;
+		}
+		
+		return k;
 	}
 	
 	public boolean contains(Vector3D r) {
@@ -64,145 +209,355 @@ public class Triangle3D {
 			throw new IllegalArgumentException();
 		}
 		
-		Vector3D ar = Vector3D.subtract(r, a);
-		Vector3D ab = Vector3D.subtract(b, a);
-		Vector3D ac = Vector3D.subtract(c, a);
-		Vector3D n = Vector3D.crossProduct(ab, ac);
+		Barycentric k = barycentric();
 		
-		Vector3D[] s = new Vector3D[] {ab, ac, n};
-		Matrix m = Vector3D.matrixWithColumnVectors(s);
-		Matrix t = Matrix.multiply(m.inverse(), 
-		                           Vector3D.matrixWithColumnVector(ar));
+		if (k.degenerate) {
+			return false;
+		}
 		
-		double t1 = t.entry(0, 0);
-		double t2 = t.entry(1, 0);
+		return k.contains(r.x1(), r.x2(), r.x3(), Geometry.getTolerance().epsilon());
+	}
+	
+	//Tests count packed points (x1, x2, x3 per point), sets the flags in result and
+	//returns the number of contained points:
+	public int containsAll(double[] xyz, int offset, int count, boolean[] result, int resultOffset) {
+		if (xyz == null || offset < 0 || count < 0 || 3L * (offset + count) > xyz.length || 
+			result == null || resultOffset < 0 || resultOffset + count > result.length) {
+			throw new IllegalArgumentException();
+		}
+		
+		Barycentric k = barycentric();
+		
+		if (k.degenerate) {
+			Arrays.fill(result, resultOffset, resultOffset + count, false);
+			
+			return 0;
+		}
 		
-		if (Vector3D.orthogonal(ar, n) == false) {
+		double e = Geometry.getTolerance().epsilon();
+		int n = 0;
+		int s = 3 * offset;
+		int r = resultOffset;
+		int end = s + 3 * count;
+		
+		for (; s < end; s += 3, r++) {
+			boolean inside = k.contains(xyz[s], xyz[s + 1], xyz[s + 2], e);
+			
+			result[r] = inside;
+			
+			if (inside) n++;
+		}
+		
+		return n;
+	}
+	
+	//Hit of the ray with the triangle, null if it misses:
+	public RayHit3D intersection(Ray3D ray) {
+		if (ray == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		double[] abc = new double[] {a.x1(), a.x2(), a.x3(), 
+		                             b.x1(), b.x2(), b.x3(), 
+		                             c.x1(), c.x2(), c.x3()};
+		double[] uv = new double[2];
+		double t = ray.intersection(abc, 0, ray.tMax(), uv);
+		
+		if (Double.isNaN(t)) {
+			return null;
+		}
+		
+		return new RayHit3D(ray, this, -1, t, uv[0], uv[1]);
+	}
+	
+	//Interval overlap test after Moeller, touching triangles intersect. Bounding boxes and
+	//the sides of the planes reject most pairs before anything else is computed:
+	public static boolean intersects(Triangle3D a, Triangle3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return intersection(a, b, null, null);
+	}
+	
+	//End points of the segment in which the triangles intersect, null if they don't 
+	//intersect or if they are coplanar:
+	public static Vector3D[] intersection(Triangle3D a, Triangle3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Vector3D[] segment = new Vector3D[2];
+		
+		if (intersection(a, b, segment, null) == false || segment[0] == null) {
+			return null;
+		}
+		
+		return segment;
+	}
+	
+	//onEdge tells for each end point of the segment whether it lies on an edge of a, the other 
+	//end points lie inside a on an edge of b:
+	private static boolean intersection(Triangle3D a, Triangle3D b, Vector3D[] segment, boolean[] onEdge) {
+		if (!AABB3D.overlap(a.getBounds(), b.getBounds())) {
 			return false;
 		}
 		
-		if (t1 < 0.0 || t2 < 0.0) {
+		double[] p = coordinates(a);
+		double[] q = coordinates(b);
+		
+		//Degenerate triangles have no plane to classify the other against and no area to cross:
+		if (collinear(p) || collinear(q)) {
 			return false;
-		}else if (t1 + t2 > 1.0) {
+		}
+		
+		//Signed volumes of the vertices of one triangle against the plane of the other:
+		double da0 = Predicates.orient3d(q[0], q[1], q[2], q[3], q[4], q[5], q[6], q[7], q[8], p[0], p[1], p[2]);
+		double da1 = Predicates.orient3d(q[0], q[1], q[2], q[3], q[4], q[5], q[6], q[7], q[8], p[3], p[4], p[5]);
+		double da2 = Predicates.orient3d(q[0], q[1], q[2], q[3], q[4], q[5], q[6], q[7], q[8], p[6], p[7], p[8]);
+		
+		if (sameSide(da0, da1, da2)) {
 			return false;
 		}
 		
-		return true;
-	}
-	
-	public static Triangle3D[] intersect(Line3D l, Triangle3D t) {
-		Plane3D p = t.getPlane();
+		double db0 = Predicates.orient3d(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7], p[8], q[0], q[1], q[2]);
+		double db1 = Predicates.orient3d(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7], p[8], q[3], q[4], q[5]);
+		double db2 = Predicates.orient3d(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7], p[8], q[6], q[7], q[8]);
 		
-		if (p.contains(l) == false) {
-			return new Triangle3D[] {t};
+		if (sameSide(db0, db1, db2)) {
+			return false;
 		}
 		
-		Vector3D a = t.a();
-		Vector3D b = t.b();
-		Vector3D c = t.c();
+		//Unrounded, the normals of small triangles and their cross product are below the snapping grid:
+		double[] na = normal(p);
 		
-		Line3D ab = new Line3D(a, Vector3D.subtract(b, a));
-		Line3D ac = new Line3D(a, Vector3D.subtract(c, a));
-		Line3D bc = new Line3D(b, Vector3D.subtract(c, b));
+		if (da0 == 0.0 && da1 == 0.0 && da2 == 0.0) {
+			return coplanarIntersection(p, q, dominantAxis(na[0], na[1], na[2]));
+		}
 		
-		if (l.contains(a)) {
-			if (l.contains(b) || l.contains(c)) {
-				return new Triangle3D[] {t};
-			}
-			
-			Vector3D px = Line3D.intersection(l, bc);
-			double x = bc.parameter(px);
-			
-			if (x < 0.0 || x > 1.0) {
-				return new Triangle3D[] {t};
-			}else{
-				return new Triangle3D[] {new Triangle3D(a, b, px, t.getColor()), 
-										 new Triangle3D(a, px, c, t.getColor())};
-			}
-			
-		}else if (l.contains(b)) {
-			if (l.contains(c)) {
-				return new Triangle3D[] {t};
-			}
+		double[] nb = normal(q);
+		
+		//Both triangles cross the line in which the planes intersect, compare the intervals
+		//along the coordinate axis that line is least tilted against:
+		int axis = dominantAxis(na[1] * nb[2] - na[2] * nb[1], 
+		                        na[2] * nb[0] - na[0] * nb[2], 
+		                        na[0] * nb[1] - na[1] * nb[0]);
+		
+		double[] sa = new double[6];
+		double[] sb = new double[6];
+		
+		crossing(p, da0, da1, da2, sa);
+		crossing(q, db0, db1, db2, sb);
+		
+		int ia = (sa[axis] <= sa[3 + axis]) ? 0 : 3;
+		int ib = (sb[axis] <= sb[3 + axis]) ? 0 : 3;
+		
+		if (sa[3 - ia + axis] < sb[ib + axis] || sb[3 - ib + axis] < sa[ia + axis]) {
+			return false;
+		}
+		
+		if (segment != null) {
+			double[] s0 = (sa[ia + axis] >= sb[ib + axis]) ? sa : sb;
+			double[] s1 = (sa[3 - ia + axis] <= sb[3 - ib + axis]) ? sa : sb;
+			int i0 = (s0 == sa) ? ia : ib;
+			int i1 = 3 - ((s1 == sa) ? ia : ib);
 			
-			Vector3D px = Line3D.intersection(l, ac);
-			double x = ac.parameter(px);
+			segment[0] = new Vector3D(s0[i0], s0[i0 + 1], s0[i0 + 2]);
+			segment[1] = new Vector3D(s1[i1], s1[i1 + 1], s1[i1 + 2]);
 			
-			if (x < 0.0 || x > 1.0) {
-				return new Triangle3D[] {t};
-			}else{
-				return new Triangle3D[] {new Triangle3D(a, b, px, t.getColor()), 
-										 new Triangle3D(b, px, c, t.getColor())};
+			if (onEdge != null) {
+				onEdge[0] = (s0 == sa);
+				onEdge[1] = (s1 == sa);
 			}
+		}
+		
+		return true;
+	}
+	
+	private static double[] coordinates(Triangle3D t) {
+		return new double[] {t.a.x1(), t.a.x2(), t.a.x3(), 
+		                     t.b.x1(), t.b.x2(), t.b.x3(), 
+		                     t.c.x1(), t.c.x2(), t.c.x3()};
+	}
+	
+	//Exactly, from the projections to the three coordinate planes:
+	private static boolean collinear(double[] p) {
+		return Predicates.orient2d(p[0], p[1], p[3], p[4], p[6], p[7]) == 0.0 && 
+		       Predicates.orient2d(p[1], p[2], p[4], p[5], p[7], p[8]) == 0.0 && 
+		       Predicates.orient2d(p[2], p[0], p[5], p[3], p[8], p[6]) == 0.0;
+	}
+	
+	private static boolean sameSide(double d0, double d1, double d2) {
+		return (d0 > 0.0 && d1 > 0.0 && d2 > 0.0) || 
+		       (d0 < 0.0 && d1 < 0.0 && d2 < 0.0);
+	}
+	
+	private static double[] normal(double[] p) {
+		return new double[] {(p[4] - p[1]) * (p[8] - p[2]) - (p[5] - p[2]) * (p[7] - p[1]), 
+		                     (p[5] - p[2]) * (p[6] - p[0]) - (p[3] - p[0]) * (p[8] - p[2]), 
+		                     (p[3] - p[0]) * (p[7] - p[1]) - (p[4] - p[1]) * (p[6] - p[0])};
+	}
+	
+	private static int dominantAxis(double n1, double n2, double n3) {
+		n1 = Math.abs(n1);
+		n2 = Math.abs(n2);
+		n3 = Math.abs(n3);
+		
+		if (n1 >= n2 && n1 >= n3) {
+			return 0;
+		}else if (n2 >= n3) {
+			return 1;
+		}else{
+			return 2;
+		}
+	}
+	
+	//Writes the two points in which the edges of the triangle p cross the plane with the
+	//signed volumes d0, d1, d2 of its vertices to s, the vertex alone on its side is the common one:
+	private static void crossing(double[] p, double d0, double d1, double d2, double[] s) {
+		double[] d = {d0, d1, d2};
+		int i;
+		
+		if (d0 * d1 > 0.0) {
+			i = 2;
+		}else if (d0 * d2 > 0.0) {
+			i = 1;
+		}else if (d1 * d2 > 0.0 || d0 != 0.0) {
+			i = 0;
+		}else if (d1 != 0.0) {
+			i = 1;
+		}else{
+			i = 2;
+		}
+		
+		for (int k = 0; k < 2; k++) {
+			int j = (i + 1 + k) % 3;
+			double f = d[i] / (d[i] - d[j]);
 			
-		}else if (l.contains(c)) {
-			Vector3D px = Line3D.intersection(l, ab);
-			double x = ab.parameter(px);
-			
-			if (x < 0.0 || x > 1.0) {
-				return new Triangle3D[] {t};
-			}else{
-				return new Triangle3D[] {new Triangle3D(a, px, c, t.getColor()), 
-										 new Triangle3D(b, px, c, t.getColor())};
+			for (int l = 0; l < 3; l++) {
+				s[3 * k + l] = p[3 * i + l] + f * (p[3 * j + l] - p[3 * i + l]);
 			}
+		}
+	}
+	
+	//Edge crossings and vertex containment in the coordinate plane orthogonal to axis:
+	private static boolean coplanarIntersection(double[] p, double[] q, int axis) {
+		int u = (axis == 0) ? 1 : 0;
+		int w = (axis == 2) ? 1 : 2;
+		
+		for (int i = 0; i < 3; i++) {
+			int i1 = 3 * i, i2 = 3 * ((i + 1) % 3);
 			
-		}else{
-			Vector3D px1 = Line3D.intersection(l, ab);
-			Vector3D px2 = Line3D.intersection(l, ac);
-			Vector3D px3 = Line3D.intersection(l, bc);
-			
-			double x1 = (px1 != null) ? ab.parameter(px1) : -1.0;
-			double x2 = (px2 != null) ? ac.parameter(px2) : -1.0;
-			double x3 = (px3 != null) ? bc.parameter(px3) : -1.0;
-			
-			if (x1 > 0.0 && x1 < 1.0 && 
-				x2 > 0.0 && x2 < 1.0) {
-				return new Triangle3D[] {new Triangle3D(a, px1, px2, t.getColor()), 
-		 				 				 new Triangle3D(px1, px2, b, t.getColor()), 
-		 				 				 new Triangle3D(px2, b, c, t.getColor())};
-				
-			}else if (x1 > 0.0 && x1 < 1.0 && 
-					  x3 > 0.0 && x3 < 1.0) {
-				return new Triangle3D[] {new Triangle3D(b, px1, px3, t.getColor()), 
-		 				 				 new Triangle3D(px1, px3, a, t.getColor()), 
-		 				 				 new Triangle3D(px3, a, c, t.getColor())};
-				
-			}else if (x2 > 0.0 && x2 < 1.0 && 
-					  x3 > 0.0 && x3 < 1.0) {
-				return new Triangle3D[] {new Triangle3D(c, px2, px3, t.getColor()), 
-		 				 				 new Triangle3D(px2, px3, a, t.getColor()), 
-		 				 				 new Triangle3D(px3, a, b, t.getColor())};
+			for (int j = 0; j < 3; j++) {
+				int j1 = 3 * j, j2 = 3 * ((j + 1) % 3);
 				
-			}else{
-				return new Triangle3D[] {t};
+				if (segmentsIntersect(p[i1 + u], p[i1 + w], p[i2 + u], p[i2 + w], 
+				                      q[j1 + u], q[j1 + w], q[j2 + u], q[j2 + w])) {
+					return true;
+				}
 			}
 		}
+		
+		return inside(p, q[u], q[w], u, w) || inside(q, p[u], p[w], u, w);
 	}
-
-	public static Triangle3D[] intersect(Plane3D a, Triangle3D t) {
-		Plane3D b = t.getPlane();
+	
+	private static boolean segmentsIntersect(double ax, double ay, double bx, double by, 
+	                                         double cx, double cy, double dx, double dy) {
+		int o1 = Predicates.sign(Predicates.orient2d(ax, ay, bx, by, cx, cy));
+		int o2 = Predicates.sign(Predicates.orient2d(ax, ay, bx, by, dx, dy));
+		int o3 = Predicates.sign(Predicates.orient2d(cx, cy, dx, dy, ax, ay));
+		int o4 = Predicates.sign(Predicates.orient2d(cx, cy, dx, dy, bx, by));
 		
-		if (Plane3D.parallel(a, b)) {
-			return new Triangle3D[] {t};
+		if (o1 * o2 < 0 && o3 * o4 < 0) {
+			return true;
 		}
 		
-		Line3D l = Plane3D.intersection(a, b);
+		//Collinear end points count if they lie on the other segment:
+		return (o1 == 0 && between(ax, ay, bx, by, cx, cy)) || 
+		       (o2 == 0 && between(ax, ay, bx, by, dx, dy)) || 
+		       (o3 == 0 && between(cx, cy, dx, dy, ax, ay)) || 
+		       (o4 == 0 && between(cx, cy, dx, dy, bx, by));
+	}
+	
+	private static boolean between(double ax, double ay, double bx, double by, double rx, double ry) {
+		return Math.min(ax, bx) <= rx && rx <= Math.max(ax, bx) && 
+		       Math.min(ay, by) <= ry && ry <= Math.max(ay, by);
+	}
+	
+	private static boolean inside(double[] p, double rx, double ry, int u, int w) {
+		int o1 = Predicates.sign(Predicates.orient2d(p[u], p[w], p[3 + u], p[3 + w], rx, ry));
+		int o2 = Predicates.sign(Predicates.orient2d(p[3 + u], p[3 + w], p[6 + u], p[6 + w], rx, ry));
+		int o3 = Predicates.sign(Predicates.orient2d(p[6 + u], p[6 + w], p[u], p[w], rx, ry));
 		
-		return intersect(l, t);
+		return (o1 >= 0 && o2 >= 0 && o3 >= 0) || (o1 <= 0 && o2 <= 0 && o3 <= 0);
 	}
 	
-	public static Triangle3D[] intersect(Triangle3D a, Triangle3D b) {
-		Plane3D c = a.getPlane();
-		Plane3D d = b.getPlane();
+	//Pieces of t on either side of the line if it lies in the plane of t, t itself otherwise:
+	public static Triangle3D[] intersect(Line3D l, Triangle3D t) {
+		if (l == null || t == null) {
+			throw new IllegalArgumentException();
+		}
 		
-		if (Plane3D.parallel(c, d)) {
-			return new Triangle3D[] {a, b};
+		Vector3D r = l.r0();
+		Vector3D[] v = {t.a, t.b, t.c};
+		
+		//Unit normal and direction, from the coordinates since Vector3D rounds its products:
+		double n1 = (v[1].x2() - v[0].x2()) * (v[2].x3() - v[0].x3()) - (v[1].x3() - v[0].x3()) * (v[2].x2() - v[0].x2());
+		double n2 = (v[1].x3() - v[0].x3()) * (v[2].x1() - v[0].x1()) - (v[1].x1() - v[0].x1()) * (v[2].x3() - v[0].x3());
+		double n3 = (v[1].x1() - v[0].x1()) * (v[2].x2() - v[0].x2()) - (v[1].x2() - v[0].x2()) * (v[2].x1() - v[0].x1());
+		double nn = Math.sqrt(n1 * n1 + n2 * n2 + n3 * n3);
+		double s1 = l.s().x1(), s2 = l.s().x2(), s3 = l.s().x3();
+		double sn = Math.sqrt(s1 * s1 + s2 * s2 + s3 * s3);
+		
+		if (nn == 0.0) {
+			return new Triangle3D[] {t};
 		}
 		
-		Line3D l = Plane3D.intersection(c, d);
+		n1 /= nn; n2 /= nn; n3 /= nn;
 		
-		Triangle3D[] as = intersect(l, a);
-		Triangle3D[] bs = intersect(l, b);
+		//Snapped coordinates are up to about a grid step of 2 epsilon off, so the point of the line
+		//may be that far from the plane and its direction tilted by about a step over its length:
+		double e = 4.0 * Geometry.getTolerance().epsilon();
+		double d = (r.x1() - v[0].x1()) * n1 + (r.x2() - v[0].x2()) * n2 + (r.x3() - v[0].x3()) * n3;
+		double tilt = (s1 * n1 + s2 * n2 + s3 * n3) / sn;
+		
+		if (Math.abs(d) > e || Math.abs(tilt) > e / sn) {
+			return new Triangle3D[] {t};
+		}
+		
+		s1 /= sn; s2 /= sn; s3 /= sn;
+		
+		//Cut by the plane through the line orthogonal to t:
+		return split(t, r.x1(), r.x2(), r.x3(), 
+		                r.x1() + s1, r.x2() + s2, r.x3() + s3, 
+		                r.x1() + n1, r.x2() + n2, r.x3() + n3);
+	}
+	
+	//Pieces of t on either side of the plane, t itself if the plane doesn't cut it:
+	public static Triangle3D[] intersect(Plane3D a, Triangle3D t) {
+		if (a == null || t == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Vector3D r = a.r0();
+		Vector3D s1 = a.s1();
+		Vector3D s2 = a.s2();
+		double n1 = Math.sqrt(s1.x1() * s1.x1() + s1.x2() * s1.x2() + s1.x3() * s1.x3());
+		double n2 = Math.sqrt(s2.x1() * s2.x1() + s2.x2() * s2.x2() + s2.x3() * s2.x3());
+		
+		return split(t, r.x1(), r.x2(), r.x3(), 
+		                r.x1() + s1.x1() / n1, r.x2() + s1.x2() / n1, r.x3() + s1.x3() / n1, 
+		                r.x1() + s2.x1() / n2, r.x2() + s2.x2() / n2, r.x3() + s2.x3() / n2);
+	}
+	
+	//Pieces of a followed by those of b, each cut along the segment in which they penetrate:
+	public static Triangle3D[] intersect(Triangle3D a, Triangle3D b) {
+		if (a == null || b == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		Triangle3D[] as = cut(a, b);
+		Triangle3D[] bs = cut(b, a);
 		
 		Triangle3D[] intersection = new Triangle3D[as.length + bs.length];
 		
@@ -216,8 +571,281 @@ public class Triangle3D {
 		return intersection;
 	}
 	
+	//Pieces of t cut along the segment in which it penetrates u, t itself if they only touch in
+	//a point or don't intersect. Only the segment is cut, not the rest of the plane of u:
+	private static Triangle3D[] cut(Triangle3D t, Triangle3D u) {
+		Vector3D[] s = new Vector3D[2];
+		boolean[] onEdge = new boolean[2];
+		
+		if (!intersection(t, u, s, onEdge) || s[0] == null || 
+			Geometry.isZero(Vector3D.subtract(s[1], s[0]).norm())) {
+			return new Triangle3D[] {t};
+		}
+		
+		if (onEdge[0] && onEdge[1]) {
+			//The segment runs from edge to edge, it is all of t the plane of u cuts:
+			return split(t, u);
+		}
+		
+		//Fan t around an end point inside it, then cut the piece the other end point lies in:
+		Vector3D q = onEdge[0] ? s[1] : s[0];
+		Vector3D x = onEdge[0] ? s[0] : s[1];
+		
+		Triangle3D[] fan = fan(t, q);
+		int k = containing(t, fan, x);
+		Triangle3D f = fan[k];
+		Triangle3D[] inner;
+		
+		if (onEdge[0] || onEdge[1]) {
+			//x is on the edge of f opposite of q:
+			inner = new Triangle3D[] {new Triangle3D(f.a, x, q, t.color), 
+			                          new Triangle3D(x, f.b, q, t.color)};
+		}else{
+			inner = fan(f, x);
+		}
+		
+		Triangle3D[] ps = new Triangle3D[2 + inner.length];
+		int m = 0;
+		
+		for (int i = 0; i < 3; i++) {
+			if (i != k) ps[m++] = fan[i];
+		}
+		for (Triangle3D p : inner) {
+			ps[m++] = p;
+		}
+		
+		return pieces(t, ps);
+	}
+	
+	//Triangles from the edges of t to q, in the orientation of t:
+	private static Triangle3D[] fan(Triangle3D t, Vector3D q) {
+		return new Triangle3D[] {new Triangle3D(t.a, t.b, q, t.color), 
+		                         new Triangle3D(t.b, t.c, q, t.color), 
+		                         new Triangle3D(t.c, t.a, q, t.color)};
+	}
+	
+	//Index of the triangle of the fan of t that x lies deepest in, by the smallest barycentric
+	//coordinate in the coordinate plane t is least tilted against:
+	private static int containing(Triangle3D t, Triangle3D[] fan, Vector3D x) {
+		double[] n = normal(coordinates(t));
+		int axis = dominantAxis(n[0], n[1], n[2]);
+		int u = (axis == 0) ? 1 : 0;
+		int w = (axis == 2) ? 1 : 2;
+		
+		double[] r = {x.x1(), x.x2(), x.x3()};
+		int best = 0;
+		double bestDepth = Double.NEGATIVE_INFINITY;
+		
+		for (int i = 0; i < fan.length; i++) {
+			double[] f = coordinates(fan[i]);
+			double o0 = Predicates.orient2d(f[u], f[w], f[3 + u], f[3 + w], r[u], r[w]);
+			double o1 = Predicates.orient2d(f[3 + u], f[3 + w], f[6 + u], f[6 + w], r[u], r[w]);
+			double o2 = Predicates.orient2d(f[6 + u], f[6 + w], f[u], f[w], r[u], r[w]);
+			double sum = o0 + o1 + o2;
+			
+			if (sum == 0.0) {
+				continue;
+			}
+			
+			//The fan has the orientation of t, which may be negative in this plane:
+			double depth = ((sum > 0.0) ? Math.min(o0, Math.min(o1, o2)) : Math.max(o0, Math.max(o1, o2))) / sum;
+			
+			if (depth > bestDepth) {
+				best = i;
+				bestDepth = depth;
+			}
+		}
+		
+		return best;
+	}
+	
+	private static Triangle3D[] split(Triangle3D t, Triangle3D u) {
+		return split(t, u.a.x1(), u.a.x2(), u.a.x3(), 
+		                u.b.x1(), u.b.x2(), u.b.x3(), 
+		                u.c.x1(), u.c.x2(), u.c.x3());
+	}
+	
+	//Pieces of t on either side of the plane through p, q and r, t itself if the plane doesn't 
+	//cut it. The signed volumes from orient3d decide the sides, the vertex order is kept:
+	private static Triangle3D[] split(Triangle3D t, double p1, double p2, double p3, 
+	                                                double q1, double q2, double q3, 
+	                                                double r1, double r2, double r3) {
+		Vector3D[] v = {t.a, t.b, t.c};
+		double[] d = new double[3];
+		
+		for (int i = 0; i < 3; i++) {
+			d[i] = Predicates.orient3d(p1, p2, p3, q1, q2, q3, r1, r2, r3, 
+			                           v[i].x1(), v[i].x2(), v[i].x3());
+		}
+		
+		for (int i = 0; i < 3; i++) {
+			int j = (i + 1) % 3;
+			int k = (i + 2) % 3;
+			
+			if (d[i] == 0.0 && d[j] * d[k] < 0.0) {
+				//The plane runs through v[i] and crosses the opposite edge:
+				Vector3D x = crossing(v[j], d[j], v[k], d[k]);
+				
+				return pieces(t, new Triangle3D(v[i], v[j], x, t.color), 
+				                 new Triangle3D(v[i], x, v[k], t.color));
+			
+			}else if (d[i] * d[j] < 0.0 && d[i] * d[k] < 0.0) {
+				//v[i] is alone on its side:
+				Vector3D x = crossing(v[i], d[i], v[j], d[j]);
+				Vector3D y = crossing(v[k], d[k], v[i], d[i]);
+				
+				return pieces(t, new Triangle3D(v[i], x, y, t.color), 
+				                 new Triangle3D(x, v[j], v[k], t.color), 
+				                 new Triangle3D(x, v[k], y, t.color));
+			}
+		}
+		
+		return new Triangle3D[] {t};
+	}
+	
+	private static Vector3D crossing(Vector3D p, double dp, Vector3D q, double dq) {
+		double f = dp / (dp - dq);
+		
+		return new Vector3D(p.x1() + f * (q.x1() - p.x1()), 
+		                    p.x2() + f * (q.x2() - p.x2()), 
+		                    p.x3() + f * (q.x3() - p.x3()));
+	}
+	
+	//Drops pieces without area, which a cut close to a vertex produces:
+	private static Triangle3D[] pieces(Triangle3D t, Triangle3D... ps) {
+		Triangle3D[] result = new Triangle3D[ps.length];
+		int m = 0;
+		
+		for (Triangle3D p : ps) {
+			//Zero length edges aren't collinear to Vector3D.collinear:
+			if (!collinear(coordinates(p)) && 
+				!Vector3D.collinear(Vector3D.subtract(p.b, p.a), Vector3D.subtract(p.c, p.a))) {
+				result[m++] = p;
+			}
+		}
+		
+		if (m == 0) {
+			return new Triangle3D[] {t};
+		}
+		
+		return (m == ps.length) ? result : Arrays.copyOf(result, m);
+	}
+	
+	//Splits the triangles along the planes of the triangles they intersect, so that no two
+	//pieces penetrate each other. Candidate pairs come from the bounding volume hierarchy,
+	//large sets are split in parallel, the pieces of each triangle stay in its place:
 	public static Triangle3D[] intersect(Triangle3D[] triangles) {
-		return triangles; //TODO: implement better solution
+		if (triangles == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		int n = triangles.length;
+		
+		if (n < 2) {
+			return triangles;
+		}
+		
+		TriangleBVH3D bvh = new TriangleBVH3D(triangles);
+		Triangle3D[][] pieces = new Triangle3D[n][];
+		
+		if (n >= parallelThreshold && 
+			ForkJoinPool.getCommonPoolParallelism() > 1) {
+			ForkJoinPool.commonPool().invoke(new SplitTask(triangles, bvh, pieces, 0, n));
+		}else{
+			split(triangles, bvh, pieces, 0, n);
+		}
+		
+		int m = 0;
+		
+		for (Triangle3D[] ps : pieces) {
+			m += ps.length;
+		}
+		
+		if (m == n) {
+			return triangles;
+		}
+		
+		Triangle3D[] result = new Triangle3D[m];
+		int k = 0;
+		
+		for (Triangle3D[] ps : pieces) {
+			System.arraycopy(ps, 0, 
+			                 result, k, 
+			                 ps.length);
+			k += ps.length;
+		}
+		
+		return result;
+	}
+	
+	//Above this many triangles the splitting runs in parallel:
+	private static final int parallelThreshold = 1024;
+	
+	//Pieces of triangles i0 to i1:
+	private static void split(Triangle3D[] triangles, TriangleBVH3D bvh, Triangle3D[][] pieces, int i0, int i1) {
+		for (int i = i0; i < i1; i++) {
+			Triangle3D t = triangles[i];
+			Triangle3D[] ps = new Triangle3D[] {t};
+			
+			int[] candidates = bvh.overlapping(Math.min(t.a.x1(), Math.min(t.b.x1(), t.c.x1())), 
+			                                   Math.min(t.a.x2(), Math.min(t.b.x2(), t.c.x2())), 
+			                                   Math.min(t.a.x3(), Math.min(t.b.x3(), t.c.x3())), 
+			                                   Math.max(t.a.x1(), Math.max(t.b.x1(), t.c.x1())), 
+			                                   Math.max(t.a.x2(), Math.max(t.b.x2(), t.c.x2())), 
+			                                   Math.max(t.a.x3(), Math.max(t.b.x3(), t.c.x3())));
+			
+			for (int j : candidates) {
+				if (j == i) continue;
+				
+				Triangle3D u = triangles[j];
+				Triangle3D[] next = new Triangle3D[ps.length];
+				int m = 0;
+				
+				for (Triangle3D p : ps) {
+					Triangle3D[] qs = cut(p, u);
+					
+					if (m + qs.length > next.length) {
+						next = Arrays.copyOf(next, 2 * (m + qs.length));
+					}
+					
+					System.arraycopy(qs, 0, 
+					                 next, m, 
+					                 qs.length);
+					m += qs.length;
+				}
+				
+				ps = (m == next.length) ? next : Arrays.copyOf(next, m);
+			}
+			
+			pieces[i] = ps;
+		}
+	}
+	
+	@SuppressWarnings("serial")
+	private static class SplitTask extends RecursiveAction {
+		private Triangle3D[] triangles;
+		private TriangleBVH3D bvh;
+		private Triangle3D[][] pieces;
+		private int i0, i1;
+		
+		SplitTask(Triangle3D[] triangles, TriangleBVH3D bvh, Triangle3D[][] pieces, int i0, int i1) {
+			this.triangles = triangles;
+			this.bvh = bvh;
+			this.pieces = pieces;
+			this.i0 = i0;
+			this.i1 = i1;
+		}
+		
+		protected void compute() {
+			if (i1 - i0 <= parallelThreshold / 4) {
+				split(triangles, bvh, pieces, i0, i1);
+			}else{
+				int im = (i0 + i1) >>> 1;
+				
+				invokeAll(new SplitTask(triangles, bvh, pieces, i0, im), 
+				          new SplitTask(triangles, bvh, pieces, im, i1));
+			}
+		}
 	}
 	
 }
@@ -0,0 +1,403 @@
+package model.geometry3D;
+
+import java.util.Arrays;
+
+//Bounding volume hierarchy over triangles for ray and box queries. Nodes are stored depth first in flat
+//arrays, an inner node's first child follows it and its second child is at second[node]:
+public class TriangleBVH3D {
+	private static final int leafSize = 4;
+	
+	private Triangle3D[] triangles;
+	
+	//Triangles in leaf order, ids[i] is the index in triangles of the one at slot i, 
+	//abc holds the nine coordinates of each slot:
+	private int[] ids;
+	private double[] abc;
+	private double[] centers;
+	
+	private int nodeCount;
+	private double[] bounds;
+	private int[] second;
+	private int[] start;
+	private int[] count;
+	
+	public TriangleBVH3D(Triangle3D[] triangles) {
+		if (triangles == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		int n = triangles.length;
+		
+		this.triangles = triangles;
+		this.ids = new int[n];
+		this.abc = new double[9 * n];
+		this.centers = new double[3 * n];
+		
+		for (int i = 0; i < n; i++) {
+			Triangle3D t = triangles[i];
+			
+			if (t == null) {
+				throw new IllegalArgumentException();
+			}
+			
+			ids[i] = i;
+			pack(t, abc, 9 * i);
+			centers[3 * i] = abc[9 * i] + abc[9 * i + 3] + abc[9 * i + 6];
+			centers[3 * i + 1] = abc[9 * i + 1] + abc[9 * i + 4] + abc[9 * i + 7];
+			centers[3 * i + 2] = abc[9 * i + 2] + abc[9 * i + 5] + abc[9 * i + 8];
+		}
+		
+		int capacity = Math.max(1, n);
+		
+		nodeCount = 0;
+		bounds = new double[6 * capacity];
+		second = new int[capacity];
+		start = new int[capacity];
+		count = new int[capacity];
+		
+		if (n > 0) {
+			build(0, n);
+		}
+		
+		//Reorder the coordinates to the leaf order:
+		double[] packed = new double[9 * n];
+		
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(abc, 9 * ids[i], 
+			                 packed, 9 * i, 9);
+		}
+		
+		abc = packed;
+		centers = null;
+	}
+	
+	private static void pack(Triangle3D t, double[] abc, int offset) {
+		abc[offset] = t.a().x1();
+		abc[offset + 1] = t.a().x2();
+		abc[offset + 2] = t.a().x3();
+		abc[offset + 3] = t.b().x1();
+		abc[offset + 4] = t.b().x2();
+		abc[offset + 5] = t.b().x3();
+		abc[offset + 6] = t.c().x1();
+		abc[offset + 7] = t.c().x2();
+		abc[offset + 8] = t.c().x3();
+	}
+	
+	public int getNumberOfTriangles() {
+		return triangles.length;
+	}
+	
+	public Triangle3D[] getTriangles() {
+		return triangles;
+	}
+	
+	public int getNumberOfNodes() {
+		return nodeCount;
+	}
+	
+	//Splits the slots lo to hi at the median center along the axis of largest extent:
+	private int build(int lo, int hi) {
+		int node = nodeCount;
+		
+		if (node == second.length) {
+			int capacity = 2 * node;
+			
+			bounds = Arrays.copyOf(bounds, 6 * capacity);
+			second = Arrays.copyOf(second, capacity);
+			start = Arrays.copyOf(start, capacity);
+			count = Arrays.copyOf(count, capacity);
+		}
+		
+		nodeCount++;
+		
+		double min1 = Double.POSITIVE_INFINITY, max1 = Double.NEGATIVE_INFINITY;
+		double min2 = Double.POSITIVE_INFINITY, max2 = Double.NEGATIVE_INFINITY;
+		double min3 = Double.POSITIVE_INFINITY, max3 = Double.NEGATIVE_INFINITY;
+		double cmin1 = Double.POSITIVE_INFINITY, cmax1 = Double.NEGATIVE_INFINITY;
+		double cmin2 = Double.POSITIVE_INFINITY, cmax2 = Double.NEGATIVE_INFINITY;
+		double cmin3 = Double.POSITIVE_INFINITY, cmax3 = Double.NEGATIVE_INFINITY;
+		
+		for (int i = lo; i < hi; i++) {
+			int id = ids[i];
+			
+			for (int j = 9 * id; j < 9 * id + 9; j += 3) {
+				min1 = Math.min(min1, abc[j]);
+				max1 = Math.max(max1, abc[j]);
+				min2 = Math.min(min2, abc[j + 1]);
+				max2 = Math.max(max2, abc[j + 1]);
+				min3 = Math.min(min3, abc[j + 2]);
+				max3 = Math.max(max3, abc[j + 2]);
+			}
+			
+			cmin1 = Math.min(cmin1, centers[3 * id]);
+			cmax1 = Math.max(cmax1, centers[3 * id]);
+			cmin2 = Math.min(cmin2, centers[3 * id + 1]);
+			cmax2 = Math.max(cmax2, centers[3 * id + 1]);
+			cmin3 = Math.min(cmin3, centers[3 * id + 2]);
+			cmax3 = Math.max(cmax3, centers[3 * id + 2]);
+		}
+		
+		bounds[6 * node] = min1;
+		bounds[6 * node + 1] = min2;
+		bounds[6 * node + 2] = min3;
+		bounds[6 * node + 3] = max1;
+		bounds[6 * node + 4] = max2;
+		bounds[6 * node + 5] = max3;
+		
+		double e1 = cmax1 - cmin1;
+		double e2 = cmax2 - cmin2;
+		double e3 = cmax3 - cmin3;
+		
+		int axis = (e1 >= e2 && e1 >= e3) ? 0 : (e2 >= e3) ? 1 : 2;
+		
+		//Leaves for few triangles and for triangles that can't be told apart by their centers:
+		if (hi - lo <= leafSize || Math.max(e1, Math.max(e2, e3)) == 0.0) {
+			second[node] = -1;
+			start[node] = lo;
+			count[node] = hi - lo;
+			
+			return node;
+		}
+		
+		int mid = (lo + hi) >>> 1;
+		
+		select(lo, hi - 1, mid, axis);
+		
+		build(lo, mid);
+		
+		//Building may grow the arrays, so they are only indexed after it:
+		int r = build(mid, hi);
+		
+		second[node] = r;
+		start[node] = lo;
+		count[node] = 0;
+		
+		return node;
+	}
+	
+	//Partitions the slots lo to hi (inclusive) so that slot k holds the k-th center along axis:
+	private void select(int lo, int hi, int k, int axis) {
+		while (hi > lo) {
+			double pivot = centers[3 * ids[(lo + hi) >>> 1] + axis];
+			int i = lo;
+			int j = hi;
+			
+			while (i <= j) {
+				while (centers[3 * ids[i] + axis] < pivot) i++;
+				while (centers[3 * ids[j] + axis] > pivot) j--;
+				
+				if (i <= j) {
+					int id = ids[i];
+					ids[i] = ids[j];
+					ids[j] = id;
+					i++;
+					j--;
+				}
+			}
+			
+			if (k <= j) {
+				hi = j;
+			}else if (k >= i) {
+				lo = i;
+			}else{
+				return;
+			}
+		}
+	}
+	
+	private double entry(Ray3D ray, int node, double tMax) {
+		int b = 6 * node;
+		
+		return ray.entry(bounds[b], bounds[b + 1], bounds[b + 2], 
+		                 bounds[b + 3], bounds[b + 4], bounds[b + 5], tMax);
+	}
+	
+	//Indices of the triangles whose bounding boxes overlap the box:
+	public int[] overlapping(double min1, double min2, double min3, 
+	                         double max1, double max2, double max3) {
+		if (Double.isNaN(min1) || Double.isNaN(min2) || Double.isNaN(min3) || 
+			Double.isNaN(max1) || Double.isNaN(max2) || Double.isNaN(max3)) {
+			throw new IllegalArgumentException();
+		}
+		
+		int[] result = new int[0];
+		int m = 0;
+		
+		if (nodeCount == 0) {
+			return result;
+		}
+		
+		int[] stack = new int[64];
+		int sp = 0;
+		
+		stack[sp++] = 0;
+		
+		while (sp > 0) {
+			int node = stack[--sp];
+			int b = 6 * node;
+			
+			if (bounds[b] > max1 || bounds[b + 3] < min1 || 
+				bounds[b + 1] > max2 || bounds[b + 4] < min2 || 
+				bounds[b + 2] > max3 || bounds[b + 5] < min3) {
+				continue;
+			}
+			
+			if (second[node] >= 0) {
+				stack[sp++] = second[node];
+				stack[sp++] = node + 1;
+				
+				continue;
+			}
+			
+			for (int i = start[node]; i < start[node] + count[node]; i++) {
+				int j = 9 * i;
+				
+				if (Math.min(abc[j], Math.min(abc[j + 3], abc[j + 6])) > max1 || 
+					Math.max(abc[j], Math.max(abc[j + 3], abc[j + 6])) < min1 || 
+					Math.min(abc[j + 1], Math.min(abc[j + 4], abc[j + 7])) > max2 || 
+					Math.max(abc[j + 1], Math.max(abc[j + 4], abc[j + 7])) < min2 || 
+					Math.min(abc[j + 2], Math.min(abc[j + 5], abc[j + 8])) > max3 || 
+					Math.max(abc[j + 2], Math.max(abc[j + 5], abc[j + 8])) < min3) {
+					continue;
+				}
+				
+				if (m == result.length) {
+					result = Arrays.copyOf(result, Math.max(8, 2 * m));
+				}
+				
+				result[m++] = ids[i];
+			}
+		}
+		
+		return Arrays.copyOf(result, m);
+	}
+	
+	//Nearest hit, null if the ray misses every triangle:
+	public RayHit3D intersection(Ray3D ray) {
+		if (ray == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (nodeCount == 0) {
+			return null;
+		}
+		
+		double[] uv = new double[2];
+		double best = ray.tMax();
+		double bestU = 0.0, bestV = 0.0;
+		int hit = -1;
+		
+		int[] stack = new int[64];
+		double[] entries = new double[64];
+		int sp = 0;
+		
+		double t0 = entry(ray, 0, best);
+		
+		if (Double.isNaN(t0)) {
+			return null;
+		}
+		
+		stack[sp] = 0;
+		entries[sp] = t0;
+		sp++;
+		
+		while (sp > 0) {
+			sp--;
+			
+			int node = stack[sp];
+			
+			//Skip nodes behind a closer hit found since they were pushed:
+			if (entries[sp] > best) {
+				continue;
+			}
+			
+			if (second[node] < 0) {
+				for (int i = start[node]; i < start[node] + count[node]; i++) {
+					double t = ray.intersection(abc, 9 * i, best, uv);
+					
+					if (!Double.isNaN(t)) {
+						best = t;
+						bestU = uv[0];
+						bestV = uv[1];
+						hit = i;
+					}
+				}
+				
+				continue;
+			}
+			
+			int l = node + 1;
+			int r = second[node];
+			double tl = entry(ray, l, best);
+			double tr = entry(ray, r, best);
+			
+			//The nearer child is pushed last and visited first:
+			if (!Double.isNaN(tl) && !Double.isNaN(tr) && tl < tr) {
+				stack[sp] = r;
+				entries[sp] = tr;
+				sp++;
+				stack[sp] = l;
+				entries[sp] = tl;
+				sp++;
+			}else{
+				if (!Double.isNaN(tl)) {
+					stack[sp] = l;
+					entries[sp] = tl;
+					sp++;
+				}
+				if (!Double.isNaN(tr)) {
+					stack[sp] = r;
+					entries[sp] = tr;
+					sp++;
+				}
+			}
+		}
+		
+		if (hit < 0) {
+			return null;
+		}
+		
+		return new RayHit3D(ray, triangles[ids[hit]], ids[hit], best, bestU, bestV);
+	}
+	
+	//Whether the ray hits any triangle, stops at the first hit found:
+	public boolean intersects(Ray3D ray) {
+		if (ray == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (nodeCount == 0) {
+			return false;
+		}
+		
+		double tMax = ray.tMax();
+		int[] stack = new int[64];
+		int sp = 0;
+		
+		stack[sp++] = 0;
+		
+		while (sp > 0) {
+			int node = stack[--sp];
+			
+			if (Double.isNaN(entry(ray, node, tMax))) {
+				continue;
+			}
+			
+			if (second[node] < 0) {
+				for (int i = start[node]; i < start[node] + count[node]; i++) {
+					if (!Double.isNaN(ray.intersection(abc, 9 * i, tMax, null))) {
+						return true;
+					}
+				}
+				
+				continue;
+			}
+			
+			stack[sp++] = second[node];
+			stack[sp++] = node + 1;
+		}
+		
+		return false;
+	}
+	
+}
@@ -53,6 +53,10 @@ public class Vector3D {
 		return new double[] {x1, x2, x3};
 	}
 	
+	public MutableVector3D toMutableVector3D() {
+		return new MutableVector3D(x1, x2, x3);
+	}
+	
 	public Vector3D neg() {
 		return new Vector3D(-x1, -x2, -x3);
 	}
@@ -66,7 +70,7 @@ public class Vector3D {
 	public Vector3D unit() {
 		double n = norm();
 		
-		if (n == 0.0) {
+		if (Geometry.isZero(n)) {
 			return null;
 		}else{
 			return new Vector3D(x1 / n, x2 / n, x3 / n);
@@ -131,6 +135,36 @@ public class Vector3D {
 		                    k * a.x3());
 	}
 	
+	public static MutableVector3D add(Vector3D a, Vector3D b, MutableVector3D result) {
+		if (a == null || b == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.set(a.x1() + b.x1(), 
+		                  a.x2() + b.x2(), 
+		                  a.x3() + b.x3());
+	}
+	
+	public static MutableVector3D subtract(Vector3D m, Vector3D s, MutableVector3D result) {
+		if (m == null || s == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.set(m.x1() - s.x1(), 
+		                  m.x2() - s.x2(), 
+		                  m.x3() - s.x3());
+	}
+	
+	public static MutableVector3D multiply(double k, Vector3D a, MutableVector3D result) {
+		if (Double.isNaN(k) || a == null || result == null) {
+			throw new IllegalArgumentException();
+		}
+		
+		return result.set(k * a.x1(), 
+		                  k * a.x2(), 
+		                  k * a.x3());
+	}
+	
 	public static Vector3D average(Vector3D a, Vector3D b) {
 		if (a == null || b == null) {
 			throw new IllegalArgumentException();
@@ -188,6 +222,10 @@ public class Vector3D {
 		                    a.x1() * b.x2() - a.x2() * b.x1());
 	}
 	
+	public static MutableVector3D crossProduct(Vector3D a, Vector3D b, MutableVector3D result) {
+		return MutableVector3D.crossInto(a, b, result);
+	}
+	
 	public static double angle(Vector3D a, Vector3D b) {
 		if (a == null || b == null) {
 			throw new IllegalArgumentException();
@@ -239,15 +277,19 @@ public class Vector3D {
 			throw new IllegalArgumentException();
 		}
 		
-		double ab = dotProduct(a, b);
 		double an = a.norm();
 		double bn = b.norm();
 		
-		if (an == 0.0 || bn == 0.0) {
+		if (Geometry.isZero(an) || Geometry.isZero(bn)) {
 			return false;
-		}else{
-			return Geometry.round(ab - an * bn) == 0.0;
 		}
+		
+		//|a x b| = |a| |b| sin(angle):
+		double c1 = a.x2() * b.x3() - a.x3() * b.x2();
+		double c2 = a.x3() * b.x1() - a.x1() * b.x3();
+		double c3 = a.x1() * b.x2() - a.x2() * b.x1();
+		
+		return Geometry.isZero(Math.sqrt(c1 * c1 + c2 * c2 + c3 * c3) / (an * bn));
 	}
 	
 	public static boolean orthogonal(Vector3D a, Vector3D b) {
@@ -255,9 +297,17 @@ public class Vector3D {
 			throw new IllegalArgumentException();
 		}
 		
-		double ab = dotProduct(a, b);
+		double an = a.norm();
+		double bn = b.norm();
+		
+		if (Geometry.isZero(an) || Geometry.isZero(bn)) {
+			return true;
+		}
+		
+		//a . b = |a| |b| cos(angle):
+		double ab = a.x1() * b.x1() + a.x2() * b.x2() + a.x3() * b.x3();
 		
-		return ab == 0.0;
+		return Geometry.isZero(ab / (an * bn));
 	}
 	
 	public static boolean equal(Vector3D a, Vector3D b) {
@@ -265,9 +315,9 @@ public class Vector3D {
 			throw new IllegalArgumentException();
 		}
 		
-		if (a.x1() != b.x1()) return false;
-		if (a.x2() != b.x2()) return false;
-		if (a.x3() != b.x3()) return false;
+		if (!Geometry.equal(a.x1(), b.x1())) return false;
+		if (!Geometry.equal(a.x2(), b.x2())) return false;
+		if (!Geometry.equal(a.x3(), b.x3())) return false;
 		
 		return true;
 	}
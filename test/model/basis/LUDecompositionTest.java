@@ -0,0 +1,80 @@
+package model.basis;
+
+//Behavior checks for LUDecomposition, run with main. Throws on the first failure:
+public class LUDecompositionTest {
+	
+	public static void main(String[] args) {
+		solvesSystem();
+		invertsMatrix();
+		detectsSingularity();
+		scaledIdentityIsRegular();
+		
+		System.out.println("LUDecompositionTest passed");
+	}
+	
+	private static void solvesSystem() {
+		Matrix a = new Matrix(new double[][] {{2.0, 1.0, 1.0}, 
+		                                      {4.0, -6.0, 0.0}, 
+		                                      {-2.0, 7.0, 2.0}});
+		double[] x = a.lu().solve(new double[] {5.0, -2.0, 9.0});
+		
+		check(x != null, "solution exists");
+		check(close(x[0], 1.0) && close(x[1], 1.0) && close(x[2], 2.0), "solution is (1, 1, 2)");
+		check(close(a.lu().determinant(), -16.0), "determinant is -16");
+	}
+	
+	private static void invertsMatrix() {
+		Matrix a = new Matrix(new double[][] {{4.0, 7.0, 2.0, 0.0}, 
+		                                      {3.0, 6.0, 1.0, 1.0}, 
+		                                      {2.0, 5.0, 3.0, 0.0}, 
+		                                      {1.0, 0.0, 0.0, 2.0}});
+		Matrix i = Matrix.multiply(a, a.lu().inverse());
+		
+		for (int r = 0; r < 4; r++) {
+			for (int c = 0; c < 4; c++) {
+				check(close(i.entry(r, c), (r == c) ? 1.0 : 0.0), "a * inverse(a) is the identity");
+			}
+		}
+	}
+	
+	private static void detectsSingularity() {
+		Matrix a = new Matrix(new double[][] {{1.0, 2.0, 3.0}, 
+		                                      {4.0, 5.0, 6.0}, 
+		                                      {7.0, 8.0, 9.0}});
+		
+		check(a.lu().isSingular(), "rank 2 matrix is singular");
+		check(a.lu().inverse() == null, "singular matrix has no inverse");
+		check(a.lu().solve(new double[] {1.0, 2.0, 3.0}) == null, "singular system has no unique solution");
+		
+		Matrix b = Matrix.multiply(1e6, a);
+		
+		check(b.lu().isSingular(), "scaled rank 2 matrix is singular");
+	}
+	
+	//The determinant of 1e-4 I is 1e-16, far below the tolerance, but the matrix is well conditioned:
+	private static void scaledIdentityIsRegular() {
+		double s = 1e-4;
+		Matrix a = new Matrix(new double[][] {{s, 0.0, 0.0, 0.0}, 
+		                                      {0.0, s, 0.0, 0.0}, 
+		                                      {0.0, 0.0, s, 0.0}, 
+		                                      {0.0, 0.0, 0.0, s}});
+		
+		check(!a.lu().isSingular(), "1e-4 I is regular");
+		
+		double[] x = a.lu().solve(new double[] {s, 2.0 * s, 3.0 * s, 4.0 * s});
+		
+		check(x != null && close(x[0], 1.0) && close(x[3], 4.0), "1e-4 I x = 1e-4 b gives b");
+	}
+	
+	//Entries are snapped to the tolerance grid, products of them drift by a few grid steps:
+	private static boolean close(double a, double b) {
+		return Math.abs(a - b) <= 1e-7 * Math.max(1.0, Math.abs(b));
+	}
+	
+	private static void check(boolean condition, String description) {
+		if (!condition) {
+			throw new AssertionError(description);
+		}
+	}
+	
+}
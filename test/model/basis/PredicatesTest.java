@@ -0,0 +1,100 @@
+package model.basis;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+//Behavior checks for Predicates, run with main. Throws on the first failure:
+public class PredicatesTest {
+	
+	public static void main(String[] args) {
+		simpleOrientations();
+		nearlyCollinearPoints();
+		nearlyCoplanarPoints();
+		
+		System.out.println("PredicatesTest passed");
+	}
+	
+	private static void simpleOrientations() {
+		check(Predicates.orient2d(0.0, 0.0, 1.0, 0.0, 0.0, 1.0) > 0.0, "counterclockwise is positive");
+		check(Predicates.orient2d(0.0, 0.0, 0.0, 1.0, 1.0, 0.0) < 0.0, "clockwise is negative");
+		check(Predicates.orient2d(0.0, 0.0, 1.0, 1.0, 3.0, 3.0) == 0.0, "collinear is zero");
+		check(Predicates.orient2d(0.0, 0.0, 1.0, 0.0, 0.0, 1.0) == 1.0, "twice the area");
+		
+		check(Predicates.orient3d(0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, -1.0) > 0.0, "below is positive");
+		check(Predicates.orient3d(0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, 1.0) < 0.0, "above is negative");
+		check(Predicates.orient3d(0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, 1.0, 0.0, 0.3, 0.7, 0.0) == 0.0, "coplanar is zero");
+	}
+	
+	//Points on a line through a and b, moved by at most one ulp, compared with the exact sign:
+	private static void nearlyCollinearPoints() {
+		Random r = new Random(1);
+		
+		for (int i = 0; i < 20000; i++) {
+			double s = Math.pow(10.0, r.nextInt(9) - 4);
+			double ax = grid(r, s), ay = grid(r, s);
+			double bx = grid(r, s), by = grid(r, s);
+			double t = r.nextDouble();
+			double cx = ax + t * (bx - ax);
+			double cy = ay + t * (by - ay);
+			
+			if (r.nextBoolean()) {
+				cx = Math.nextUp(cx);
+			}
+			
+			BigDecimal d = exact(ax).subtract(exact(cx)).multiply(exact(by).subtract(exact(cy)))
+			               .subtract(exact(ay).subtract(exact(cy)).multiply(exact(bx).subtract(exact(cx))));
+			
+			check(Predicates.sign(Predicates.orient2d(ax, ay, bx, by, cx, cy)) == d.signum(), "orient2d sign is exact");
+		}
+	}
+	
+	private static void nearlyCoplanarPoints() {
+		Random r = new Random(2);
+		
+		for (int i = 0; i < 20000; i++) {
+			double s = Math.pow(10.0, r.nextInt(9) - 4);
+			double[] p = new double[9];
+			
+			for (int k = 0; k < 9; k++) {
+				p[k] = grid(r, s);
+			}
+			
+			double u = r.nextDouble(), v = r.nextDouble();
+			double dx = p[0] + u * (p[3] - p[0]) + v * (p[6] - p[0]);
+			double dy = p[1] + u * (p[4] - p[1]) + v * (p[7] - p[1]);
+			double dz = p[2] + u * (p[5] - p[2]) + v * (p[8] - p[2]);
+			
+			if (r.nextBoolean()) {
+				dz = Math.nextDown(dz);
+			}
+			
+			BigDecimal adx = exact(p[0]).subtract(exact(dx)), ady = exact(p[1]).subtract(exact(dy)), adz = exact(p[2]).subtract(exact(dz));
+			BigDecimal bdx = exact(p[3]).subtract(exact(dx)), bdy = exact(p[4]).subtract(exact(dy)), bdz = exact(p[5]).subtract(exact(dz));
+			BigDecimal cdx = exact(p[6]).subtract(exact(dx)), cdy = exact(p[7]).subtract(exact(dy)), cdz = exact(p[8]).subtract(exact(dz));
+			
+			BigDecimal d = adz.multiply(bdx.multiply(cdy).subtract(cdx.multiply(bdy)))
+			               .add(bdz.multiply(cdx.multiply(ady).subtract(adx.multiply(cdy))))
+			               .add(cdz.multiply(adx.multiply(bdy).subtract(bdx.multiply(ady))));
+			
+			double o = Predicates.orient3d(p[0], p[1], p[2], p[3], p[4], p[5], p[6], p[7], p[8], dx, dy, dz);
+			
+			check(Predicates.sign(o) == d.signum(), "orient3d sign is exact");
+		}
+	}
+	
+	//Multiples of s / 64, so differences of them are mostly exact and the expansion stage is used:
+	private static double grid(Random r, double s) {
+		return r.nextInt(2000) * s / 64.0;
+	}
+	
+	private static BigDecimal exact(double d) {
+		return new BigDecimal(d);
+	}
+	
+	private static void check(boolean condition, String description) {
+		if (!condition) {
+			throw new AssertionError(description);
+		}
+	}
+	
+}
@@ -0,0 +1,138 @@
+package model.geometry2D;
+
+import java.util.Random;
+
+//Behavior checks for PolygonBoolean2D, run with main. Throws on the first failure:
+public class PolygonBoolean2DTest {
+	
+	public static void main(String[] args) {
+		overlappingSquares();
+		differenceWithHole();
+		disjointSquares();
+		areaIdentities();
+		
+		System.out.println("PolygonBoolean2DTest passed");
+	}
+	
+	//[0, 4]^2 and [2, 6]^2 share a square of area 4:
+	private static void overlappingSquares() {
+		Polygon2D a = rectangle(0.0, 0.0, 4.0, 4.0);
+		Polygon2D b = rectangle(2.0, 2.0, 6.0, 6.0);
+		
+		check(close(Region2D.area(Polygon2D.intersectionRegions(a, b)), 4.0), "intersection has area 4");
+		check(close(Region2D.area(Polygon2D.union(a, b)), 28.0), "union has area 28");
+		check(close(Region2D.area(Polygon2D.difference(a, b)), 12.0), "difference has area 12");
+		check(close(Region2D.area(Polygon2D.difference(b, a)), 12.0), "reversed difference has area 12");
+		check(close(Region2D.area(Polygon2D.xor(a, b)), 24.0), "xor has area 24");
+		check(Polygon2D.union(a, b).length == 1, "union is one region");
+		
+		Region2D[] i = Polygon2D.intersectionRegions(a, b);
+		check(contains(i, 3.0, 3.0) && !contains(i, 1.0, 1.0) && !contains(i, 5.0, 5.0), "intersection membership");
+	}
+	
+	private static void differenceWithHole() {
+		Polygon2D a = rectangle(0.0, 0.0, 4.0, 4.0);
+		Polygon2D b = rectangle(1.0, 1.0, 3.0, 3.0);
+		
+		Region2D[] d = Polygon2D.difference(a, b);
+		
+		check(d.length == 1, "difference is one region");
+		check(d[0].numberOfHoles() == 1, "difference has a hole");
+		check(close(d[0].area(), 12.0), "difference has area 12");
+		check(contains(d, 0.5, 0.5) && !contains(d, 2.0, 2.0), "hole is excluded");
+		check(close(Region2D.area(Polygon2D.union(a, b)), 16.0), "union with a contained square");
+		check(close(Region2D.area(Polygon2D.intersectionRegions(a, b)), 4.0), "intersection with a contained square");
+		check(close(Region2D.area(Polygon2D.difference(b, a)), 0.0), "contained square minus its container");
+		
+		//The region with a hole as an operand, filling the hole again:
+		Region2D[] u = PolygonBoolean2D.union(d, new Region2D[] {new Region2D(b)});
+		check(u.length == 1 && u[0].numberOfHoles() == 0 && close(u[0].area(), 16.0), "hole filled by union");
+	}
+	
+	private static void disjointSquares() {
+		Polygon2D a = rectangle(0.0, 0.0, 1.0, 1.0);
+		Polygon2D b = rectangle(3.0, 0.0, 4.0, 1.0);
+		
+		check(Polygon2D.union(a, b).length == 2, "union of disjoint squares has two regions");
+		check(close(Region2D.area(Polygon2D.intersectionRegions(a, b)), 0.0), "disjoint squares don't intersect");
+		check(close(Region2D.area(Polygon2D.difference(a, b)), 1.0), "difference leaves the square");
+		check(close(Region2D.area(Polygon2D.xor(a, b)), 2.0), "xor is both squares");
+	}
+	
+	//Union and intersection add up to both areas, xor is their difference, for random convex polygons:
+	private static void areaIdentities() {
+		Random r = new Random(5);
+		
+		for (int k = 0; k < 50; k++) {
+			Polygon2D a = randomPolygon(r);
+			Polygon2D b = randomPolygon(r);
+			
+			double i = Region2D.area(Polygon2D.intersectionRegions(a, b));
+			double u = Region2D.area(Polygon2D.union(a, b));
+			double d = Region2D.area(Polygon2D.difference(a, b));
+			double x = Region2D.area(Polygon2D.xor(a, b));
+			
+			check(close(u + i, a.area() + b.area()), "union and intersection add up, case " + k);
+			check(close(d + i, a.area()), "difference and intersection add up, case " + k);
+			check(close(x, u - i), "xor is union without intersection, case " + k);
+			check(close(i, area(Polygon2D.intersection(a, b))), "matches the triangle clipping, case " + k);
+		}
+	}
+	
+	//A convex polygon with corners on a circle around a random center:
+	private static Polygon2D randomPolygon(Random r) {
+		int n = 3 + r.nextInt(6);
+		double cx = 4.0 * r.nextDouble(), cy = 4.0 * r.nextDouble();
+		double radius = 1.0 + 3.0 * r.nextDouble();
+		
+		double[] angles = new double[n];
+		for (int i = 0; i < n; i++) {
+			angles[i] = 2.0 * Math.PI * (i + 0.8 * r.nextDouble()) / n;
+		}
+		
+		Vector2D[] points = new Vector2D[n];
+		for (int i = 0; i < n; i++) {
+			points[i] = new Vector2D(cx + radius * Math.cos(angles[i]), cy + radius * Math.sin(angles[i]));
+		}
+		
+		return new Polygon2D(points);
+	}
+	
+	private static Polygon2D rectangle(double x1, double y1, double x2, double y2) {
+		return new Polygon2D(new Vector2D[] {new Vector2D(x1, y1), new Vector2D(x2, y1), 
+		                                     new Vector2D(x2, y2), new Vector2D(x1, y2)});
+	}
+	
+	private static boolean contains(Region2D[] rs, double x, double y) {
+		Vector2D p = new Vector2D(x, y);
+		
+		for (Region2D r : rs) {
+			if (r.contains(p)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	private static double area(Triangle2D[] ts) {
+		double a = 0.0;
+		
+		for (Triangle2D t : ts) {
+			a += t.area();
+		}
+		
+		return a;
+	}
+	
+	private static boolean close(double a, double b) {
+		return Math.abs(a - b) <= 1e-7 * Math.max(1.0, Math.abs(b));
+	}
+	
+	private static void check(boolean condition, String description) {
+		if (!condition) {
+			throw new AssertionError(description);
+		}
+	}
+	
+}
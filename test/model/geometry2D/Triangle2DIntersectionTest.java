@@ -0,0 +1,111 @@
+package model.geometry2D;
+
+import java.util.Random;
+
+//Behavior checks for Triangle2D.intersection, run with main. Throws on the first failure:
+public class Triangle2DIntersectionTest {
+	
+	public static void main(String[] args) {
+		overlappingTriangles();
+		containedTriangle();
+		hexagram();
+		disjointAndTouchingTriangles();
+		arraysMatchPairs();
+		
+		System.out.println("Triangle2DIntersectionTest passed");
+	}
+	
+	//The intersection is the triangle (0, 0), (4, 0), (2, 2) with area 4, in both orientations:
+	private static void overlappingTriangles() {
+		Triangle2D a = triangle(0.0, 0.0, 4.0, 0.0, 0.0, 4.0);
+		Triangle2D b = triangle(0.0, 0.0, 4.0, 0.0, 4.0, 4.0);
+		Triangle2D c = triangle(4.0, 4.0, 4.0, 0.0, 0.0, 0.0);
+		
+		check(close(area(Triangle2D.intersection(a, b)), 4.0), "overlap has area 4");
+		check(close(area(Triangle2D.intersection(b, a)), 4.0), "intersection is symmetric");
+		check(close(area(Triangle2D.intersection(a, c)), 4.0), "orientation doesn't matter");
+		check(close(Triangle2D.intersectionPolygon(a, b).area(), 4.0), "polygon has area 4");
+	}
+	
+	private static void containedTriangle() {
+		Triangle2D a = triangle(0.0, 0.0, 10.0, 0.0, 0.0, 10.0);
+		Triangle2D b = triangle(1.0, 1.0, 3.0, 1.0, 1.0, 2.0);
+		
+		check(close(area(Triangle2D.intersection(a, b)), b.area()), "contained triangle is kept");
+		check(close(area(Triangle2D.intersection(b, a)), b.area()), "containing triangle is cut to the other");
+	}
+	
+	//Two triangles with the same centroid, one upside down, overlap in a hexagon of 2/3 of their area:
+	private static void hexagram() {
+		Triangle2D a = triangle(0.0, 0.0, 6.0, 0.0, 3.0, 6.0);
+		Triangle2D b = triangle(0.0, 4.0, 3.0, -2.0, 6.0, 4.0);
+		
+		check(close(area(Triangle2D.intersection(a, b)), 12.0), "hexagon has area 12");
+		check(Triangle2D.intersectionPolygon(a, b).n() == 6, "hexagon has 6 corners");
+	}
+	
+	private static void disjointAndTouchingTriangles() {
+		Triangle2D a = triangle(0.0, 0.0, 1.0, 0.0, 0.0, 1.0);
+		
+		check(Triangle2D.intersection(a, triangle(5.0, 5.0, 6.0, 5.0, 5.0, 6.0)).length == 0, "disjoint triangles");
+		check(Triangle2D.intersection(a, triangle(1.0, 0.0, 0.0, 1.0, 1.0, 1.0)).length == 0, "triangles sharing an edge");
+		check(Triangle2D.intersection(a, triangle(1.0, 0.0, 2.0, 0.0, 2.0, 1.0)).length == 0, "triangles sharing a corner");
+		check(Triangle2D.intersectionPolygon(a, triangle(1.0, 0.0, 0.0, 1.0, 1.0, 1.0)) == null, "no polygon without area");
+	}
+	
+	private static void arraysMatchPairs() {
+		Random r = new Random(3);
+		Triangle2D[] a = randomTriangles(r, 40);
+		Triangle2D[] b = randomTriangles(r, 50);
+		
+		double pairs = 0.0;
+		
+		for (Triangle2D s : a) {
+			for (Triangle2D t : b) {
+				pairs += area(Triangle2D.intersection(s, t));
+			}
+		}
+		
+		check(close(area(Triangle2D.intersection(a, b)), pairs), "grid finds all pairs");
+		check(close(area(Triangle2D.intersection(a, b, true)), pairs), "parallel grid finds all pairs");
+	}
+	
+	private static Triangle2D[] randomTriangles(Random r, int n) {
+		Triangle2D[] ts = new Triangle2D[n];
+		
+		for (int i = 0; i < n; i++) {
+			double x = 10.0 * r.nextDouble(), y = 10.0 * r.nextDouble();
+			
+			ts[i] = triangle(x, y, 
+			                 x + 1.0 + 2.0 * r.nextDouble(), y + r.nextDouble(), 
+			                 x + r.nextDouble(), y + 1.0 + 2.0 * r.nextDouble());
+		}
+		
+		return ts;
+	}
+	
+	private static Triangle2D triangle(double ax, double ay, double bx, double by, double cx, double cy) {
+		return new Triangle2D(new Vector2D(ax, ay), new Vector2D(bx, by), new Vector2D(cx, cy));
+	}
+	
+	private static double area(Triangle2D[] ts) {
+		double a = 0.0;
+		
+		for (Triangle2D t : ts) {
+			a += t.area();
+		}
+		
+		return a;
+	}
+	
+	private static boolean close(double a, double b) {
+		return Math.abs(a - b) <= 1e-7 * Math.max(1.0, Math.abs(b));
+	}
+	
+	private static void check(boolean condition, String description) {
+		if (!condition) {
+			throw new AssertionError(description);
+		}
+	}
+	
+}
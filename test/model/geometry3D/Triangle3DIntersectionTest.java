@@ -0,0 +1,106 @@
+package model.geometry3D;
+
+import model.basis.*;
+
+//Behavior checks for Triangle3D.intersects and Triangle3D.intersection, run with main. Throws on 
+//the first failure:
+public class Triangle3DIntersectionTest {
+	private static final Color color = new Color(0, 0, 0);
+	
+	public static void main(String[] args) {
+		for (double s : new double[] {1e-3, 1.0, 1e3}) {
+			crossingTriangles(s);
+			separatedIntervals(s);
+			touchingTriangles(s);
+		}
+		
+		coplanarTriangles();
+		degenerateTriangles();
+		
+		System.out.println("Triangle3DIntersectionTest passed");
+	}
+	
+	//b stands in the plane x = 0.5 and crosses a in the segment from (0.5, 0, 0) to (0.5, 1.5, 0):
+	private static void crossingTriangles(double s) {
+		Triangle3D a = triangle(s, 0.0, 0.0, 0.0, 2.0, 0.0, 0.0, 0.0, 2.0, 0.0);
+		Triangle3D b = triangle(s, 0.5, -1.0, -1.0, 0.5, 3.0, -1.0, 0.5, 0.5, 1.0);
+		
+		check(Triangle3D.intersects(a, b) && Triangle3D.intersects(b, a), "crossing triangles intersect");
+		
+		Vector3D[] segment = Triangle3D.intersection(a, b);
+		
+		check(segment != null, "crossing triangles have a segment");
+		
+		Vector3D p = point(s, 0.5, 0.0, 0.0);
+		Vector3D q = point(s, 0.5, 1.5, 0.0);
+		
+		check((close(segment[0], p, s) && close(segment[1], q, s)) || 
+		      (close(segment[0], q, s) && close(segment[1], p, s)), "segment end points");
+		
+		check(!Triangle3D.intersects(a, translated(b, 0.0, 0.0, 5.0 * s)), "separated triangles don't intersect");
+	}
+	
+	//Both triangles cross the line of the other plane, but their intervals on it don't overlap:
+	private static void separatedIntervals(double s) {
+		Triangle3D a = triangle(s, 0.0, 0.0, 0.0, 4.0, 0.0, 0.0, 0.0, 4.0, 0.0);
+		Triangle3D b = triangle(s, 3.0, 2.0, -1.0, 3.0, 3.0, -1.0, 3.0, 2.5, 1.0);
+		
+		check(!Triangle3D.intersects(a, b), "disjoint intervals don't intersect");
+		check(Triangle3D.intersection(a, b) == null, "disjoint intervals have no segment");
+	}
+	
+	private static void touchingTriangles(double s) {
+		Triangle3D a = triangle(s, 0.0, 0.0, 0.0, 2.0, 0.0, 0.0, 0.0, 2.0, 0.0);
+		Triangle3D b = triangle(s, 0.5, 0.5, 0.0, 1.0, 0.5, 1.0, 0.5, 1.0, 1.0);
+		
+		check(Triangle3D.intersects(a, b), "touching triangles intersect");
+	}
+	
+	private static void coplanarTriangles() {
+		Triangle3D a = triangle(1.0, 0.0, 0.0, 0.0, 2.0, 0.0, 0.0, 0.0, 2.0, 0.0);
+		
+		check(Triangle3D.intersects(a, translated(a, 0.5, 0.5, 0.0)), "overlapping coplanar triangles intersect");
+		check(Triangle3D.intersection(a, translated(a, 0.5, 0.5, 0.0)) == null, "coplanar triangles have no segment");
+		check(!Triangle3D.intersects(a, translated(a, 3.0, 3.0, 0.0)), "distant coplanar triangles don't intersect");
+	}
+	
+	private static void degenerateTriangles() {
+		Triangle3D a = triangle(1.0, 0.0, 0.0, 0.0, 2.0, 0.0, 0.0, 0.0, 2.0, 0.0);
+		Triangle3D line = triangle(1.0, 0.5, 0.5, -1.0, 0.5, 0.5, 0.0, 0.5, 0.5, 1.0);
+		Triangle3D point = triangle(1.0, 0.5, 0.5, 0.0, 0.5, 0.5, 0.0, 0.5, 0.5, 0.0);
+		
+		check(!Triangle3D.intersects(a, line) && !Triangle3D.intersects(line, a), "collinear triangle has no area");
+		check(!Triangle3D.intersects(a, point), "point triangle has no area");
+		
+		Triangle3D[] pieces = Triangle3D.intersect(a, line);
+		
+		check(pieces.length == 2 && pieces[0] == a && pieces[1] == line, "degenerate triangles don't split");
+	}
+	
+	private static Triangle3D triangle(double s, double ax, double ay, double az, 
+	                                   double bx, double by, double bz, 
+	                                   double cx, double cy, double cz) {
+		return new Triangle3D(point(s, ax, ay, az), point(s, bx, by, bz), point(s, cx, cy, cz), color);
+	}
+	
+	private static Vector3D point(double s, double x, double y, double z) {
+		return new Vector3D(s * x, s * y, s * z);
+	}
+	
+	private static Triangle3D translated(Triangle3D t, double x, double y, double z) {
+		Vector3D d = new Vector3D(x, y, z);
+		
+		return new Triangle3D(Vector3D.add(t.a(), d), Vector3D.add(t.b(), d), Vector3D.add(t.c(), d), color);
+	}
+	
+	private static boolean close(Vector3D a, Vector3D b, double s) {
+		return Vector3D.subtract(a, b).norm() <= 1e-8 * Math.max(1.0, s);
+	}
+	
+	private static void check(boolean condition, String description) {
+		if (!condition) {
+			throw new AssertionError(description);
+		}
+	}
+	
+}
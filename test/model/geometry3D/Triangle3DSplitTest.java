@@ -0,0 +1,147 @@
+package model.geometry3D;
+
+import java.util.Random;
+
+import model.basis.*;
+
+//Behavior checks for Triangle3D.intersect, run with main. Throws on the first failure:
+public class Triangle3DSplitTest {
+	private static final Color red = new Color(255, 0, 0);
+	private static final Color blue = new Color(0, 0, 255);
+	
+	public static void main(String[] args) {
+		crossingPair();
+		disjointTriangles();
+		randomSoup();
+		
+		System.out.println("Triangle3DSplitTest passed");
+	}
+	
+	//b crosses a in a segment that ends inside a, so a is only cut along that segment:
+	private static void crossingPair() {
+		Triangle3D a = new Triangle3D(new Vector3D(0.0, 0.0, 0.0), new Vector3D(4.0, 0.0, 0.0), new Vector3D(0.0, 4.0, 0.0), red);
+		Triangle3D b = new Triangle3D(new Vector3D(1.0, -1.0, -1.0), new Vector3D(1.0, 2.0, -1.0), new Vector3D(1.0, 0.5, 1.0), blue);
+		
+		Triangle3D[] pieces = Triangle3D.intersect(a, b);
+		Triangle3D[] all = Triangle3D.intersect(new Triangle3D[] {a, b});
+		
+		check(pieces.length > 2, "crossing triangles are split");
+		check(close(area(pieces, red), area(a)) && close(area(pieces, blue), area(b)), "split keeps the areas");
+		check(close(area(all, red), area(a)) && close(area(all, blue), area(b)), "array split keeps the areas");
+		check(penetrations(pieces) == 0 && penetrations(all) == 0, "pieces don't penetrate");
+		
+		for (Triangle3D p : pieces) {
+			check(p.getColor() == red || p.getColor() == blue, "pieces keep their colors");
+		}
+	}
+	
+	private static void disjointTriangles() {
+		Triangle3D a = new Triangle3D(new Vector3D(0.0, 0.0, 0.0), new Vector3D(1.0, 0.0, 0.0), new Vector3D(0.0, 1.0, 0.0), red);
+		Triangle3D b = new Triangle3D(new Vector3D(0.0, 0.0, 1.0), new Vector3D(1.0, 0.0, 1.0), new Vector3D(0.0, 1.0, 2.0), blue);
+		
+		Triangle3D[] pieces = Triangle3D.intersect(new Triangle3D[] {a, b});
+		
+		check(pieces.length == 2 && pieces[0] == a && pieces[1] == b, "disjoint triangles stay as they are");
+	}
+	
+	private static void randomSoup() {
+		Random r = new Random(7);
+		double s = 100.0;
+		Triangle3D[] ts = new Triangle3D[60];
+		
+		for (int i = 0; i < ts.length; i++) {
+			double x = s * r.nextDouble(), y = s * r.nextDouble(), z = s * r.nextDouble();
+			double e = 0.3 * s;
+			
+			ts[i] = new Triangle3D(new Vector3D(x + e * r.nextGaussian(), y + e * r.nextGaussian(), z + e * r.nextGaussian()), 
+			                       new Vector3D(x + e * r.nextGaussian(), y + e * r.nextGaussian(), z + e * r.nextGaussian()), 
+			                       new Vector3D(x + e * r.nextGaussian(), y + e * r.nextGaussian(), z + e * r.nextGaussian()), 
+			                       (i % 2 == 0) ? red : blue);
+		}
+		
+		Triangle3D[] pieces = Triangle3D.intersect(ts);
+		
+		check(pieces.length > ts.length, "soup is split");
+		check(close(area(pieces, red), area(ts, red)) && close(area(pieces, blue), area(ts, blue)), "soup split keeps the areas");
+		check(penetrations(pieces) == 0, "soup pieces don't penetrate");
+	}
+	
+	//Pairs of pieces that cross in a segment whose midpoint lies strictly inside both:
+	private static int penetrations(Triangle3D[] ts) {
+		int n = 0;
+		
+		for (int i = 0; i < ts.length; i++) {
+			for (int j = i + 1; j < ts.length; j++) {
+				Vector3D[] s = Triangle3D.intersection(ts[i], ts[j]);
+				
+				if (s == null) continue;
+				
+				double m1 = (s[0].x1() + s[1].x1()) / 2.0;
+				double m2 = (s[0].x2() + s[1].x2()) / 2.0;
+				double m3 = (s[0].x3() + s[1].x3()) / 2.0;
+				
+				if (strictlyInside(ts[i], m1, m2, m3) && strictlyInside(ts[j], m1, m2, m3)) {
+					n++;
+				}
+			}
+		}
+		
+		return n;
+	}
+	
+	private static boolean strictlyInside(Triangle3D t, double x1, double x2, double x3) {
+		double[] u = difference(t.b(), t.a());
+		double[] v = difference(t.c(), t.a());
+		double[] w = {x1 - t.a().x1(), x2 - t.a().x2(), x3 - t.a().x3()};
+		
+		double uu = dot(u, u), uv = dot(u, v), vv = dot(v, v), wu = dot(w, u), wv = dot(w, v);
+		double d = uu * vv - uv * uv;
+		double k1 = (vv * wu - uv * wv) / d;
+		double k2 = (uu * wv - uv * wu) / d;
+		
+		return Math.min(1.0 - k1 - k2, Math.min(k1, k2)) > 1e-6;
+	}
+	
+	private static double area(Triangle3D[] ts, Color color) {
+		double a = 0.0;
+		
+		for (Triangle3D t : ts) {
+			if (t.getColor() == color) {
+				a += area(t);
+			}
+		}
+		
+		return a;
+	}
+	
+	//Unrounded, Vector3D.norm rounds to the tolerance grid:
+	private static double area(Triangle3D t) {
+		double[] u = difference(t.b(), t.a());
+		double[] v = difference(t.c(), t.a());
+		
+		double c1 = u[1] * v[2] - u[2] * v[1];
+		double c2 = u[2] * v[0] - u[0] * v[2];
+		double c3 = u[0] * v[1] - u[1] * v[0];
+		
+		return Math.sqrt(c1 * c1 + c2 * c2 + c3 * c3) / 2.0;
+	}
+	
+	private static double[] difference(Vector3D a, Vector3D b) {
+		return new double[] {a.x1() - b.x1(), a.x2() - b.x2(), a.x3() - b.x3()};
+	}
+	
+	private static double dot(double[] a, double[] b) {
+		return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+	}
+	
+	private static boolean close(double a, double b) {
+		return Math.abs(a - b) <= 1e-9 * Math.max(1.0, Math.abs(b));
+	}
+	
+	private static void check(boolean condition, String description) {
+		if (!condition) {
+			throw new AssertionError(description);
+		}
+	}
+	
+}